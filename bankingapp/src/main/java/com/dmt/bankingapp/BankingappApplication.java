@@ -6,15 +6,20 @@ import com.dmt.bankingapp.entity.Commission;
 import com.dmt.bankingapp.repository.AccountRepository;
 import com.dmt.bankingapp.repository.ClientRepository;
 import com.dmt.bankingapp.repository.CommissionRepository;
+import com.dmt.bankingapp.service.AccountHistoryService;
+import com.dmt.bankingapp.service.BankSubBalanceService;
+import com.dmt.bankingapp.service.LedgerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.time.LocalDateTime;
 
 @SpringBootApplication
+@EnableScheduling
 public class BankingappApplication {
 
     public static void main(String[] args) {
@@ -30,10 +35,23 @@ public class BankingappApplication {
 	@Autowired
 	private final CommissionRepository commissionRepository;
 
-	public BankingappApplication(ClientRepository clientRepository, AccountRepository accountRepository, CommissionRepository commissionRepository) {
+	@Autowired
+	private final AccountHistoryService accountHistoryService;
+
+	@Autowired
+	private final LedgerService ledgerService;
+
+	@Autowired
+	private final BankSubBalanceService bankSubBalanceService;
+
+	public BankingappApplication(ClientRepository clientRepository, AccountRepository accountRepository, CommissionRepository commissionRepository,
+			AccountHistoryService accountHistoryService, LedgerService ledgerService, BankSubBalanceService bankSubBalanceService) {
 		this.clientRepository = clientRepository;
 		this.accountRepository = accountRepository;
 		this.commissionRepository = commissionRepository;
+		this.accountHistoryService = accountHistoryService;
+		this.ledgerService = ledgerService;
+		this.bankSubBalanceService = bankSubBalanceService;
 	}
 
 	@Bean
@@ -48,6 +66,9 @@ public class BankingappApplication {
 				Account accountForDeposits = new Account("BANK_DEPOSIT", Account.AccountType.BANK, bank);
 				accountForLoans.setAccountBalance(30000000, false);
 				accountForDeposits.setAccountBalance(100000, false);
+				//Every loan and deposit goes through these two - their balances are split into sub-balances
+				accountForLoans.setSubBalanceStripes(BankSubBalanceService.DEFAULT_STRIPES);
+				accountForDeposits.setSubBalanceStripes(BankSubBalanceService.DEFAULT_STRIPES);
 
 				clientRepository.save(bank);
 				accountRepository.save(accountForDeposits);
@@ -70,7 +91,13 @@ public class BankingappApplication {
 				commissionRepository.save(commissionForDeposit);
 			}
 
+			//Sub-balance rows of the striped bank accounts
+			bankSubBalanceService.createMissingStripes();
 
+			//Fill the account history read model of a database with transactions posted before it existed
+			accountHistoryService.rebuildIfEmpty();
+			//Fill the ledger with the transactions and opening balances of accounts created before it existed
+			ledgerService.backfillIfEmpty();
 		};
 	}
 }
\ No newline at end of file
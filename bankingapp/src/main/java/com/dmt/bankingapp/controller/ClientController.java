@@ -7,6 +7,7 @@ import com.dmt.bankingapp.record.deposit.DepositRecord;
 import com.dmt.bankingapp.record.loans.ClientLoan;
 import com.dmt.bankingapp.record.transactions.TransactionRecord;
 import com.dmt.bankingapp.utils.DateAdjuster;
+import com.dmt.bankingapp.utils.Money;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
@@ -163,13 +164,13 @@ public class ClientController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "You don't have any loans");
         }
 
-        double total = 0;
+        Money total = Money.ZERO;
         ArrayList<ClientLoan> clientLoans = new ArrayList<>();
         for (Loan loan : loans) {
-            total += loan.getLeftToPay();
+            total = total.plus(loan.getLeftToPayAsMoney());
             clientLoans.add(new ClientLoan(loan.getTotalLoanAmount(), loan.getLoanAccount().getAccountNumber(), loan.getLoanID(), DateAdjuster.getDate(loan.getDateOfLoan()), loan.getLoanDuration(), loan.getLeftToPay()));
         }
-        model.addAttribute("totalRemain", "Remaining amount to repay all loans: " + total + "zł");
+        model.addAttribute("totalRemain", "Remaining amount to repay all loans: " + total.toDouble() + "zł");
         model.addAttribute("loans", clientLoans);
         return "clientTemplates/loanBalance";
     }
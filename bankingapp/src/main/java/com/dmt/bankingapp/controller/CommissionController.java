@@ -3,6 +3,7 @@ package com.dmt.bankingapp.controller;
 import com.dmt.bankingapp.entity.Client;
 import com.dmt.bankingapp.entity.Commission;
 import com.dmt.bankingapp.repository.CommissionRepository;
+import com.dmt.bankingapp.service.CommissionRateCache;
 import com.dmt.bankingapp.service.implementation.DetailsOfLoggedClientImpl;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,9 +30,14 @@ public class CommissionController {
     @Autowired
     private final DetailsOfLoggedClientImpl detailsOfLoggedClient;
 
-    public CommissionController(CommissionRepository commissionRepository, DetailsOfLoggedClientImpl detailsOfLoggedClient) {
+    @Autowired
+    private final CommissionRateCache commissionRateCache;
+
+    public CommissionController(CommissionRepository commissionRepository, DetailsOfLoggedClientImpl detailsOfLoggedClient,
+            CommissionRateCache commissionRateCache) {
         this.commissionRepository = commissionRepository;
         this.detailsOfLoggedClient = detailsOfLoggedClient;
+        this.commissionRateCache = commissionRateCache;
     }
 
     @PostMapping(path = "/setForLoanCommission")
@@ -63,6 +69,7 @@ public class CommissionController {
         commissionInstance.setCommissionRateInPercent(commissionRateAsPercent);
         //Save to db
         commissionRepository.save(commissionInstance);
+        commissionRateCache.evict(commissionInstance.getCommissionOf());
         commissionRepository.save(oldCommission);
 
         model.addAttribute("response", "Successfully updated commission rate for LOANS from " + oldCommission.getCommissionRateInPercent() + " to " + commissionInstance.getCommissionRateInPercent());
@@ -99,6 +106,7 @@ public class CommissionController {
         commissionInstance.setCommissionRateInPercent(depositRateAsPercent);
         //Save to db
         commissionRepository.save(commissionInstance);
+        commissionRateCache.evict(commissionInstance.getCommissionOf());
         commissionRepository.save(oldCommission);
 
         model.addAttribute("response", "Successfully updated commission rate for DEPOSITS from " + oldCommission.getCommissionRateInPercent() + " to " + commissionInstance.getCommissionRateInPercent());
@@ -136,6 +144,7 @@ public class CommissionController {
         commissionInstance.setCommissionRateInPercent(interestRateAsPercent);
         //Save to db
         commissionRepository.save(commissionInstance);
+        commissionRateCache.evict(commissionInstance.getCommissionOf());
         commissionRepository.save(oldCommission);
 
         model.addAttribute("response", "Successfully updated interest rate for LOANS from " + oldCommission.getCommissionRateInPercent() + " to " + commissionInstance.getCommissionRateInPercent());
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.ui.Model;
 import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.service.TransferService;
 import com.dmt.bankingapp.service.interfaceClass.DetailsOfLoggedClient;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +17,7 @@ import com.dmt.bankingapp.entity.Client;
 import com.dmt.bankingapp.entity.Deposit;
 import com.dmt.bankingapp.entity.Deposit.DepositType;
 import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.utils.Money;
 
 import org.springframework.web.server.ResponseStatusException;
 
@@ -36,7 +38,7 @@ public class DepositController {
     private AccountRepository accountRepository;
 
     @Autowired
-    private TransactionRepository transactionRepository;
+    private TransferService transferService;
 
     @Autowired
     private ClientRepository clientRepository;
@@ -62,7 +64,7 @@ public class DepositController {
         if (checkingAccount == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Checking account has not been found");
         }
-        if (checkingAccount.getAccountBalance() < totalDepositAmount) {
+        if (checkingAccount.getAccountBalanceAsMoney().isLessThan(Money.of(totalDepositAmount))) {
             throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "You don't have enough money!");
         }
         Account bankAccount = accountRepository.findByAccountNumber("BANK_DEPOSIT");
@@ -101,8 +103,12 @@ public class DepositController {
                 break;
         }
 
-        Transaction t1 = new Transaction(checkingAccount, bankAccount, totalDepositAmount);
-        transactionRepository.save(t1);
+        // Posted on the locked checking account - the balance check above may have raced with a transfer
+        try {
+            transferService.transfer(checkingAccount, bankAccount, totalDepositAmount, Transaction.TransactionType.DEPOSIT);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, e.getMessage());
+        }
 
         depositRepository.save(deposit);
 
@@ -156,8 +162,7 @@ public class DepositController {
         //deposit withdraw
         LocalDateTime expectedDateOfWithdraw = requestedDeposit.getDateOfDeposit().plusMonths(requestedDeposit.getDepositDuration());
         if(expectedDateOfWithdraw.isBefore(LocalDateTime.now()) || expectedDateOfWithdraw.isEqual(LocalDateTime.now())){
-            Transaction withdraw = new Transaction(bankAccount, clientCheckingAccount, requestedDeposit.getReturnOfInvestment());
-            transactionRepository.save(withdraw);
+            transferService.transfer(bankAccount, clientCheckingAccount, requestedDeposit.getReturnOfInvestment(), Transaction.TransactionType.DEPOSIT_PAYOUT);
             requestedDeposit.setActive(false);
             requestedDeposit.setDateOfWithdrawn(LocalDateTime.now());
             depositRepository.save(requestedDeposit);
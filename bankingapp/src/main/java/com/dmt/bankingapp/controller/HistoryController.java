@@ -1,25 +1,38 @@
 package com.dmt.bankingapp.controller;
 
 import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.repository.AccountRepository;
 import com.dmt.bankingapp.repository.ClientRepository;
+import com.dmt.bankingapp.service.AccountHistoryService;
+import com.dmt.bankingapp.service.HistoryCache;
+import com.dmt.bankingapp.service.HistoryExportService;
 import com.dmt.bankingapp.service.implementation.AccountsOfUserIntoHistoryListImpl;
 import com.dmt.bankingapp.service.implementation.DetailsOfLoggedClientImpl;
 import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.record.HistoryCacheStats;
+import com.dmt.bankingapp.record.HistoryFilter;
+import com.dmt.bankingapp.utils.Money;
 
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping(path = "/history")
@@ -34,22 +47,75 @@ public class HistoryController {
     @Autowired
     private final AccountsOfUserIntoHistoryListImpl accountsOfUserIntoHistoryList;
 
-    public HistoryController(DetailsOfLoggedClientImpl detailsOfLoggedClientImp, ClientRepository clientRepository, AccountsOfUserIntoHistoryListImpl accountsOfUserIntoHistoryList) {
+    @Autowired
+    private final AccountRepository accountRepository;
+
+    @Autowired
+    private final HistoryExportService historyExportService;
+
+    @Autowired
+    private final HistoryCache historyCache;
+
+    @Autowired
+    private final AccountHistoryService accountHistoryService;
+
+    public HistoryController(DetailsOfLoggedClientImpl detailsOfLoggedClientImp, ClientRepository clientRepository, AccountsOfUserIntoHistoryListImpl accountsOfUserIntoHistoryList,
+            AccountRepository accountRepository, HistoryExportService historyExportService, HistoryCache historyCache, AccountHistoryService accountHistoryService) {
         this.detailsOfLoggedClientImp = detailsOfLoggedClientImp;
         this.clientRepository = clientRepository;
         this.accountsOfUserIntoHistoryList = accountsOfUserIntoHistoryList;
+        this.accountRepository = accountRepository;
+        this.historyExportService = historyExportService;
+        this.historyCache = historyCache;
+        this.accountHistoryService = accountHistoryService;
     }
-    //Endpoint for history of checking account
+    //Endpoint for history of checking account, optionally narrowed down by date (inclusive, yyyy-MM-dd),
+    //direction (income or expense), account on the other side and amount - filters are applied in the query
     @GetMapping(path = "/checking")
-    public @ResponseBody  ResponseEntity<ArrayList<History>> getHistoryOfIncomeAndExpense(HttpServletRequest request){
+    public @ResponseBody  ResponseEntity<ArrayList<History>> getHistoryOfIncomeAndExpense(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String counterpartyAccount,
+            @RequestParam(required = false) Double minAmount,
+            @RequestParam(required = false) Double maxAmount,
+            HttpServletRequest request){
+        HistoryFilter.Direction filterDirection = null;
+        if(direction != null){
+            try {
+                filterDirection = HistoryFilter.Direction.valueOf(direction.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return badRequest("Unsupported direction "+direction+", use income or expense!");
+            }
+        }
+        if(from != null && to != null && from.isAfter(to)){
+            return badRequest("Date from cannot be after date to!");
+        }
+        if(minAmount != null && maxAmount != null && minAmount > maxAmount){
+            return badRequest("Minimal amount cannot be greater than maximal amount!");
+        }
+        HistoryFilter filter = new HistoryFilter(
+                from == null ? null : from.atStartOfDay(),
+                to == null ? null : to.plusDays(1).atStartOfDay(),
+                filterDirection,
+                counterpartyAccount == null || counterpartyAccount.isBlank() ? null : counterpartyAccount.trim(),
+                minAmount == null ? null : Money.of(minAmount),
+                maxAmount == null ? null : Money.of(maxAmount));
+
         //Get instance of logged client
         Client client = detailsOfLoggedClientImp.getLoggedClientInstance(request);
         //Call method to get history of all accounts associated to client
-        ResponseEntity<ArrayList<History>> historyArrayList = accountsOfUserIntoHistoryList.getStoredHistoryByClient(client);
+        ResponseEntity<ArrayList<History>> historyArrayList = accountsOfUserIntoHistoryList.getStoredHistoryByClient(client, filter);
         //return list of transactions as History records
         return historyArrayList;
     }
 
+    private static <T> ResponseEntity<T> badRequest(String message){
+        HttpHeaders header = new HttpHeaders();
+        header.add("ErrorMessage", message);
+        return new ResponseEntity<>(null, header, HttpStatus.BAD_REQUEST);
+    }
+
     @GetMapping(path = "/checking/{clientId}")
     public @ResponseBody ResponseEntity<ArrayList<History>> getHistoryOfAccountByAccountNumberAdminOnly(@PathVariable int clientId, HttpServletRequest request){
         //check if accessing account is admin or throw exception
@@ -73,4 +139,71 @@ public class HistoryController {
         //return list of transactions as History records
         return historyArrayList;
     }
+
+    //Endpoint for exporting history of checking account as a file - rows are written while they are read
+    //from the database, so the response starts right away and memory use does not grow with the history
+    @GetMapping(path = "/checking/export")
+    public ResponseEntity<StreamingResponseBody> exportHistoryOfIncomeAndExpense(@RequestParam(defaultValue = "csv") String format, HttpServletRequest request){
+        HistoryExportService.Format exportFormat;
+        try {
+            exportFormat = HistoryExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return badRequest("Unsupported format "+format+", use csv or ndjson!");
+        }
+        //Get instance of logged client
+        Client client = detailsOfLoggedClientImp.getLoggedClientInstance(request);
+        if(accountRepository.findByClient(client).isEmpty()){
+            HttpHeaders header = new HttpHeaders();
+            header.add("ErrorMessage", "Client don't have any active accounts!");
+            return new ResponseEntity<>(null, header, HttpStatus.NOT_FOUND);
+        }
+        //Compress only when the client accepts it
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType()+";charset=UTF-8");
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"history."+exportFormat.getExtension()+"\"");
+        if(gzip){
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        StreamingResponseBody body = outputStream -> {
+            if(gzip){
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192);
+                historyExportService.export(client, exportFormat, gzipOutputStream);
+                gzipOutputStream.finish();
+            }else{
+                historyExportService.export(client, exportFormat, outputStream);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    //Endpoint for statistics of the history cache - admin only
+    @GetMapping(path = "/cache")
+    public @ResponseBody ResponseEntity<HistoryCacheStats> getHistoryCacheStats(HttpServletRequest request){
+        Client loggedClient = detailsOfLoggedClientImp.getLoggedClientInstance(request);
+        if(!loggedClient.isAdmin()){
+            HttpHeaders header = new HttpHeaders();
+            header.add("ErrorMessage", "You don't have enough permission to perform this action!");
+            return new ResponseEntity<>(null, header, HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok(historyCache.getStats());
+    }
+
+    //Endpoint for rebuilding the account history read model from all transactions - admin only
+    @PostMapping(path = "/rebuild")
+    public @ResponseBody ResponseEntity<String> rebuildAccountHistory(HttpServletRequest request){
+        Client loggedClient = detailsOfLoggedClientImp.getLoggedClientInstance(request);
+        if(!loggedClient.isAdmin()){
+            HttpHeaders header = new HttpHeaders();
+            header.add("ErrorMessage", "You don't have enough permission to perform this action!");
+            return new ResponseEntity<>(null, header, HttpStatus.FORBIDDEN);
+        }
+        int written = accountHistoryService.rebuild();
+        historyCache.clear();
+        return ResponseEntity.ok("Account history rebuilt, "+written+" entries written");
+    }
 }
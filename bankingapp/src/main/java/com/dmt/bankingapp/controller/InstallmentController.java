@@ -74,14 +74,12 @@ public class InstallmentController {
             return "Loan has been paid - there is no installments left to pay";
         }
 
-        List<Installment> installments = loan.getInstallments();
+        // Kept up to date by the payments - the schedule is not loaded
+        Installment installment = loan.getNextUnpaidInstallment();
 
         ArrayList<NextInstallment> installmentsList = new ArrayList<>();
-        for (Installment installment : installments) {
-            if (!installment.getIsPaid()) {
-                installmentsList.add(new NextInstallment(installment.getLoan().getLoanAccount().getAccountNumber(), installment.getInstallmentID(), installment.getInstallmentAmount(), installment.getPaidAmount(), (installment.getInstallmentAmount() - installment.getPaidAmount()), DateAdjuster.getDate(installment.getDueDate())));
-                break;
-            }
+        if (installment != null) {
+            installmentsList.add(new NextInstallment(loan.getLoanAccount().getAccountNumber(), installment.getInstallmentID(), installment.getInstallmentAmount(), installment.getPaidAmount(), installment.getDueAmount().toDouble(), DateAdjuster.getDate(installment.getDueDate())));
         }
         model.addAttribute("next", installmentsList);
         return "installmentTemplates/next";
@@ -100,7 +98,7 @@ public class InstallmentController {
         if (installment == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Installment has not been found");
         }
-        GivenInstallment givenInstallment = new GivenInstallment(installment.getLoan().getLoanAccount().getAccountNumber(), installment.getInstallmentID(), installment.getLoan().getLoanID(), installment.getLoan().getClient().getClientID(), installment.getIsPaid(), installment.getInstallmentAmount(), installment.getPaidAmount(), (installment.getInstallmentAmount() - installment.getPaidAmount()), DateAdjuster.getDate(installment.getDueDate()));
+        GivenInstallment givenInstallment = new GivenInstallment(installment.getLoan().getLoanAccount().getAccountNumber(), installment.getInstallmentID(), installment.getLoan().getLoanID(), installment.getLoan().getClient().getClientID(), installment.getIsPaid(), installment.getInstallmentAmount(), installment.getPaidAmount(), installment.getDueAmount().toDouble(), DateAdjuster.getDate(installment.getDueDate()));
         model.addAttribute("given", givenInstallment);
         return "installmentTemplates/given";
     }
@@ -122,7 +120,7 @@ public class InstallmentController {
         ArrayList<LoanInstallment> loanInstallments = new ArrayList<>();
 
         for (Installment installment : installments) {
-               loanInstallments.add(new LoanInstallment( installment.getLoan().getLoanAccount().getAccountNumber(), installment.getInstallmentID(), installment.getInstallmentAmount(), installment.getIsPaid(), installment.getPaidAmount(), (installment.getInstallmentAmount() - installment.getPaidAmount()), DateAdjuster.getDate(installment.getDueDate())));
+               loanInstallments.add(new LoanInstallment( installment.getLoan().getLoanAccount().getAccountNumber(), installment.getInstallmentID(), installment.getInstallmentAmount(), installment.getIsPaid(), installment.getPaidAmount(), installment.getDueAmount().toDouble(), DateAdjuster.getDate(installment.getDueDate())));
         }
         model.addAttribute("forLoan", "installments for loan ID: " + loanId);
         model.addAttribute("loan", loanInstallments);
@@ -3,10 +3,13 @@ package com.dmt.bankingapp.controller;
 import com.dmt.bankingapp.entity.*;
 import com.dmt.bankingapp.record.deposit.DepositRecord;
 import com.dmt.bankingapp.record.loans.AllLoansRecord;
+import com.dmt.bankingapp.record.loans.LoanQuoteRecord;
 import com.dmt.bankingapp.record.loans.LoanRecord;
 import com.dmt.bankingapp.repository.*;
-import com.dmt.bankingapp.service.AccountService;
+import com.dmt.bankingapp.service.CommissionRateCache;
+import com.dmt.bankingapp.service.LoanOriginationService;
 import com.dmt.bankingapp.service.interfaceClass.DetailsOfLoggedClient;
+import com.dmt.bankingapp.utils.AmortizationEngine;
 
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.stereotype.Controller;
@@ -29,13 +32,10 @@ public class LoanController {
     private LoanRepository loanRepository;
 
     @Autowired
-    private AccountRepository accountRepository;
+    private LoanOriginationService loanOriginationService;
 
     @Autowired
-    private TransactionRepository transactionRepository;
-
-    @Autowired
-    private AccountService accountService;
+    private CommissionRateCache commissionRateCache;
 
     @Autowired
     private ClientRepository clientRepository;
@@ -43,81 +43,61 @@ public class LoanController {
     @Autowired
     private DetailsOfLoggedClient detailsOfLoggedClient;
 
-    @Autowired
-    private CommissionRepository commissionRepository;
-
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    // Bounds the size of the schedule in a response - 100 years
+    public static final int MAX_QUOTE_DURATION = 1200;
+
     @PostMapping("/add")
     public String addNewLoan(@RequestParam double principalAmount,
             @RequestParam int loanDuration,
+            @RequestParam(defaultValue = "EQUAL") AmortizationEngine.ScheduleKind scheduleKind,
             HttpServletRequest request,
             Model model) {
         String currentName = detailsOfLoggedClient.getNameFromClient(request);
         Client client = clientRepository.findByClientName(currentName);
-        Account checkingAccount = client.getCheckingAccount();
-        if (checkingAccount == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Checking account has not been found");
-        }
-
-        Account bankAccount = accountRepository.findByAccountNumber("BANK_LOAN");
-        if (bankAccount == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Bank account has not been found");
-        }
-
-        // Create a new loan account using the AccountService's method
-        String response = accountService.addNewAccount(Account.AccountType.LOAN, client);
-        if (!response.contains("Account created successfully")) {
-            return response;
+        try {
+            loanOriginationService.originate(client, principalAmount, loanDuration, scheduleKind);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
 
-        // Fetch the newly created loan account
-        Account loanAccount = accountService.getLatestAccount();
-
-        // Fetch live commission rate
-        double commisionRate = commissionRepository.findByCommissionOf("LOAN_COMMISSION").getCommissionRateInPercent();
-
-        // Fetch live interest rate
-        double interestRate = commissionRepository.findByCommissionOf("LOAN_INTEREST").getCommissionRateInPercent();
-
-        Loan loan = new Loan(loanAccount, checkingAccount, principalAmount, interestRate, commisionRate, loanDuration,
-                bankAccount);
-
-        // Calculating commision and amount of intrests
-        double intrestForBank = loan.intrestAmount(principalAmount, interestRate, loanDuration);
-        double commisionForBank = loan.commisionAmout(principalAmount, commisionRate);
-        // Setting date of loan
-        loan.setDateOfLoan(LocalDateTime.now());
-        // Money transfer from the account where loan is launched to the checking
-        // account of the customer
-        Transaction t1 = new Transaction(loanAccount, checkingAccount, principalAmount);
-        transactionRepository.save(t1);
-        // Profit from interest transfer from the account where loan is launched to the
-        // bank's account
-        Transaction t2 = new Transaction(loanAccount, bankAccount, intrestForBank);
-        transactionRepository.save(t2);
-        // Profit from commision transfer from the account where loan is launched to the
-        // bank's account
-        Transaction t3 = new Transaction(loanAccount, bankAccount, commisionForBank);
-        transactionRepository.save(t3);
-        // Updating total amount of the loan
-        double totalLoanAmount = principalAmount + intrestForBank + commisionForBank;
-        loan.setTotalLoanAmout(totalLoanAmount);
-        loan.setLeftToPay(totalLoanAmount);
-        // Generating installments
-        loan.generateInstallments();
-        // Setting loan to active
-        loan.setIsActive(true);
-
-        loanRepository.save(loan);
-        loanAccount.setLoan(loan);
-        accountRepository.save(loanAccount);
-
         String output = "Loan and loan account created successfully";
         model.addAttribute("response", output);
         return "indexTemplates/hello";
     }
 
+    // Nothing is written - the totals and the schedule come from AmortizationEngine with the cached rates, the
+    // same arithmetic /add uses, so the quote can be asked for on every change of the amount or the duration
+    @GetMapping("/quote")
+    @ResponseBody
+    public LoanQuoteRecord getQuote(@RequestParam double principalAmount, @RequestParam int loanDuration,
+            @RequestParam(defaultValue = "EQUAL") AmortizationEngine.ScheduleKind scheduleKind) {
+        if (principalAmount <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Loan amount has to be positive!");
+        }
+        if (loanDuration <= 0 || loanDuration > MAX_QUOTE_DURATION) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Loan duration has to be between 1 and " + MAX_QUOTE_DURATION + " months!");
+        }
+        Map<String, Double> rates = commissionRateCache.getRates(List.of(LoanOriginationService.LOAN_COMMISSION, LoanOriginationService.LOAN_INTEREST));
+        Double commisionRate = rates.get(LoanOriginationService.LOAN_COMMISSION);
+        Double interestRate = rates.get(LoanOriginationService.LOAN_INTEREST);
+        if (commisionRate == null || interestRate == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Loan rates have not been found");
+        }
+
+        AmortizationEngine.Quote quote = AmortizationEngine.quote(scheduleKind, principalAmount, interestRate, commisionRate, loanDuration);
+        long[] installmentGrosze = quote.installmentGrosze();
+        double[] installments = new double[installmentGrosze.length];
+        for (int i = 0; i < installmentGrosze.length; i++) {
+            installments[i] = installmentGrosze[i] / 100.0;
+        }
+        return new LoanQuoteRecord(scheduleKind.name(), quote.principalGrosze() / 100.0, loanDuration, interestRate, commisionRate,
+                quote.interestGrosze() / 100.0, quote.commissionGrosze() / 100.0, quote.totalGrosze() / 100.0, installments);
+    }
+
     @GetMapping("/all")
     public String getAllLoans(HttpServletRequest request, Model model) {
         String requesterName = detailsOfLoggedClient.getNameFromClient(request);
@@ -0,0 +1,111 @@
+package com.dmt.bankingapp.controller;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.StandingOrder;
+import com.dmt.bankingapp.record.standingOrders.StandingOrderExecutionRecord;
+import com.dmt.bankingapp.record.standingOrders.StandingOrderRecord;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.ClientRepository;
+import com.dmt.bankingapp.service.AccountLookupService;
+import com.dmt.bankingapp.service.StandingOrderService;
+import com.dmt.bankingapp.service.interfaceClass.DetailsOfLoggedClient;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@Controller
+@RequestMapping(path = "/standingOrder")
+public class StandingOrderController {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private DetailsOfLoggedClient detailsOfLoggedClient;
+
+    @Autowired
+    private AccountLookupService accountLookupService;
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    // Recurring transfer from an account of the logged client, first executed on startDate (yyyy-MM-dd)
+    @PostMapping("/add")
+    @ResponseBody
+    public StandingOrderRecord addStandingOrder(@RequestParam String giverAccountNumber, @RequestParam String receiverAccountNumber,
+            @RequestParam double amount, @RequestParam StandingOrder.Frequency frequency,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate, HttpServletRequest request) {
+        Client client = getLoggedClient(request);
+
+        Account giver = accountLookupService.findByAccountNumber(giverAccountNumber);
+        if (giver == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Sender's account has not been found");
+        }
+        if (!giver.getClient().equals(client)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not permitted to transfer money from an account you do not own");
+        }
+        Account receiver = accountLookupService.findByAccountNumber(receiverAccountNumber);
+        if (receiver == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Receiver's account has not been found");
+        }
+        if (startDate.isBefore(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Standing order cannot start in the past");
+        }
+        try {
+            return standingOrderService.create(giver, receiver, amount, frequency, startDate);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/my")
+    @ResponseBody
+    public List<StandingOrderRecord> getMyStandingOrders(HttpServletRequest request) {
+        return standingOrderService.getOrdersOfClient(getLoggedClient(request));
+    }
+
+    @PostMapping("/{standingOrderID}/cancel")
+    @ResponseBody
+    public StandingOrderRecord cancelStandingOrder(@PathVariable int standingOrderID, HttpServletRequest request) {
+        try {
+            return standingOrderService.cancel(standingOrderID, getLoggedClient(request));
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    // Results of the past runs of an order, newest first
+    @GetMapping("/{standingOrderID}/executions")
+    @ResponseBody
+    public List<StandingOrderExecutionRecord> getExecutions(@PathVariable int standingOrderID, HttpServletRequest request) {
+        try {
+            return standingOrderService.getExecutions(standingOrderID, getLoggedClient(request));
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    private Client getLoggedClient(HttpServletRequest request) {
+        String clientName = detailsOfLoggedClient.getNameFromClient(request);
+        return clientRepository.findByClientName(clientName);
+    }
+}
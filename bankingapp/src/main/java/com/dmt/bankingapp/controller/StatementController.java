@@ -0,0 +1,87 @@
+package com.dmt.bankingapp.controller;
+
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.record.statements.StatementRecord;
+import com.dmt.bankingapp.record.statements.StatementRunRecord;
+import com.dmt.bankingapp.repository.AccountStatementRepository;
+import com.dmt.bankingapp.service.StatementService;
+import com.dmt.bankingapp.service.implementation.DetailsOfLoggedClientImpl;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@Controller
+@RequestMapping(path = "/statement")
+public class StatementController {
+
+    @Autowired
+    private final DetailsOfLoggedClientImpl detailsOfLoggedClientImp;
+
+    @Autowired
+    private final StatementService statementService;
+
+    @Autowired
+    private final AccountStatementRepository accountStatementRepository;
+
+    public StatementController(DetailsOfLoggedClientImpl detailsOfLoggedClientImp, StatementService statementService,
+            AccountStatementRepository accountStatementRepository) {
+        this.detailsOfLoggedClientImp = detailsOfLoggedClientImp;
+        this.statementService = statementService;
+        this.accountStatementRepository = accountStatementRepository;
+    }
+
+    //Endpoint for statements of all accounts of the logged client for a month (yyyy-MM)
+    @GetMapping
+    public @ResponseBody ResponseEntity<List<StatementRecord>> getStatementsOfMonth(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month, HttpServletRequest request){
+        Client client = detailsOfLoggedClientImp.getLoggedClientInstance(request);
+        List<StatementRecord> statements = accountStatementRepository
+                .findByClientIDAndStatementMonthOrderByAccountNumber(client.getClientID(), month.atDay(1))
+                .stream().map(StatementRecord::new).toList();
+        if(statements.isEmpty()){
+            HttpHeaders header = new HttpHeaders();
+            header.add("ErrorMessage", "No statements for "+month+" have been generated yet!");
+            return new ResponseEntity<>(null, header, HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(statements);
+    }
+
+    //Endpoint for generating statements of all clients for a month - admin only. A run that stopped
+    //part way is continued from the last finished chunk of clients
+    @PostMapping(path = "/generate")
+    public @ResponseBody ResponseEntity<StatementRunRecord> generateStatements(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month, HttpServletRequest request){
+        Client loggedClient = detailsOfLoggedClientImp.getLoggedClientInstance(request);
+        if(!loggedClient.isAdmin()){
+            HttpHeaders header = new HttpHeaders();
+            header.add("ErrorMessage", "You don't have enough permission to perform this action!");
+            return new ResponseEntity<>(null, header, HttpStatus.FORBIDDEN);
+        }
+        if(month.isAfter(YearMonth.now())){
+            HttpHeaders header = new HttpHeaders();
+            header.add("ErrorMessage", "Statements cannot be generated for a month that has not started yet!");
+            return new ResponseEntity<>(null, header, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return ResponseEntity.ok(statementService.generate(month));
+        } catch (IllegalStateException e) {
+            HttpHeaders header = new HttpHeaders();
+            header.add("ErrorMessage", e.getMessage());
+            return new ResponseEntity<>(null, header, HttpStatus.CONFLICT);
+        }
+    }
+}
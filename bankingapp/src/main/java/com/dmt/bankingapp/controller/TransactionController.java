@@ -1,21 +1,46 @@
 package com.dmt.bankingapp.controller;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 import com.dmt.bankingapp.entity.Deposit;
+import com.dmt.bankingapp.record.balances.BalanceAsOfRecord;
+import com.dmt.bankingapp.record.ledger.ReconciliationRecord;
+import com.dmt.bankingapp.record.transactions.AsyncTransferRecord;
+import com.dmt.bankingapp.record.transactions.BatchTransferResult;
 import com.dmt.bankingapp.record.transactions.TransactionRecord;
+import com.dmt.bankingapp.record.transactions.TransactionTypeReport;
+import com.dmt.bankingapp.record.transactions.TransactionTypeTotal;
+import com.dmt.bankingapp.record.transactions.TransferLeg;
+import com.dmt.bankingapp.utils.TransferLegCsvParser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import com.dmt.bankingapp.service.AccountLookupService;
+import com.dmt.bankingapp.service.AsyncTransferService;
+import com.dmt.bankingapp.service.BalanceSnapshotService;
+import com.dmt.bankingapp.service.LedgerService;
+import com.dmt.bankingapp.service.TransferService;
 import com.dmt.bankingapp.service.interfaceClass.DetailsOfLoggedClient;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,9 +48,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import com.dmt.bankingapp.entity.Transaction;
 import com.dmt.bankingapp.entity.Account;
 import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.IdempotencyKey;
 import com.dmt.bankingapp.repository.TransactionRepository;
 import com.dmt.bankingapp.repository.AccountRepository;
 import com.dmt.bankingapp.repository.ClientRepository;
+import com.dmt.bankingapp.utils.Money;
 
 @Controller
 @RequestMapping(path = "/transaction")
@@ -43,14 +70,38 @@ public class TransactionController {
     @Autowired
     private DetailsOfLoggedClient detailsOfLoggedClient;
 
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    @Autowired
+    private AccountLookupService accountLookupService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AsyncTransferService asyncTransferService;
+
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    private static final int MAX_PAGE_SIZE = 200;
 
     @PostMapping("/add")
     public String addNewTransaction(@RequestParam String giverAccountNumber, @RequestParam String receiverAccountNumber, @RequestParam double amount, HttpServletRequest request, Model model) {
         String clientName = detailsOfLoggedClient.getNameFromClient(request);
         Client client = clientRepository.findByClientName(clientName);
-        
-        Account giver = accountRepository.findByAccountNumber(giverAccountNumber);
+
+        // A retried request with a known key gets the original result - nothing is validated or transferred again
+        String idempotencyKey = getIdempotencyKey(request);
+        String previousResult = previousResult(client, idempotencyKey, giverAccountNumber, receiverAccountNumber, amount, model);
+        if (previousResult != null) {
+            return previousResult;
+        }
+
+        Account giver = accountLookupService.findByAccountNumber(giverAccountNumber);
         if (giver == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Sender's account has not been found");
         }
@@ -58,100 +109,218 @@ public class TransactionController {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not permitted to transfer money from an account you do not own");
         }
 
-        Account receiver = accountRepository.findByAccountNumber(receiverAccountNumber);
+        Account receiver = accountLookupService.findByAccountNumber(receiverAccountNumber);
         if (receiver == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Receiver's account has not been found");
         }
+        try {
+            Transaction transaction = transferService.transfer(giver, receiver, amount, client, idempotencyKey);
+            return transactionAdded(transaction, client, model);
+        } catch (IllegalStateException e) {
+            // Concurrent request with the same key may have been committed first and moved the money already
+            previousResult = previousResult(client, idempotencyKey, giverAccountNumber, receiverAccountNumber, amount, model);
+            if (previousResult == null) {
+                throw new ResponseStatusException(HttpStatus.valueOf(500), e.getMessage());
+            }
+            return previousResult;
+        } catch (PessimisticLockingFailureException e) {
+            // Deadlock or lock wait timeout - the transaction has been rolled back, nothing was transferred
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Transaction could not be completed, please try again");
+        } catch (DataIntegrityViolationException e) {
+            // Concurrent request with the same key has been committed first
+            previousResult = previousResult(client, idempotencyKey, giverAccountNumber, receiverAccountNumber, amount, model);
+            if (previousResult == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Transaction could not be completed, please try again");
+            }
+            return previousResult;
+        }
+    }
+
+    // Result of the transaction already posted under the key, or null when there is none. The key is bound
+    // to the parameters of the request it was first sent with - the stored transaction holds them - and
+    // reusing it for another transfer is refused instead of answered with a transfer that was not asked for
+    private String previousResult(Client client, String idempotencyKey, String giverAccountNumber, String receiverAccountNumber,
+            double amount, Model model) {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        Transaction previous = transferService.findByIdempotencyKey(client, idempotencyKey);
+        if (previous == null) {
+            return null;
+        }
+        if (!previous.getGiver().getAccountNumber().equals(giverAccountNumber)
+                || !previous.getReceiver().getAccountNumber().equals(receiverAccountNumber)
+                || !previous.getAmountAsMoney().equals(Money.of(amount))) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency key has already been used for a different transaction");
+        }
+        return transactionAdded(previous, client, model);
+    }
+
+    // Asynchronous variant of /add - the transfer is queued and the response only carries its transferID.
+    // The result is read from /async/{transferID}, or pushed by /async/{transferID}/events once it is posted
+    @PostMapping("/async")
+    @ResponseBody
+    public ResponseEntity<AsyncTransferRecord> addAsyncTransaction(@RequestParam String giverAccountNumber, @RequestParam String receiverAccountNumber, @RequestParam double amount, HttpServletRequest request) {
+        String clientName = detailsOfLoggedClient.getNameFromClient(request);
+        Client client = clientRepository.findByClientName(clientName);
+
+        Account giver = accountLookupService.findByAccountNumber(giverAccountNumber);
+        if (giver == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Sender's account has not been found");
+        }
+        if (!giver.getClient().equals(client)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not permitted to transfer money from an account you do not own");
+        }
+        Account receiver = accountLookupService.findByAccountNumber(receiverAccountNumber);
+        if (receiver == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Receiver's account has not been found");
+        }
+        try {
+            AsyncTransferRecord queued = asyncTransferService.submit(giver, receiver, amount, client.getClientID());
+            return ResponseEntity.accepted().location(URI.create("/transaction/async/" + queued.transferID())).body(queued);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    @GetMapping("/async/{transferID}")
+    @ResponseBody
+    public AsyncTransferRecord getAsyncTransaction(@PathVariable String transferID, HttpServletRequest request) {
+        String clientName = detailsOfLoggedClient.getNameFromClient(request);
+        Client client = clientRepository.findByClientName(clientName);
+        AsyncTransferRecord status = asyncTransferService.getStatus(transferID, client.getClientID());
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Transfer has not been found");
+        }
+        return status;
+    }
+
+    // Server-sent events - the current status right away and the final one when the transfer is posted
+    @GetMapping(path = "/async/{transferID}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToAsyncTransaction(@PathVariable String transferID, HttpServletRequest request) throws IOException {
+        String clientName = detailsOfLoggedClient.getNameFromClient(request);
+        Client client = clientRepository.findByClientName(clientName);
+        AsyncTransferRecord status = asyncTransferService.getStatus(transferID, client.getClientID());
+        CompletableFuture<AsyncTransferRecord> done = asyncTransferService.whenDone(transferID, client.getClientID());
+        if (status == null || done == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Transfer has not been found");
+        }
+        SseEmitter emitter = new SseEmitter(AsyncTransferService.STATUS_RETENTION.toMillis());
+        emitter.send(SseEmitter.event().name("status").data(status));
+        done.whenComplete((result, error) -> {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(result));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private String transactionAdded(Transaction transaction, Client client, Model model) {
         model.addAttribute("clientAccount", client.getCheckingAccount().getAccountNumber());
+        String output = "Transaction created successfully! Amount transferred: " + transaction.getAmount();
+        model.addAttribute("add", output);
+        return "transactionTemplates/add";
+    }
+
+    // Idempotency key can be sent either as the Idempotency-Key header or as a form parameter
+    private String getIdempotencyKey(HttpServletRequest request) {
+        String idempotencyKey = request.getHeader("Idempotency-Key");
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            idempotencyKey = request.getParameter("idempotencyKey");
+        }
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return null;
+        }
+        if (idempotencyKey.length() > IdempotencyKey.MAX_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency key cannot be longer than " + IdempotencyKey.MAX_LENGTH + " characters");
+        }
+        return idempotencyKey;
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<BatchTransferResult> addBatchTransaction(@RequestParam String giverAccountNumber, @RequestBody List<TransferLeg> legs, HttpServletRequest request) {
+        String clientName = detailsOfLoggedClient.getNameFromClient(request);
+        Client client = clientRepository.findByClientName(clientName);
+
+        Account giver = accountLookupService.findByAccountNumber(giverAccountNumber);
+        if (giver == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Sender's account has not been found");
+        }
+        if (!giver.getClient().equals(client)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not permitted to transfer money from an account you do not own");
+        }
+        if (legs == null || legs.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch does not contain any transfers");
+        }
+        if (legs.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch cannot contain more than " + MAX_BATCH_SIZE + " transfers");
+        }
         try {
-            Transaction transaction = new Transaction(giver, receiver, amount);
-            transactionRepository.save(transaction);
-            String output = "Transaction created successfully! Amount transferred: " + transaction.getAmount();
-            model.addAttribute("add", output);
-            return "transactionTemplates/add";
+            return transferService.batchTransfer(giver, legs);
         } catch (IllegalStateException e) {
             throw new ResponseStatusException(HttpStatus.valueOf(500), e.getMessage());
+        } catch (PessimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Transactions could not be completed, please try again");
         }
     }
 
+    // Same as above, body is "receiverAccountNumber,amount" per line
+    @PostMapping(path = "/batch", consumes = "text/csv")
+    @ResponseBody
+    public List<BatchTransferResult> addBatchTransactionFromCsv(@RequestParam String giverAccountNumber, @RequestBody String csv, HttpServletRequest request) {
+        List<TransferLeg> legs;
+        try {
+            legs = TransferLegCsvParser.parse(csv);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return addBatchTransaction(giverAccountNumber, legs, request);
+    }
+
     @GetMapping("/outgoingTransactions")
-    public String getClientOutgoingTransactions(HttpServletRequest request, Model model) {
+    public String getClientOutgoingTransactions(@RequestParam(required = false) Integer after, @RequestParam(defaultValue = "50") int size, HttpServletRequest request, Model model) {
         String clientName = detailsOfLoggedClient.getNameFromClient(request);
         Client client = clientRepository.findByClientName(clientName);
         Account checking = client.getCheckingAccount();
-        List<Transaction> outgoing = transactionRepository.findByGiver(checking);
-
-        ArrayList<TransactionRecord> transactionRecords = new ArrayList<>();
-        for (Transaction transaction : outgoing) {
-            LocalDateTime timestamp = transaction.getTimestamp();
-            String formattedTimestamp = timestamp.format(formatter);
-            transactionRecords.add(new TransactionRecord(transaction.getTransactionID(), formattedTimestamp, transaction.getAmount(), checking.getAccountNumber(), transaction.getReceiver().getAccountNumber()));
-        }
-        Collections.sort(transactionRecords, new Comparator<TransactionRecord>() {
-            @Override
-            public int compare(TransactionRecord tr1, TransactionRecord tr2) {
-                return Integer.compare(tr2.transactionID(), tr1.transactionID());
-            }
-        });
-        model.addAttribute("outgoing", transactionRecords);
+        int pageSize = pageSize(size);
+        List<TransactionRecord> outgoing = transactionRepository.findPageByGiver(checking, cursor(after), Limit.of(pageSize));
+
+        addPage(model, "outgoing", outgoing, pageSize);
         return "transactionTemplates/outgoing";
     }
 
     @GetMapping("/incomingTransactions")
-    public String getClientIncomingTransactions(HttpServletRequest request, Model model) {
+    public String getClientIncomingTransactions(@RequestParam(required = false) Integer after, @RequestParam(defaultValue = "50") int size, HttpServletRequest request, Model model) {
         String clientName = detailsOfLoggedClient.getNameFromClient(request);
         Client client = clientRepository.findByClientName(clientName);
         Account checking = client.getCheckingAccount();
-        List<Transaction> incoming = transactionRepository.findByReceiver(checking);
-
-
-        ArrayList<TransactionRecord> transactionRecords = new ArrayList<>();
-        for (Transaction transaction : incoming) {
-            LocalDateTime timestamp = transaction.getTimestamp();
-            String formattedTimestamp = timestamp.format(formatter);
-            transactionRecords.add(new TransactionRecord(transaction.getTransactionID(), formattedTimestamp, transaction.getAmount(), transaction.getGiver().getAccountNumber(), checking.getAccountNumber()));
+        int pageSize = pageSize(size);
+        List<TransactionRecord> incoming = transactionRepository.findPageByReceiver(checking, cursor(after), Limit.of(pageSize));
 
-        }
-        Collections.sort(transactionRecords, new Comparator<TransactionRecord>() {
-            @Override
-            public int compare(TransactionRecord tr1, TransactionRecord tr2) {
-                return Integer.compare(tr2.transactionID(), tr1.transactionID());
-            }
-        });
-        model.addAttribute("incoming",transactionRecords);
+        addPage(model, "incoming", incoming, pageSize);
         return "transactionTemplates/incoming";
     }
 
     @GetMapping("/getAll")
-    public String getEveryTransaction(HttpServletRequest request, Model model) {
+    public String getEveryTransaction(@RequestParam(required = false) Integer after, @RequestParam(defaultValue = "50") int size, HttpServletRequest request, Model model) {
         String requesterName = detailsOfLoggedClient.getNameFromClient(request);
         Client requester = clientRepository.findByClientName(requesterName);
         if (!requester.isAdmin()) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You don't have permission!");
         }
-        List<Transaction> all = transactionRepository.findAll();
-
-        ArrayList<TransactionRecord> transactionRecords = new ArrayList<>();
-        for (Transaction transaction : all) {
-            LocalDateTime timestamp = transaction.getTimestamp();
-            String formattedTimestamp = timestamp.format(formatter);
-            transactionRecords.add(new TransactionRecord(transaction.getTransactionID(), formattedTimestamp, transaction.getAmount(), transaction.getGiver().getAccountNumber(), transaction.getReceiver().getAccountNumber()));
-        }
-
-        Collections.sort(transactionRecords, new Comparator<TransactionRecord>() {
-            @Override
-            public int compare(TransactionRecord t1, TransactionRecord t2) {
-                return Integer.compare(t2.transactionID(), t1.transactionID());
-            }
-        });
+        int pageSize = pageSize(size);
+        List<TransactionRecord> all = transactionRepository.findPage(cursor(after), Limit.of(pageSize));
 
-        // Remove the last newline in the output
-        model.addAttribute("getAll", transactionRecords);
+        addPage(model, "getAll", all, pageSize);
         return "transactionTemplates/getAll";
     }
 
     @GetMapping("/byAccountNumber")
-    public String getByAccountId(@RequestParam String accountNumber, HttpServletRequest request, Model model) {
+    public String getByAccountId(@RequestParam String accountNumber, @RequestParam(required = false) Integer after, @RequestParam(defaultValue = "50") int size, HttpServletRequest request, Model model) {
         String requesterName = detailsOfLoggedClient.getNameFromClient(request);
         Client requester = clientRepository.findByClientName(requesterName);
         if(!requester.isAdmin()){
@@ -162,31 +331,89 @@ public class TransactionController {
         if (account == null) {
             throw new NoSuchElementException("Account not found with account number: " + accountNumber);
         }
-        
-        List<Transaction> transactions = new ArrayList<>();
-        transactions.addAll(transactionRepository.findByGiver(account));
-        transactions.addAll(transactionRepository.findByReceiver(account));
-        
-        // Sort transactions by timestamp in ascending order
-        transactions = transactions.stream()
-                .sorted(Comparator.comparing(Transaction::getTimestamp))
-                .collect(Collectors.toList());
-        
-        // Format output data to a string
-        ArrayList<TransactionRecord> transactionRecords = new ArrayList<>();
-        for (Transaction transaction : transactions) {
-            LocalDateTime timestamp = transaction.getTimestamp();
-            String formattedTimestamp = timestamp.format(formatter);
-            transactionRecords.add(new TransactionRecord(transaction.getTransactionID(), formattedTimestamp, transaction.getAmount(), transaction.getGiver().getAccountNumber(), transaction.getReceiver().getAccountNumber()));
-        }
-
-        Collections.sort(transactionRecords, new Comparator<TransactionRecord>() {
-            @Override
-            public int compare(TransactionRecord t1, TransactionRecord t2) {
-                return Integer.compare(t2.transactionID(), t1.transactionID());
-            }
-        });
-        model.addAttribute("accNumber", transactionRecords);
+
+        int pageSize = pageSize(size);
+        List<TransactionRecord> transactions = transactionRepository.findPageByAccount(account, cursor(after), Limit.of(pageSize));
+
+        model.addAttribute("accountNumber", accountNumber);
+        addPage(model, "accNumber", transactions, pageSize);
         return "transactionTemplates/accNumber";
     }
-}
\ No newline at end of file
+
+    // Balance of any account at a point in time, for disputes - admin only. Replayed from the nearest daily
+    // snapshot, so it reads at most a day of movements of the account
+    @GetMapping("/balanceAsOf")
+    @ResponseBody
+    public BalanceAsOfRecord getBalanceAsOf(@RequestParam String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at, HttpServletRequest request) {
+        String requesterName = detailsOfLoggedClient.getNameFromClient(request);
+        Client requester = clientRepository.findByClientName(requesterName);
+        if (!requester.isAdmin()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You don't have permission!");
+        }
+        if (at.isAfter(LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Balance cannot be checked for a time in the future");
+        }
+        try {
+            return balanceSnapshotService.balanceAsOf(accountNumber, at);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    // Number and total of the transactions of one type in a date range, e.g. commission income of a quarter -
+    // admin only. "to" is exclusive
+    @GetMapping("/report")
+    @ResponseBody
+    public TransactionTypeReport getTypeReport(@RequestParam Transaction.TransactionType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to, HttpServletRequest request) {
+        String requesterName = detailsOfLoggedClient.getNameFromClient(request);
+        Client requester = clientRepository.findByClientName(requesterName);
+        if (!requester.isAdmin()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You don't have permission!");
+        }
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Start of the range has to be before its end");
+        }
+        TransactionTypeTotal total = transactionRepository.sumByTypeBetween(type.name(), from.atStartOfDay(), to.atStartOfDay());
+        return new TransactionTypeReport(type.name(), from, to, total.getTransactionCount(), Money.of(total.getTotal()).toDouble());
+    }
+
+    // Recomputes every account balance from the ledger and lists the accounts whose cached balance differs,
+    // overwriting it with the ledger balance when repair is set - admin only
+    @PostMapping("/ledger/reconcile")
+    @ResponseBody
+    public ReconciliationRecord reconcileLedger(@RequestParam(defaultValue = "false") boolean repair, HttpServletRequest request) {
+        String requesterName = detailsOfLoggedClient.getNameFromClient(request);
+        Client requester = clientRepository.findByClientName(requesterName);
+        if (!requester.isAdmin()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You don't have permission!");
+        }
+        try {
+            return ledgerService.reconcile(repair);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.valueOf(500), e.getMessage());
+        }
+    }
+
+    // Pages are ordered by transactionID descending - the id of the last record is the cursor of the next page.
+    // A page shorter than requested is the last one
+    private void addPage(Model model, String attributeName, List<TransactionRecord> transactionRecords, int pageSize) {
+        model.addAttribute(attributeName, transactionRecords);
+        model.addAttribute("size", pageSize);
+        Integer nextCursor = transactionRecords.size() == pageSize ? transactionRecords.get(pageSize - 1).transactionID() : null;
+        model.addAttribute("nextCursor", nextCursor);
+    }
+
+    private int cursor(Integer after) {
+        return after == null ? Integer.MAX_VALUE : after;
+    }
+
+    private int pageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size has to be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+}
@@ -1,6 +1,6 @@
 package com.dmt.bankingapp.entity;
 
-import com.dmt.bankingapp.utils.DecimalPlacesAdjuster;
+import com.dmt.bankingapp.utils.Money;
 import jakarta.persistence.*;
 
 @Entity
@@ -19,13 +19,18 @@ public class Account {
     @JoinColumn(name = "clientId")
     private Client client;
 
-    @Column(name = "accountBalance")
-    private double accountBalance;
+    @Column(name = "accountBalance", precision = 19, scale = 2)
+    private Money accountBalance = Money.ZERO;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "accountType")
     private AccountType accountType;
 
+    // Bank accounts touched by many concurrent transfers keep their balance in this many BankSubBalance rows
+    // on top of accountBalance, 0 for every other account
+    @Column(name = "subBalanceStripes", nullable = false)
+    private int subBalanceStripes;
+
     @OneToOne
     @JoinColumn(name = "loanId", referencedColumnName = "loanId", nullable = true)
     private Loan loan;
@@ -39,7 +44,7 @@ public class Account {
 
     public Account(String accountNumber, AccountType accountType, Client client) {
         this.accountNumber = accountNumber;
-        this.accountBalance = 0.0;
+        this.accountBalance = Money.ZERO;
         this.accountType = accountType;
         this.client = client;
         if (client != null) {
@@ -92,15 +97,39 @@ public class Account {
     }
 
     public double getAccountBalance() {
-        return DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(accountBalance);
+        return accountBalance.toDouble();
+    }
+
+    public Money getAccountBalanceAsMoney() {
+        return accountBalance;
     }
 
     public void setAccountBalance(double newAmountBalance, boolean isExpense) {
+        setAccountBalance(Money.of(newAmountBalance), isExpense);
+    }
+
+    public void setAccountBalance(Money newAmountBalance, boolean isExpense) {
         if (isExpense) {
-            this.accountBalance -= newAmountBalance;
+            this.accountBalance = this.accountBalance.minus(newAmountBalance);
         } else {
-            this.accountBalance += newAmountBalance;
+            this.accountBalance = this.accountBalance.plus(newAmountBalance);
+        }
+    }
+
+    public int getSubBalanceStripes() {
+        return subBalanceStripes;
+    }
+
+    public void setSubBalanceStripes(int subBalanceStripes) {
+        if (subBalanceStripes > 0 && this.accountType != AccountType.BANK) {
+            throw new IllegalArgumentException("Only accounts of the BANK type can have sub-balances!");
         }
+        this.subBalanceStripes = subBalanceStripes;
+    }
+
+    // Transfers do not change accountBalance of a striped account, see BankSubBalanceService
+    public boolean isStriped() {
+        return subBalanceStripes > 0;
     }
 
     public AccountType getAccountType() {
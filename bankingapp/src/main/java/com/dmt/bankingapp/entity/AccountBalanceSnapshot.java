@@ -0,0 +1,65 @@
+package com.dmt.bankingapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+import com.dmt.bankingapp.utils.Money;
+
+// Balance of an account at a day boundary, after every movement dated at or before snapshotAt. Written
+// once a day by BalanceSnapshotService so a past balance is replayed from the nearest snapshot instead
+// of from the first transaction of the account
+@Entity
+@Table(name = "AccountBalanceSnapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_balance_snapshots_account_at", columnNames = { "accountId", "snapshotAt" })
+})
+public class AccountBalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_balance_snapshot_seq")
+    @SequenceGenerator(name = "account_balance_snapshot_seq", sequenceName = "account_balance_snapshot_seq", allocationSize = 50)
+    @Column(name = "accountBalanceSnapshotId")
+    private Integer accountBalanceSnapshotID;
+
+    @Column(name = "accountId", nullable = false)
+    private Integer accountID;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "accountId", referencedColumnName = "accountId", insertable = false, updatable = false)
+    private Account account;
+
+    @Column(name = "snapshotAt", nullable = false)
+    private LocalDateTime snapshotAt;
+
+    @Column(name = "balance", precision = 19, scale = 2, nullable = false)
+    private Money balance = Money.ZERO;
+
+    public AccountBalanceSnapshot(int accountID, LocalDateTime snapshotAt, Money balance) {
+        this.accountID = accountID;
+        this.snapshotAt = snapshotAt;
+        this.balance = balance;
+    }
+
+    public AccountBalanceSnapshot() {
+    }
+
+    public Integer getAccountBalanceSnapshotID() {
+        return accountBalanceSnapshotID;
+    }
+
+    public Integer getAccountID() {
+        return accountID;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public LocalDateTime getSnapshotAt() {
+        return snapshotAt;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+}
@@ -0,0 +1,120 @@
+package com.dmt.bankingapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+import com.dmt.bankingapp.utils.Money;
+
+// Read model of the history - one row per account per transaction, written together with the
+// transaction. Everything a history or statement line shows is stored in the row, so reading the
+// history of a client or an account does not touch Transactions, Accounts or Clients
+@Entity
+@Table(name = "AccountHistory")
+public class AccountHistoryEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_history_seq")
+    @SequenceGenerator(name = "account_history_seq", sequenceName = "account_history_seq", allocationSize = 50)
+    @Column(name = "accountHistoryId")
+    private Integer accountHistoryID;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "accountId", referencedColumnName = "accountId", nullable = false)
+    private Account account;
+
+    // Owner of the account at the time of the transaction
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "clientId", referencedColumnName = "clientId")
+    private Client client;
+
+    @Column(name = "transactionId", nullable = false)
+    private Integer transactionID;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transactionId", referencedColumnName = "transactionId", insertable = false, updatable = false)
+    private Transaction transaction;
+
+    @Column(name = "dateOfTransaction", nullable = false)
+    private LocalDateTime dateOfTransaction;
+
+    // Negative for money leaving the account, positive for money coming in
+    @Column(name = "amount", precision = 19, scale = 2, nullable = false)
+    private Money amount = Money.ZERO;
+
+    @Column(name = "counterpartyAccountNumber")
+    private String counterpartyAccountNumber;
+
+    @Column(name = "counterpartyName")
+    private String counterpartyName;
+
+    @Column(name = "balanceAfter", precision = 19, scale = 2, nullable = false)
+    private Money balanceAfter = Money.ZERO;
+
+    public AccountHistoryEntry(Account account, Client client, int transactionID, LocalDateTime dateOfTransaction, Money amount,
+            String counterpartyAccountNumber, String counterpartyName, Money balanceAfter) {
+        this.account = account;
+        this.client = client;
+        this.transactionID = transactionID;
+        this.dateOfTransaction = dateOfTransaction;
+        this.amount = amount;
+        this.counterpartyAccountNumber = counterpartyAccountNumber;
+        this.counterpartyName = counterpartyName;
+        this.balanceAfter = balanceAfter;
+    }
+
+    public AccountHistoryEntry() {
+    }
+
+    public Integer getAccountHistoryID() {
+        return accountHistoryID;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public Integer getTransactionID() {
+        return transactionID;
+    }
+
+    public LocalDateTime getDateOfTransaction() {
+        return dateOfTransaction;
+    }
+
+    public double getAmount() {
+        return amount.toDouble();
+    }
+
+    public Money getAmountAsMoney() {
+        return amount;
+    }
+
+    public boolean isIncome() {
+        return amount.isPositive();
+    }
+
+    public String getCounterpartyAccountNumber() {
+        return counterpartyAccountNumber;
+    }
+
+    public String getCounterpartyName() {
+        return counterpartyName;
+    }
+
+    public double getBalanceAfter() {
+        return balanceAfter.toDouble();
+    }
+
+    public Money getBalanceAfterAsMoney() {
+        return balanceAfter;
+    }
+}
@@ -0,0 +1,138 @@
+package com.dmt.bankingapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.dmt.bankingapp.utils.Money;
+
+// Month-end statement of one account - balances at the start and the end of the month and the
+// totals of the money that came in and went out during it
+@Entity
+@Table(name = "AccountStatements", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_account_statements_account_month", columnNames = { "accountId", "statementMonth" })
+})
+public class AccountStatement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_statement_seq")
+    @SequenceGenerator(name = "account_statement_seq", sequenceName = "account_statement_seq", allocationSize = 50)
+    @Column(name = "accountStatementId")
+    private Integer accountStatementID;
+
+    @Column(name = "accountId", nullable = false)
+    private Integer accountID;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "accountId", referencedColumnName = "accountId", insertable = false, updatable = false)
+    private Account account;
+
+    @Column(name = "accountNumber")
+    private String accountNumber;
+
+    @Column(name = "clientId", nullable = false)
+    private Integer clientID;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "clientId", referencedColumnName = "clientId", insertable = false, updatable = false)
+    private Client client;
+
+    // First day of the month the statement is for
+    @Column(name = "statementMonth", nullable = false)
+    private LocalDate statementMonth;
+
+    @Column(name = "openingBalance", precision = 19, scale = 2, nullable = false)
+    private Money openingBalance = Money.ZERO;
+
+    @Column(name = "closingBalance", precision = 19, scale = 2, nullable = false)
+    private Money closingBalance = Money.ZERO;
+
+    @Column(name = "totalIncome", precision = 19, scale = 2, nullable = false)
+    private Money totalIncome = Money.ZERO;
+
+    @Column(name = "totalExpense", precision = 19, scale = 2, nullable = false)
+    private Money totalExpense = Money.ZERO;
+
+    @Column(name = "transactionCount", nullable = false)
+    private int transactionCount;
+
+    @Column(name = "generatedAt")
+    private LocalDateTime generatedAt;
+
+    public AccountStatement(int accountID, String accountNumber, int clientID, LocalDate statementMonth, Money openingBalance) {
+        this.accountID = accountID;
+        this.accountNumber = accountNumber;
+        this.clientID = clientID;
+        this.statementMonth = statementMonth;
+        this.openingBalance = openingBalance;
+        this.closingBalance = openingBalance;
+        this.generatedAt = LocalDateTime.now();
+    }
+
+    public AccountStatement() {
+    }
+
+    // Adds one movement of the month, in chronological order
+    public void addMovement(Money amount, Money balanceAfter) {
+        if (amount.isNegative()) {
+            this.totalExpense = this.totalExpense.plus(amount.negate());
+        } else {
+            this.totalIncome = this.totalIncome.plus(amount);
+        }
+        this.closingBalance = balanceAfter;
+        this.transactionCount++;
+    }
+
+    public Integer getAccountStatementID() {
+        return accountStatementID;
+    }
+
+    public Integer getAccountID() {
+        return accountID;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public String getAccountNumber() {
+        return accountNumber;
+    }
+
+    public Integer getClientID() {
+        return clientID;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public LocalDate getStatementMonth() {
+        return statementMonth;
+    }
+
+    public Money getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public Money getClosingBalance() {
+        return closingBalance;
+    }
+
+    public Money getTotalIncome() {
+        return totalIncome;
+    }
+
+    public Money getTotalExpense() {
+        return totalExpense;
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+}
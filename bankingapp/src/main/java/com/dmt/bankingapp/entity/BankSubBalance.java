@@ -0,0 +1,72 @@
+package com.dmt.bankingapp.entity;
+
+import jakarta.persistence.*;
+
+import com.dmt.bankingapp.utils.Money;
+
+// One stripe of the balance of a striped bank account. The balance of the account is its accountBalance
+// plus all of its stripes - a transfer adds to the stripe picked by its counterparty, so concurrent
+// transfers to or from the account lock different rows. Stripes are moved into accountBalance from time to time
+@Entity
+@Table(name = "BankSubBalances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_bank_sub_balances_account_stripe", columnNames = { "accountId", "stripe" })
+})
+public class BankSubBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bankSubBalanceId")
+    private Integer bankSubBalanceID;
+
+    @Column(name = "accountId", nullable = false)
+    private Integer accountID;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "accountId", referencedColumnName = "accountId", insertable = false, updatable = false)
+    private Account account;
+
+    @Column(name = "stripe", nullable = false)
+    private int stripe;
+
+    @Column(name = "balance", precision = 19, scale = 2, nullable = false)
+    private Money balance = Money.ZERO;
+
+    public BankSubBalance(int accountID, int stripe) {
+        this.accountID = accountID;
+        this.stripe = stripe;
+    }
+
+    public BankSubBalance() {
+    }
+
+    public void add(Money amount) {
+        this.balance = this.balance.plus(amount);
+    }
+
+    // Empties the stripe and returns what it held
+    public Money takeBalance() {
+        Money taken = this.balance;
+        this.balance = Money.ZERO;
+        return taken;
+    }
+
+    public Integer getBankSubBalanceID() {
+        return bankSubBalanceID;
+    }
+
+    public Integer getAccountID() {
+        return accountID;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public int getStripe() {
+        return stripe;
+    }
+
+    public Money getBalance() {
+        return balance;
+    }
+}
@@ -5,7 +5,7 @@ import java.time.LocalDateTime;
 import com.dmt.bankingapp.utils.DateAdjuster;
 import jakarta.persistence.*;
 
-import com.dmt.bankingapp.utils.DecimalPlacesAdjuster;
+import com.dmt.bankingapp.utils.Money;
 
 @Entity
 @Table(name = "Deposits")
@@ -33,14 +33,14 @@ public class Deposit {
     @Column(name = "depositDuration")
     private int depositDuration;
 
-    @Column(name = "totalDepositAmount")
-    private double totalDepositAmount;
+    @Column(name = "totalDepositAmount", precision = 19, scale = 2)
+    private Money totalDepositAmount = Money.ZERO;
 
     @Column(name = "dateOfDeposit")
     private LocalDateTime dateOfDeposit;
 
-    @Column(name = "returnOfInvestment")
-    private double returnOfInvestment;
+    @Column(name = "returnOfInvestment", precision = 19, scale = 2)
+    private Money returnOfInvestment = Money.ZERO;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "depositType", nullable = true)
@@ -55,7 +55,7 @@ public class Deposit {
         this.checkingAccount = checkingAccount;
         this.interestRate = interestRate;
         this.depositDuration = depositDuration;
-        this.totalDepositAmount = totalDepositAmount;
+        this.totalDepositAmount = Money.of(totalDepositAmount);
         this.depositType = depositType;
 
         this.client = checkingAccount.getClient();
@@ -63,7 +63,7 @@ public class Deposit {
             client.addDeposit(this);
         }
 
-        if (this.totalDepositAmount > 0) {
+        if (this.totalDepositAmount.isPositive()) {
             this.isActive = true;
         }
 
@@ -106,10 +106,18 @@ public class Deposit {
     }
 
     public double getTotalDepositAmount() {
+        return this.totalDepositAmount.toDouble();
+    }
+
+    public Money getTotalDepositAmountAsMoney() {
         return this.totalDepositAmount;
     }
 
     public double getReturnOfInvestment() {
+        return returnOfInvestment.toDouble();
+    }
+
+    public Money getReturnOfInvestmentAsMoney() {
         return returnOfInvestment;
     }
 
@@ -134,7 +142,7 @@ public class Deposit {
     }
 
     public void setTotalDepositAmount(double totalDepositAmount) {
-        this.totalDepositAmount = totalDepositAmount;
+        this.totalDepositAmount = Money.of(totalDepositAmount);
     }
 
     public void setDateOfDeposit(LocalDateTime timestamp) {
@@ -151,7 +159,7 @@ public class Deposit {
     }
 
     public void setReturnOfInvestment(double returnOfInvestment) {
-        this.returnOfInvestment = returnOfInvestment;
+        this.returnOfInvestment = Money.of(returnOfInvestment);
     }
 
     public void calculateFixedTermDeposit() {
@@ -160,7 +168,7 @@ public class Deposit {
         double interestRate = getInterestRate();
 
         double interest = depositAmount * (numberOfMonthsOnDeposit / 12.0) * (interestRate / 100.0);
-        this.returnOfInvestment = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(depositAmount + interest);
+        this.returnOfInvestment = Money.of(depositAmount + interest);
     }
 
     public void calculateProgressiveDeposit() {
@@ -179,7 +187,7 @@ public class Deposit {
             interestRate += 0.01;
         }
 
-        this.returnOfInvestment = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(depositAmount);
+        this.returnOfInvestment = Money.of(depositAmount);
     }
 
     public void setActive(boolean active) {
@@ -0,0 +1,63 @@
+package com.dmt.bankingapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "IdempotencyKeys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_client_key", columnNames = { "clientId", "idempotencyKey" })
+})
+public class IdempotencyKey {
+
+    public static final int MAX_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idempotencyKeyId")
+    private Integer idempotencyKeyID;
+
+    @ManyToOne
+    @JoinColumn(name = "clientId", referencedColumnName = "clientId", nullable = false)
+    private Client client;
+
+    @Column(name = "idempotencyKey", length = MAX_LENGTH, nullable = false)
+    private String idempotencyKey;
+
+    @ManyToOne
+    @JoinColumn(name = "transactionId", referencedColumnName = "transactionId", nullable = false)
+    private Transaction transaction;
+
+    @Column(name = "creationTime")
+    private LocalDateTime creationTime;
+
+    public IdempotencyKey(Client client, String idempotencyKey, Transaction transaction) {
+        this.client = client;
+        this.idempotencyKey = idempotencyKey;
+        this.transaction = transaction;
+        this.creationTime = LocalDateTime.now();
+    }
+
+    public IdempotencyKey() {
+    }
+
+    public Integer getIdempotencyKeyID() {
+        return idempotencyKeyID;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    public LocalDateTime getCreationTime() {
+        return creationTime;
+    }
+}
@@ -3,12 +3,17 @@ package com.dmt.bankingapp.entity;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+import com.dmt.bankingapp.utils.Money;
+
 @Entity
 @Table(name = "Installment")
 public class Installment {
 
+    // Pooled sequence like Transaction - the whole schedule of a new loan is inserted in JDBC batches
+    // instead of one INSERT per installment
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "installment_seq")
+    @SequenceGenerator(name = "installment_seq", sequenceName = "installment_seq", allocationSize = 50)
     @Column(name = "installmentId")
     private Integer installmentID;
 
@@ -16,22 +21,29 @@ public class Installment {
     @JoinColumn(name = "loanId", referencedColumnName = "loanId")
     private Loan loan;
 
-    @Column(name = "installmentAmount")
-    private double installmentAmount;
+    @Column(name = "installmentAmount", precision = 19, scale = 2)
+    private Money installmentAmount = Money.ZERO;
 
     @Column(name = "dueDate")
     private LocalDateTime dueDate;
 
-    @Column(name = "paidAmount")
-    private double paidAmount;
+    // Payments change these two for many installments at once - LoanPaymentService writes them with one
+    // statement per payment, so they are left out of the UPDATEs of the dirty checking. Nothing outside this
+    // package can set them, a change made here would never reach the database
+    @Column(name = "paidAmount", precision = 19, scale = 2, updatable = false)
+    private Money paidAmount = Money.ZERO;
 
-    @Column(name = "isPaid")
+    @Column(name = "isPaid", updatable = false)
     private boolean isPaid;
 
     public Installment() {
     }
 
     public Installment(Loan loan, double installmentAmount, LocalDateTime dueDate) {
+        this(loan, Money.of(installmentAmount), dueDate);
+    }
+
+    public Installment(Loan loan, Money installmentAmount, LocalDateTime dueDate) {
         this.loan = loan;
         this.installmentAmount = installmentAmount;
         this.dueDate = dueDate;
@@ -54,11 +66,15 @@ public class Installment {
     }
 
     public double getInstallmentAmount() {
+        return installmentAmount.toDouble();
+    }
+
+    public Money getInstallmentAmountAsMoney() {
         return installmentAmount;
     }
 
     public void setInstallmentAmount(double installmentAmount) {
-        this.installmentAmount = installmentAmount;
+        this.installmentAmount = Money.of(installmentAmount);
     }
 
     public LocalDateTime getDueDate() {
@@ -70,18 +86,28 @@ public class Installment {
     }
 
     public double getPaidAmount() {
+        return paidAmount.toDouble();
+    }
+
+    public Money getPaidAmountAsMoney() {
         return paidAmount;
     }
 
-    public void setPaidAmount(double paidAmount) {
+    // Only applied by Transaction once LoanPaymentService has written the payment
+    void setPaidAmount(Money paidAmount) {
         this.paidAmount = paidAmount;
     }
 
+    // Amount that still has to be paid to settle this installment
+    public Money getDueAmount() {
+        return installmentAmount.minus(paidAmount);
+    }
+
     public boolean getIsPaid() {
         return isPaid;
     }
 
-    public void setIsPaid(boolean isPaid) {
+    void setIsPaid(boolean isPaid) {
         this.isPaid = isPaid;
     }
 }
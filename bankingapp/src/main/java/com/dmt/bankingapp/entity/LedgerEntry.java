@@ -0,0 +1,101 @@
+package com.dmt.bankingapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import com.dmt.bankingapp.utils.Money;
+
+// One side of a posting in the append-only ledger - every transaction writes a DEBIT of the giver and a
+// CREDIT of the receiver for the same amount. Rows are never updated or deleted, ledgerEntryID is the
+// sequence number of the entry. The balance of an account is the sum of its credits minus its debits,
+// Account.accountBalance is a cached copy of it that LedgerService can check and recompute
+@Entity
+@Immutable
+@Table(name = "LedgerEntries")
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entry_seq")
+    @SequenceGenerator(name = "ledger_entry_seq", sequenceName = "ledger_entry_seq", allocationSize = 50)
+    @Column(name = "ledgerEntryId")
+    private Long ledgerEntryID;
+
+    // Null for the opening balance of an account that had money before the ledger was introduced
+    @Column(name = "transactionId")
+    private Integer transactionID;
+
+    @Column(name = "accountId", nullable = false)
+    private Integer accountID;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "accountId", referencedColumnName = "accountId", insertable = false, updatable = false)
+    private Account account;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "side", nullable = false)
+    private Side side;
+
+    @Column(name = "amount", precision = 19, scale = 2, nullable = false)
+    private Money amount = Money.ZERO;
+
+    @Column(name = "postedAt", nullable = false)
+    private LocalDateTime postedAt;
+
+    public enum Side {
+        DEBIT,
+        CREDIT
+    }
+
+    public LedgerEntry(Integer transactionID, int accountID, Side side, Money amount, LocalDateTime postedAt) {
+        if (amount.isNegative()) {
+            throw new IllegalStateException("Ledger entries cannot have a negative amount!");
+        }
+        this.transactionID = transactionID;
+        this.accountID = accountID;
+        this.side = side;
+        this.amount = amount;
+        this.postedAt = postedAt;
+    }
+
+    public LedgerEntry() {
+    }
+
+    public static Money signed(Side side, Money amount) {
+        return side == Side.CREDIT ? amount : amount.negate();
+    }
+
+    public Long getLedgerEntryID() {
+        return ledgerEntryID;
+    }
+
+    public Integer getTransactionID() {
+        return transactionID;
+    }
+
+    public Integer getAccountID() {
+        return accountID;
+    }
+
+    public Account getAccount() {
+        return account;
+    }
+
+    public Side getSide() {
+        return side;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public Money getSignedAmount() {
+        return signed(side, amount);
+    }
+
+    public LocalDateTime getPostedAt() {
+        return postedAt;
+    }
+}
@@ -4,9 +4,12 @@ import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
-import com.dmt.bankingapp.utils.DecimalPlacesAdjuster;
+import com.dmt.bankingapp.utils.AmortizationEngine;
+import com.dmt.bankingapp.utils.Money;
 
 @Entity
 @Table(name = "Loans")
@@ -29,8 +32,8 @@ public class Loan {
     @JoinColumn(name = "client", referencedColumnName = "clientID")
     private Client client;
 
-    @Column(name = "principalLoanAmount")
-    private double principalLoanAmount;
+    @Column(name = "principalLoanAmount", precision = 19, scale = 2)
+    private Money principalLoanAmount = Money.ZERO;
 
     @Column(name = "loanDuration")
     private int loanDuration;
@@ -38,14 +41,14 @@ public class Loan {
     @Column(name = "interestRate")
     private double interestRate;
 
-    @Column(name = "totalLoanAmount")
-    private double totalLoanAmount;
+    @Column(name = "totalLoanAmount", precision = 19, scale = 2)
+    private Money totalLoanAmount = Money.ZERO;
 
     @Column(name = "dateOfLoan")
     private LocalDateTime dateOfLoan;
 
-    @Column(name = "leftToPay")
-    private double leftToPay;
+    @Column(name = "leftToPay", precision = 19, scale = 2)
+    private Money leftToPay = Money.ZERO;
 
     @Column(name = "commisionRate")
     private double commisionRate;
@@ -57,15 +60,32 @@ public class Loan {
     @Column(name = "isActive")
     private boolean isActive;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scheduleKind", nullable = false)
+    private AmortizationEngine.ScheduleKind scheduleKind = AmortizationEngine.ScheduleKind.EQUAL;
+
     @OneToMany(mappedBy = "loan", cascade = CascadeType.ALL)
     private List<Installment> installments = new ArrayList<>();
 
+    // First installment that is not fully paid, moved by every payment, so the next installment is known
+    // without loading the schedule. Null once the loan is paid
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "nextUnpaidInstallmentId", referencedColumnName = "installmentId")
+    private Installment nextUnpaidInstallment;
+
+    @Column(name = "nextDueDate")
+    private LocalDateTime nextDueDate;
+
+    // Unpaid installments loaded for the payment being posted, in order of the due date - not stored
+    @Transient
+    private List<Installment> unpaidInstallments;
+
     public Loan(Account loanAccount, Account checkingAccount, double principalAmount, double interestRate,
             double commisionRate, int loanDuration, Account bankAccount) {
         this.loanAccount = loanAccount;
         this.checkingAccount = checkingAccount;
         this.bankAccount = bankAccount;
-        this.principalLoanAmount = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(principalAmount);
+        this.principalLoanAmount = Money.of(principalAmount);
         this.interestRate = interestRate;
         this.commisionRate = commisionRate;
         this.loanDuration = loanDuration;
@@ -75,7 +95,7 @@ public class Loan {
             client.addLoan(this);
         }
 
-        if (this.totalLoanAmount > 0) {
+        if (this.totalLoanAmount.isPositive()) {
             this.isActive = true;
         }
     }
@@ -116,18 +136,26 @@ public class Loan {
     }
 
     public void setPrincipalLoanAmout(double principalAmount) {
-        this.principalLoanAmount = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(principalAmount);
+        this.principalLoanAmount = Money.of(principalAmount);
     }
 
     public double getPrincipalLoanAmount() {
+        return this.principalLoanAmount.toDouble();
+    }
+
+    public Money getPrincipalLoanAmountAsMoney() {
         return this.principalLoanAmount;
     }
 
     public void setTotalLoanAmout(double totalAmount) {
-        this.totalLoanAmount = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(totalAmount);
+        this.totalLoanAmount = Money.of(totalAmount);
     }
 
     public double getTotalLoanAmount() {
+        return this.totalLoanAmount.toDouble();
+    }
+
+    public Money getTotalLoanAmountAsMoney() {
         return this.totalLoanAmount;
     }
 
@@ -148,10 +176,18 @@ public class Loan {
     }
 
     public void setLeftToPay(double leftToPay) {
-        this.leftToPay = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(leftToPay);
+        this.leftToPay = Money.of(leftToPay);
+    }
+
+    public void setLeftToPay(Money leftToPay) {
+        this.leftToPay = leftToPay;
     }
 
     public double getLeftToPay() {
+        return this.leftToPay.toDouble();
+    }
+
+    public Money getLeftToPayAsMoney() {
         return this.leftToPay;
     }
 
@@ -179,38 +215,73 @@ public class Loan {
         return this.isActive;
     }
 
+    public void setScheduleKind(AmortizationEngine.ScheduleKind scheduleKind) {
+        this.scheduleKind = scheduleKind;
+    }
+
+    public AmortizationEngine.ScheduleKind getScheduleKind() {
+        return this.scheduleKind;
+    }
+
     public List<Installment> getInstallments() {
         return installments;
     }
 
+    public Installment getNextUnpaidInstallment() {
+        return nextUnpaidInstallment;
+    }
+
+    public LocalDateTime getNextDueDate() {
+        return nextDueDate;
+    }
+
+    public void setNextUnpaidInstallment(Installment installment) {
+        this.nextUnpaidInstallment = installment;
+        this.nextDueDate = installment == null ? null : installment.getDueDate();
+    }
+
+    // Unpaid installments in order of the due date. LoanPaymentService loads only the ones a payment reaches,
+    // without them the whole schedule is read and filtered
+    public List<Installment> getUnpaidInstallments() {
+        if (unpaidInstallments != null) {
+            return unpaidInstallments;
+        }
+        return installments.stream()
+                .filter(installment -> !installment.getIsPaid())
+                .sorted(Comparator.comparing(Installment::getDueDate))
+                .collect(Collectors.toList());
+    }
+
+    public void setUnpaidInstallments(List<Installment> unpaidInstallments) {
+        this.unpaidInstallments = unpaidInstallments;
+    }
+
     // Method to calculate the amount of interests that bank charges for launching
     // the loan, basing on amout of money to be borrowed, intrest rate and duration
     // of the loan
     public double intrestAmount(double principalAmount, double interestRate, int loanDuration) {
-        double convertedRate = interestRate * 0.01; // converting from % value to decimal value (i.e. 3% to 0.03)
-        double total = principalAmount * (1 + ((convertedRate * loanDuration) / 12));
-        double intrestAmount = total - principalAmount;
-        return DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(intrestAmount);
+        return Money.ofGrosze(AmortizationEngine.interestGrosze(principalAmount, interestRate, loanDuration)).toDouble();
     }
 
     // Method to calculate commision charged by the bank when granting the loan
     public double commisionAmout(double principalAmount, double commisionRate) {
-        double decimalRate = commisionRate * 0.01; // converting from % value to decimal value (i.e. 3% to 0.03)
-        double commision = principalAmount * decimalRate;
-        return DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(commision);
+        return Money.ofGrosze(AmortizationEngine.commissionGrosze(principalAmount, commisionRate)).toDouble();
     }
 
     // Method to generate installments for the loan and saving them to the list of installments
+    // Amounts come from AmortizationEngine, the same schedule a quote shows. Equal installments split the total
+    // loan amount, annuity and decreasing ones amortize the principal and the commission at the interest rate
     public void generateInstallments() {
-        double modulo = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(this.totalLoanAmount % this.loanDuration);
-        double wholeInstalment = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces((this.totalLoanAmount - modulo) / this.loanDuration);
-        Installment firstInstallment = new Installment(this, wholeInstalment + modulo, this.dateOfLoan.plusMonths(1));
-        this.installments.add(firstInstallment);
-        
-        for (int i = 2; i <= this.loanDuration; i++) {
-            LocalDateTime dueDate = this.dateOfLoan.plusMonths(i);
-            Installment installment = new Installment(this, wholeInstalment, dueDate);
-            this.installments.add(installment);
+        long[] amounts = new long[this.loanDuration];
+        if (this.scheduleKind == AmortizationEngine.ScheduleKind.EQUAL) {
+            AmortizationEngine.splitEqually(this.totalLoanAmount.getGrosze(), amounts);
+        } else {
+            long commission = AmortizationEngine.commissionGrosze(this.principalLoanAmount.toDouble(), this.commisionRate);
+            AmortizationEngine.fillSchedule(this.scheduleKind, this.principalLoanAmount.getGrosze(), commission, this.interestRate, amounts);
+        }
+        for (int i = 0; i < amounts.length; i++) {
+            this.installments.add(new Installment(this, Money.ofGrosze(amounts[i]), this.dateOfLoan.plusMonths(i + 1)));
         }
+        setNextUnpaidInstallment(this.installments.get(0));
     }
 }
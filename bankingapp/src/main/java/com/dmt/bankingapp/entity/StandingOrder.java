@@ -0,0 +1,182 @@
+package com.dmt.bankingapp.entity;
+
+import com.dmt.bankingapp.utils.Money;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Recurring transfer set up by a client. Due orders are claimed by StandingOrderService in batches, each
+// execution posts an ordinary transaction and is recorded as a StandingOrderExecution
+@Entity
+@Table(name = "StandingOrders")
+public class StandingOrder {
+
+    // Orders due on the same day do not all fire at midnight - each one is shifted by up to this many
+    // minutes, by its standingOrderID, so the 1st of the month is spread over the first hours of the day
+    public static final int EXECUTION_WINDOW_MINUTES = 360;
+
+    // Order is cancelled after this many failed executions in a row
+    public static final int MAX_FAILED_RUNS = 3;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "standingOrderId")
+    private Integer standingOrderID;
+
+    @ManyToOne
+    @JoinColumn(name = "client", referencedColumnName = "clientId", nullable = false)
+    private Client client;
+
+    @ManyToOne
+    @JoinColumn(name = "giverAccount", referencedColumnName = "accountId", nullable = false)
+    private Account giver;
+
+    @ManyToOne
+    @JoinColumn(name = "receiverAccount", referencedColumnName = "accountId", nullable = false)
+    private Account receiver;
+
+    @Column(name = "amount", precision = 19, scale = 2, nullable = false)
+    private Money amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequency", nullable = false)
+    private Frequency frequency;
+
+    @Column(name = "startDate", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "runCount", nullable = false)
+    private int runCount;
+
+    @Column(name = "nextRunAt", nullable = false)
+    private LocalDateTime nextRunAt;
+
+    @Column(name = "isActive", nullable = false)
+    private boolean isActive;
+
+    @Column(name = "failedRuns", nullable = false)
+    private int failedRuns;
+
+    @Column(name = "lastRunAt")
+    private LocalDateTime lastRunAt;
+
+    @Column(name = "lastResult")
+    private String lastResult;
+
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+        MONTHLY;
+
+        // Date of the run with the given number, always counted from the start date, so an order set up
+        // on the 31st runs on the last day of shorter months and on the 31st again afterwards
+        public LocalDate dateOfRun(LocalDate startDate, int run) {
+            return switch (this) {
+                case DAILY -> startDate.plusDays(run);
+                case WEEKLY -> startDate.plusWeeks(run);
+                case MONTHLY -> startDate.plusMonths(run);
+            };
+        }
+    }
+
+    public StandingOrder(Account giver, Account receiver, double amount, Frequency frequency, LocalDate startDate) {
+        if (amount <= 0) {
+            throw new IllegalStateException("You cannot transfer 0 or a negative amount!");
+        }
+        if (giver.equals(receiver)) {
+            throw new IllegalStateException("You cannot transfer to the same account!");
+        }
+        this.client = giver.getClient();
+        this.giver = giver;
+        this.receiver = receiver;
+        this.amount = Money.of(amount);
+        this.frequency = frequency;
+        this.startDate = startDate;
+        this.runCount = 0;
+        this.isActive = true;
+        this.nextRunAt = startDate.atStartOfDay();
+    }
+
+    public StandingOrder() {
+    }
+
+    // Records the result of an execution and moves the order to its next run. A run that failed (not
+    // enough money, receiver gone, ...) is not retried - the next one is attempted on its own date. A run
+    // executed late (the application was down) stands in for every period missed, the next run is the
+    // first one after it instead of all of the missed ones back to back
+    public void recordRun(LocalDateTime runAt, boolean succeeded, String result) {
+        this.lastRunAt = runAt;
+        this.lastResult = result;
+        this.failedRuns = succeeded ? 0 : failedRuns + 1;
+        if (failedRuns >= MAX_FAILED_RUNS) {
+            this.isActive = false;
+        }
+        do {
+            this.runCount++;
+            scheduleNextRun();
+        } while (!nextRunAt.isAfter(runAt));
+    }
+
+    // Needs standingOrderID, so it is called again once the order has been saved
+    public void scheduleNextRun() {
+        int offset = standingOrderID == null ? 0 : standingOrderID % EXECUTION_WINDOW_MINUTES;
+        this.nextRunAt = frequency.dateOfRun(startDate, runCount).atStartOfDay().plusMinutes(offset);
+    }
+
+    public void cancel() {
+        this.isActive = false;
+    }
+
+    public Integer getStandingOrderID() {
+        return standingOrderID;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public Account getGiver() {
+        return giver;
+    }
+
+    public Account getReceiver() {
+        return receiver;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public boolean getIsActive() {
+        return isActive;
+    }
+
+    public int getFailedRuns() {
+        return failedRuns;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public String getLastResult() {
+        return lastResult;
+    }
+}
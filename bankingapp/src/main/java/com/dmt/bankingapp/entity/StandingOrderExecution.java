@@ -0,0 +1,78 @@
+package com.dmt.bankingapp.entity;
+
+import com.dmt.bankingapp.utils.Money;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Outcome of one run of a standing order - the posted transaction, or why it was not posted
+@Entity
+@Immutable
+@Table(name = "StandingOrderExecutions")
+public class StandingOrderExecution {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "standingOrderExecutionId")
+    private Integer standingOrderExecutionID;
+
+    @Column(name = "standingOrderId", nullable = false)
+    private int standingOrderID;
+
+    @Column(name = "executedAt", nullable = false)
+    private LocalDateTime executedAt;
+
+    @Column(name = "amount", precision = 19, scale = 2, nullable = false)
+    private Money amount;
+
+    @Column(name = "succeeded", nullable = false)
+    private boolean succeeded;
+
+    @Column(name = "transactionId")
+    private Integer transactionID;
+
+    @Column(name = "message")
+    private String message;
+
+    public StandingOrderExecution(int standingOrderID, LocalDateTime executedAt, Money amount, boolean succeeded,
+            Integer transactionID, String message) {
+        this.standingOrderID = standingOrderID;
+        this.executedAt = executedAt;
+        this.amount = amount;
+        this.succeeded = succeeded;
+        this.transactionID = transactionID;
+        this.message = message;
+    }
+
+    public StandingOrderExecution() {
+    }
+
+    public Integer getStandingOrderExecutionID() {
+        return standingOrderExecutionID;
+    }
+
+    public int getStandingOrderID() {
+        return standingOrderID;
+    }
+
+    public LocalDateTime getExecutedAt() {
+        return executedAt;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+
+    public Integer getTransactionID() {
+        return transactionID;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,81 @@
+package com.dmt.bankingapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Progress of the statement job for one month. Clients are processed in chunks in clientID order and
+// lastClientID only moves past a chunk once it and every chunk before it are committed, so an
+// interrupted run continues right after it
+@Entity
+@Table(name = "StatementRuns")
+public class StatementRun {
+
+    @Id
+    @Column(name = "statementMonth")
+    private LocalDate statementMonth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "lastClientId", nullable = false)
+    private int lastClientID;
+
+    @Column(name = "startedAt")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finishedAt")
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+
+    public StatementRun(LocalDate statementMonth) {
+        this.statementMonth = statementMonth;
+        start();
+    }
+
+    public StatementRun() {
+    }
+
+    // Starts the month over from the first client
+    public void start() {
+        this.status = Status.RUNNING;
+        this.lastClientID = 0;
+        this.startedAt = LocalDateTime.now();
+        this.finishedAt = null;
+    }
+
+    public void complete() {
+        this.status = Status.COMPLETED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public LocalDate getStatementMonth() {
+        return statementMonth;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getLastClientID() {
+        return lastClientID;
+    }
+
+    public void setLastClientID(int lastClientID) {
+        this.lastClientID = lastClientID;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -3,19 +3,29 @@ package com.dmt.bankingapp.entity;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import com.dmt.bankingapp.entity.Account.AccountType;
-import com.dmt.bankingapp.utils.DecimalPlacesAdjuster;
+import com.dmt.bankingapp.event.TransactionPostedEvent;
+import com.dmt.bankingapp.utils.Money;
+
+import org.springframework.data.domain.AfterDomainEventPublication;
+import org.springframework.data.domain.DomainEvents;
 
 @Entity
 @Table(name = "Transactions")
 public class Transaction {
 
+    // Pooled sequence instead of IDENTITY - ids are known before the INSERT, so Hibernate can
+    // send inserts of many transactions in one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
     @Column(name = "transactionId")
     private Integer transactionID;
 
@@ -27,29 +37,83 @@ public class Transaction {
     @JoinColumn(name = "accountOfReceiver", referencedColumnName = "accountID")
     private Account receiver;
 
-    private double amount;
+    @Column(precision = 19, scale = 2)
+    private Money amount = Money.ZERO;
 
     @Column(name = "dateOfTransaction")
     private LocalDateTime timestamp;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transactionType", nullable = false)
+    private TransactionType transactionType = TransactionType.TRANSFER;
+
+    // Events of a transaction created in this session, published by TransactionRepository on save
+    @Transient
+    private final List<TransactionPostedEvent> domainEvents = new ArrayList<>();
+
+    // Balances of striped bank accounts after this transaction, by accountID - set by BankSubBalanceService
+    // once the sub-balance has been changed
+    @Transient
+    private final Map<Integer, Money> stripedBalancesAfter = new HashMap<>();
+
+    // What this transaction pays into each installment it reaches - written by LoanPaymentService in one
+    // statement when the transaction is saved, the installments themselves are left as they are until then
+    @Transient
+    private final List<InstallmentPayment> installmentPayments = new ArrayList<>();
+
+    private static final Money TRANSFER_LIMIT = Money.ofGrosze(1000000000L * 100);
+
+    // What the money was moved for - set where the transaction is created, so reports do not have to tell
+    // it from the types of both accounts
+    public enum TransactionType {
+        TRANSFER,
+        LOAN_DISBURSEMENT,
+        LOAN_INTEREST,
+        LOAN_COMMISSION,
+        INSTALLMENT_PAYMENT,
+        DEPOSIT,
+        DEPOSIT_PAYOUT
+    }
+
+    // Paid amount and state of an installment after this transaction
+    public record InstallmentPayment(Installment installment, Money paidAmount, boolean isPaid) {
+    }
+
     public Transaction(Account giver, Account receiver, double amount) {
+        this(giver, receiver, Money.of(amount), TransactionType.TRANSFER);
+    }
+
+    public Transaction(Account giver, Account receiver, Money amount) {
+        this(giver, receiver, amount, TransactionType.TRANSFER);
+    }
+
+    public Transaction(Account giver, Account receiver, double amount, TransactionType transactionType) {
+        this(giver, receiver, Money.of(amount), transactionType);
+    }
+
+    public Transaction(Account giver, Account receiver, Money amount, TransactionType transactionType) {
         this.giver = giver;
         this.receiver = receiver;
-        this.amount = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(amount);
+        this.amount = amount;
         this.timestamp = LocalDateTime.now();
+        // A transfer to a loan account always pays its installments
+        if (transactionType == TransactionType.TRANSFER && receiver.getAccountType().equals(AccountType.LOAN)) {
+            transactionType = TransactionType.INSTALLMENT_PAYMENT;
+        }
+        this.transactionType = transactionType;
 
         // Restricting transfers for negative amounts
-        if (this.amount < 0) {
+        if (this.amount.isNegative()) {
             throw new IllegalStateException("You cannot transfer negative amount!");
         }
 
         // Restricting transfers for 0
-        if (this.amount == 0) {
+        if (this.amount.isZero()) {
             throw new IllegalStateException("You cannot transfer 0!");
         }
 
         // Restricting transfers for amounts greater than 1 billion
-        if (this.amount > 1000000000) {
+        if (this.amount.isGreaterThan(TRANSFER_LIMIT)) {
             throw new IllegalStateException("You cannot transfer more than 1 billion!");
         }
 
@@ -61,11 +125,11 @@ public class Transaction {
         // Restricting making transfers from loan accounts ...
         if (giver.getAccountType().equals(AccountType.LOAN)) {
             // ... after loan is launched - only transfers to a bank account are allowed
-            if (giver.getAccountBalance() < 0 && !receiver.getAccountType().equals(AccountType.BANK)) {
+            if (giver.getAccountBalanceAsMoney().isNegative() && !receiver.getAccountType().equals(AccountType.BANK)) {
                 throw new IllegalStateException("You cannot transfer from the loan account!");
             }
             // ... after loan is redeemed
-            if (giver.getAccountBalance() == 0 && giver.getLoan() != null) {
+            if (giver.getAccountBalanceAsMoney().isZero() && giver.getLoan() != null) {
                 throw new IllegalStateException("You cannot transfer from the loan account!");
             }
         }
@@ -73,19 +137,21 @@ public class Transaction {
         // Checking the account balance for checking and saving accounts to avoid the
         // balance falling below 0
         if (giver.getAccountType().equals(AccountType.CHECKING) || giver.getAccountType().equals(AccountType.DEPOSIT)) {
-            if (this.amount > giver.getAccountBalance()) {
+            if (this.amount.isGreaterThan(giver.getAccountBalanceAsMoney())) {
                 throw new IllegalStateException("You cannot transfer more money than you have on the account!");
             }
         }
 
         // If receiver is a loan account, handle loan payments
         if (receiver.getAccountType().equals(AccountType.LOAN)) {
-            processLoanPayments(giver, receiver, amount);
+            processLoanPayments(giver, receiver, this.amount);
         } else {
             // If the receiver account is not loan, money are transferred without any other
             // operations
-            manipulateTransaction(giver, receiver, amount);
+            manipulateTransaction(giver, receiver, this.amount);
         }
+
+        this.domainEvents.add(new TransactionPostedEvent(this, giver.getAccountBalanceAsMoney(), receiver.getAccountBalanceAsMoney()));
     }
 
     public Transaction() {
@@ -108,20 +174,38 @@ public class Transaction {
     }
 
     public double getAmount() {
+        return amount.toDouble();
+    }
+
+    public Money getAmountAsMoney() {
         return amount;
     }
 
     public void setAmount(double amount) {
-        this.amount = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(amount);
+        this.amount = Money.of(amount);
     }
 
     public LocalDateTime getTimestamp() {
         return timestamp;
     }
 
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
     public void manipulateTransaction(Account giver, Account receiver, double amount) {
-        giver.setAccountBalance(DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(amount), true);
-        receiver.setAccountBalance(DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(amount), false);
+        manipulateTransaction(giver, receiver, Money.of(amount));
+    }
+
+    // Striped bank accounts are left as they are - the amount is added to one of their sub-balance rows by
+    // BankSubBalanceService when the transaction is saved, so their own row is not locked by every transfer
+    public void manipulateTransaction(Account giver, Account receiver, Money amount) {
+        if (!giver.isStriped()) {
+            giver.setAccountBalance(amount, true);
+        }
+        if (!receiver.isStriped()) {
+            receiver.setAccountBalance(amount, false);
+        }
     }
 
     public int getTransactionID() {
@@ -137,33 +221,36 @@ public class Transaction {
     }
 
     public void processLoanPayments(Account giver, Account receiver, double amount) {
+        processLoanPayments(giver, receiver, Money.of(amount));
+    }
+
+    public void processLoanPayments(Account giver, Account receiver, Money amount) {
         Loan loan = receiver.getLoan();
         if (loan.getIsActive()) {
-            double amountLeft = DecimalPlacesAdjuster.adjustToTwoDecimalPlaces(amount);
-            double amountUsedForPayments = 0;
-            List<Installment> loanInstallments = loan.getInstallments();
-
-            // Filter unpaid installments of the loan
-            List<Installment> unpaidInstallments = loanInstallments.stream()
-                    .filter(installment -> !installment.getIsPaid())
-                    .sorted(Comparator.comparing(Installment::getDueDate))
-                    .collect(Collectors.toList());
+            Money amountLeft = amount;
+            Money amountUsedForPayments = Money.ZERO;
+            // Only the unpaid installments the payment reaches, in order of the due date
+            List<Installment> unpaidInstallments = loan.getUnpaidInstallments();
+            Installment nextUnpaidInstallment = null;
 
             for (Installment installment : unpaidInstallments) {
-                if (amountLeft <= 0) {
+                if (!amountLeft.isPositive()) {
+                    nextUnpaidInstallment = installment;
                     break;
                 }
 
-                double dueAmount = installment.getInstallmentAmount() - installment.getPaidAmount();
-                double payment = Math.min(amountLeft, dueAmount); // Ensure not paying more than the provided amount
-                installment.setPaidAmount(installment.getPaidAmount() + payment);
-                amountLeft -= payment;
-                amountUsedForPayments += payment;
+                Money payment = amountLeft.min(installment.getDueAmount()); // Ensure not paying more than the provided amount
+                amountLeft = amountLeft.minus(payment);
+                amountUsedForPayments = amountUsedForPayments.plus(payment);
+                boolean isPaid = payment.equals(installment.getDueAmount());
+                this.installmentPayments.add(new InstallmentPayment(installment, installment.getPaidAmountAsMoney().plus(payment), isPaid));
 
-                if (installment.getPaidAmount() == installment.getInstallmentAmount()) {
-                    installment.setIsPaid(true);
+                if (!isPaid) {
+                    nextUnpaidInstallment = installment;
+                    break;
                 }
             }
+            loan.setUnpaidInstallments(null);
 
             // Transfer only the amount used for payments, remaining amount stays with the
             // giver
@@ -173,19 +260,13 @@ public class Transaction {
             // payments
             this.amount = amountUsedForPayments;
 
-            // Updating the leftToPay amount in the loan
-            loan.setLeftToPay(loan.getLeftToPay() - amountUsedForPayments);
-            // If leftToPay is very small, set it to zero - handling floating-point
-            // precision errors
-            if (loan.getLeftToPay() < 0.01) {
-                loan.setLeftToPay(0.0);
-            }
+            // Updating the leftToPay amount in the loan - amounts are whole grosze, so
+            // it reaches exactly 0 once everything is paid
+            loan.setLeftToPay(loan.getLeftToPayAsMoney().minus(amountUsedForPayments));
 
             // After processing all payments checking if all installments has been paid
-            boolean allInstallmentsPaid = loanInstallments.stream()
-                    .allMatch(Installment::getIsPaid);
-
-            if (allInstallmentsPaid) {
+            loan.setNextUnpaidInstallment(nextUnpaidInstallment);
+            if (nextUnpaidInstallment == null) {
                 // Setting loan as paid - inactive if fully paid
                 loan.setIsActive(false);
             }
@@ -196,6 +277,37 @@ public class Transaction {
         }
     }
 
+    public List<InstallmentPayment> getInstallmentPayments() {
+        return Collections.unmodifiableList(installmentPayments);
+    }
+
+    // Called by LoanPaymentService after the payments have been written, so the installments in the
+    // persistence context show the same as their rows
+    public void applyInstallmentPayments() {
+        for (InstallmentPayment payment : installmentPayments) {
+            payment.installment().setPaidAmount(payment.paidAmount());
+            payment.installment().setIsPaid(payment.isPaid());
+        }
+    }
+
+    public Money getStripedBalanceAfter(Account account) {
+        return stripedBalancesAfter.get(account.getAccountID());
+    }
+
+    public void setStripedBalanceAfter(Account account, Money balance) {
+        stripedBalancesAfter.put(account.getAccountID(), balance);
+    }
+
+    @DomainEvents
+    Collection<TransactionPostedEvent> domainEvents() {
+        return Collections.unmodifiableList(domainEvents);
+    }
+
+    @AfterDomainEventPublication
+    void clearDomainEvents() {
+        domainEvents.clear();
+    }
+
     @Override
     public String toString() {
         return "Transaction{" +
@@ -204,6 +316,7 @@ public class Transaction {
                 ", receiver=" + receiver +
                 ", amount=" + amount +
                 ", timestamp=" + timestamp +
+                ", transactionType=" + transactionType +
                 '}';
     }
 }
@@ -0,0 +1,31 @@
+package com.dmt.bankingapp.event;
+
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.utils.Money;
+
+// Published when a new transaction is saved through TransactionRepository. Balances are the ones right
+// after this transaction moved the money, later transfers of the same session do not change them. A striped
+// bank account reports the balance worked out by BankSubBalanceService, which handles the event first
+public record TransactionPostedEvent(Transaction transaction, Money giverBalanceAfter, Money receiverBalanceAfter) {
+
+    @Override
+    public Money giverBalanceAfter() {
+        Money striped = transaction.getStripedBalanceAfter(transaction.getGiver());
+        return striped != null ? striped : giverBalanceAfter;
+    }
+
+    @Override
+    public Money receiverBalanceAfter() {
+        Money striped = transaction.getStripedBalanceAfter(transaction.getReceiver());
+        return striped != null ? striped : receiverBalanceAfter;
+    }
+
+    public Client giverClient() {
+        return transaction.getGiver().getClient();
+    }
+
+    public Client receiverClient() {
+        return transaction.getReceiver().getClient();
+    }
+}
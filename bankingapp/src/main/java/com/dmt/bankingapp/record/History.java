@@ -2,14 +2,38 @@ package com.dmt.bankingapp.record;
 
 import java.time.LocalDateTime;
 
+import com.dmt.bankingapp.utils.Money;
+
 public record History(
         String typeOf,
         String contributorName,
         String contributorAccountNumber,
         String amount,
         LocalDateTime dateOfTransaction,
-        Integer transactionID
+        Integer transactionID,
+        String balanceAfter
 
 ) {
 
+    public History(String typeOf, String contributorName, String contributorAccountNumber, String amount, LocalDateTime dateOfTransaction, Integer transactionID) {
+        this(typeOf, contributorName, contributorAccountNumber, amount, dateOfTransaction, transactionID, null);
+    }
+
+    // Used by JPQL constructor expressions over the account history read model - the amount is signed,
+    // negative amounts are money sent to the counterparty
+    public History(Money amount, String counterpartyName, String counterpartyAccountNumber, LocalDateTime dateOfTransaction, Integer transactionID, Money balanceAfter) {
+        this(amount.isNegative() ? "Sending to: " : "Receiving from: ",
+                counterpartyName,
+                counterpartyAccountNumber,
+                signed(amount) + " zł",
+                dateOfTransaction,
+                transactionID,
+                Double.toString(balanceAfter.toDouble()) + " zł");
+    }
+
+    // Same format as the amounts built from transactions, e.g. "-20.0" and "+7.5"
+    private static String signed(Money amount) {
+        return amount.isNegative() ? "-" + Double.toString(amount.negate().toDouble()) : "+" + Double.toString(amount.toDouble());
+    }
+
 }
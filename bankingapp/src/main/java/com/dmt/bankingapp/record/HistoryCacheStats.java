@@ -0,0 +1,11 @@
+package com.dmt.bankingapp.record;
+
+public record HistoryCacheStats(
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount,
+        long invalidationCount
+) {
+}
@@ -0,0 +1,36 @@
+package com.dmt.bankingapp.record;
+
+import java.time.LocalDateTime;
+
+import com.dmt.bankingapp.utils.Money;
+
+// Optional criteria of a history query - null fields are not applied. "from" is inclusive, "to" exclusive
+public record HistoryFilter(
+        LocalDateTime from,
+        LocalDateTime to,
+        Direction direction,
+        String counterpartyAccount,
+        Money minAmount,
+        Money maxAmount
+
+) {
+
+    public static final HistoryFilter NONE = new HistoryFilter(null, null, null, null, null, null);
+
+    public enum Direction {
+        INCOME,
+        EXPENSE
+    }
+
+    public boolean isEmpty() {
+        return this.equals(NONE);
+    }
+
+    public boolean includesIncome() {
+        return direction == null || direction == Direction.INCOME;
+    }
+
+    public boolean includesExpense() {
+        return direction == null || direction == Direction.EXPENSE;
+    }
+}
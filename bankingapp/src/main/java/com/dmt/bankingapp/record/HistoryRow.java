@@ -0,0 +1,26 @@
+package com.dmt.bankingapp.record;
+
+import java.time.LocalDateTime;
+
+import com.dmt.bankingapp.utils.Money;
+
+// One transaction with both sides resolved and the current balances of both accounts, read by a single
+// projection query when the account history read model is rebuilt
+public record HistoryRow(
+        Integer transactionID,
+        LocalDateTime dateOfTransaction,
+        Money amount,
+        Integer giverAccountID,
+        String giverAccountNumber,
+        Money giverBalance,
+        Integer giverClientID,
+        String giverClientName,
+        Integer receiverAccountID,
+        String receiverAccountNumber,
+        Money receiverBalance,
+        Integer receiverClientID,
+        String receiverClientName
+
+) {
+
+}
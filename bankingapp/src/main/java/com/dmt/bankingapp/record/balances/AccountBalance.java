@@ -0,0 +1,6 @@
+package com.dmt.bankingapp.record.balances;
+
+import com.dmt.bankingapp.utils.Money;
+
+public record AccountBalance(Integer accountID, Money balance) {
+}
@@ -0,0 +1,7 @@
+package com.dmt.bankingapp.record.balances;
+
+import com.dmt.bankingapp.utils.Money;
+
+// Signed amount of one history row - negative for money leaving the account
+public record AccountMovement(Integer accountID, Money amount) {
+}
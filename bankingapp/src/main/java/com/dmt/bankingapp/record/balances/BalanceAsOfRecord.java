@@ -0,0 +1,8 @@
+package com.dmt.bankingapp.record.balances;
+
+import java.time.LocalDateTime;
+
+// Balance of an account at a point in time, with the snapshot it was replayed from (null when there was
+// none to start from) and the number of movements replayed on top of it
+public record BalanceAsOfRecord(String accountNumber, LocalDateTime at, double balance, LocalDateTime snapshotAt, int movementsReplayed) {
+}
@@ -0,0 +1,12 @@
+package com.dmt.bankingapp.record.ledger;
+
+import java.math.BigDecimal;
+
+// Row of the native aggregate query of LedgerEntryRepository - column aliases match the getters
+public interface LedgerBalance {
+    int getAccountID();
+
+    BigDecimal getBalance();
+
+    long getEntryCount();
+}
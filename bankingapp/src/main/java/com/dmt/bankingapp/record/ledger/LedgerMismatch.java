@@ -0,0 +1,5 @@
+package com.dmt.bankingapp.record.ledger;
+
+// Account whose cached balance differs from the sum of its ledger entries
+public record LedgerMismatch(Integer accountID, String accountNumber, double cachedBalance, double ledgerBalance) {
+}
@@ -0,0 +1,10 @@
+package com.dmt.bankingapp.record.ledger;
+
+import java.time.LocalDateTime;
+
+import com.dmt.bankingapp.utils.Money;
+
+// One transaction reduced to what the ledger needs, read when the ledger is backfilled
+public record LedgerPosting(Integer transactionID, LocalDateTime dateOfTransaction, Money amount, Integer giverAccountID,
+        Integer receiverAccountID) {
+}
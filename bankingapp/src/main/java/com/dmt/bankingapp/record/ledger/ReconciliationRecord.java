@@ -0,0 +1,6 @@
+package com.dmt.bankingapp.record.ledger;
+
+import java.util.List;
+
+public record ReconciliationRecord(int accountsChecked, int entriesRead, List<LedgerMismatch> mismatches, boolean repaired) {
+}
@@ -0,0 +1,6 @@
+package com.dmt.bankingapp.record.loans;
+
+// Loan the client would get with the current rates - installment i (from 0) is due i + 1 months after the launch
+public record LoanQuoteRecord(String scheduleKind, double principalAmount, int loanDuration, double interestRate,
+        double commissionRate, double interestAmount, double commissionAmount, double totalLoanAmount, double[] installments) {
+}
@@ -0,0 +1,13 @@
+package com.dmt.bankingapp.record.standingOrders;
+
+import com.dmt.bankingapp.entity.StandingOrderExecution;
+
+import java.time.LocalDateTime;
+
+public record StandingOrderExecutionRecord(LocalDateTime executedAt, double amount, boolean succeeded, Integer transactionID, String message) {
+
+    public StandingOrderExecutionRecord(StandingOrderExecution execution) {
+        this(execution.getExecutedAt(), execution.getAmount().toDouble(), execution.isSucceeded(),
+                execution.getTransactionID(), execution.getMessage());
+    }
+}
@@ -0,0 +1,15 @@
+package com.dmt.bankingapp.record.standingOrders;
+
+import com.dmt.bankingapp.entity.StandingOrder;
+
+import java.time.LocalDateTime;
+
+public record StandingOrderRecord(int standingOrderID, String giverAccountNumber, String receiverAccountNumber, double amount,
+        String frequency, LocalDateTime nextRunAt, boolean isActive, LocalDateTime lastRunAt, String lastResult) {
+
+    public StandingOrderRecord(StandingOrder order) {
+        this(order.getStandingOrderID(), order.getGiver().getAccountNumber(), order.getReceiver().getAccountNumber(),
+                order.getAmount().toDouble(), order.getFrequency().name(), order.getNextRunAt(), order.getIsActive(),
+                order.getLastRunAt(), order.getLastResult());
+    }
+}
@@ -0,0 +1,7 @@
+package com.dmt.bankingapp.record.statements;
+
+import com.dmt.bankingapp.utils.Money;
+
+// Account of a client taking part in a statement chunk, with its current balance
+public record StatementAccount(Integer accountID, String accountNumber, Integer clientID, Money accountBalance) {
+}
@@ -0,0 +1,9 @@
+package com.dmt.bankingapp.record.statements;
+
+import java.time.LocalDateTime;
+
+import com.dmt.bankingapp.utils.Money;
+
+// One movement of an account read from the account history for a statement chunk
+public record StatementLine(Integer accountID, LocalDateTime dateOfTransaction, Money amount, Money balanceAfter) {
+}
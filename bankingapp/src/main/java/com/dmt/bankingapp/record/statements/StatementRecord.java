@@ -0,0 +1,13 @@
+package com.dmt.bankingapp.record.statements;
+
+import com.dmt.bankingapp.entity.AccountStatement;
+
+public record StatementRecord(String month, String accountNumber, double openingBalance, double closingBalance,
+        double totalIncome, double totalExpense, int transactionCount) {
+
+    public StatementRecord(AccountStatement statement) {
+        this(statement.getStatementMonth().toString().substring(0, 7), statement.getAccountNumber(),
+                statement.getOpeningBalance().toDouble(), statement.getClosingBalance().toDouble(),
+                statement.getTotalIncome().toDouble(), statement.getTotalExpense().toDouble(), statement.getTransactionCount());
+    }
+}
@@ -0,0 +1,4 @@
+package com.dmt.bankingapp.record.statements;
+
+public record StatementRunRecord(String month, String status, int lastClientID, int chunksProcessed, int statementsWritten) {
+}
@@ -0,0 +1,7 @@
+package com.dmt.bankingapp.record.transactions;
+
+// Status of a transfer posted through the asynchronous pipeline - QUEUED until its micro-batch is
+// committed, then POSTED with the id of the transaction or FAILED with the reason
+public record AsyncTransferRecord(String transferID, String status, String giverAccountNumber, String receiverAccountNumber,
+        double amount, Integer transactionID, String message) {
+}
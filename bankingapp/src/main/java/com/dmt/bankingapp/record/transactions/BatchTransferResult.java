@@ -0,0 +1,18 @@
+package com.dmt.bankingapp.record.transactions;
+
+public record BatchTransferResult(int leg, String receiverAccountNumber, double amount, boolean success, Integer transactionID, String message) {
+    @Override
+    public int leg() {
+        return leg;
+    }
+
+    @Override
+    public boolean success() {
+        return success;
+    }
+
+    @Override
+    public Integer transactionID() {
+        return transactionID;
+    }
+}
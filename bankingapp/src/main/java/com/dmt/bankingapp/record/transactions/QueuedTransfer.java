@@ -0,0 +1,5 @@
+package com.dmt.bankingapp.record.transactions;
+
+// Transfer accepted by AsyncTransferService and waiting in the queue of its giver's partition
+public record QueuedTransfer(String transferID, String giverAccountNumber, String receiverAccountNumber, double amount) {
+}
@@ -1,6 +1,19 @@
 package com.dmt.bankingapp.record.transactions;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.dmt.bankingapp.utils.Money;
+
 public record TransactionRecord(int transactionID, String timestamp, double amount, String giverAccountNumber, String receiverAccountNumber) {
+
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // Used by JPQL constructor expressions in TransactionRepository
+    public TransactionRecord(Integer transactionID, LocalDateTime timestamp, Money amount, String giverAccountNumber, String receiverAccountNumber) {
+        this(transactionID, timestamp.format(formatter), amount.toDouble(), giverAccountNumber, receiverAccountNumber);
+    }
+
     @Override
     public int transactionID() {
         return transactionID;
@@ -0,0 +1,7 @@
+package com.dmt.bankingapp.record.transactions;
+
+import java.time.LocalDate;
+
+// Number and total amount of the transactions of one type made from "from" (inclusive) to "to" (exclusive)
+public record TransactionTypeReport(String transactionType, LocalDate from, LocalDate to, long transactionCount, double total) {
+}
@@ -0,0 +1,10 @@
+package com.dmt.bankingapp.record.transactions;
+
+import java.math.BigDecimal;
+
+// Row of the native aggregate query of TransactionRepository - column aliases match the getters
+public interface TransactionTypeTotal {
+    long getTransactionCount();
+
+    BigDecimal getTotal();
+}
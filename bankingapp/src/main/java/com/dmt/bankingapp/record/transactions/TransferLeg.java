@@ -0,0 +1,13 @@
+package com.dmt.bankingapp.record.transactions;
+
+public record TransferLeg(String receiverAccountNumber, double amount) {
+    @Override
+    public String receiverAccountNumber() {
+        return receiverAccountNumber;
+    }
+
+    @Override
+    public double amount() {
+        return amount;
+    }
+}
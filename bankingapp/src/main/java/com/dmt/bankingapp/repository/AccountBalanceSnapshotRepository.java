@@ -0,0 +1,19 @@
+package com.dmt.bankingapp.repository;
+
+import com.dmt.bankingapp.entity.AccountBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, Integer> {
+    boolean existsBySnapshotAt(LocalDateTime snapshotAt);
+
+    // Nearest snapshot at or before the given time and nearest one after it - both are a single seek on
+    // the unique (accountId, snapshotAt) index
+    Optional<AccountBalanceSnapshot> findFirstByAccountIDAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(int accountID, LocalDateTime at);
+
+    Optional<AccountBalanceSnapshot> findFirstByAccountIDAndSnapshotAtGreaterThanOrderBySnapshotAt(int accountID, LocalDateTime at);
+}
@@ -0,0 +1,77 @@
+package com.dmt.bankingapp.repository;
+
+import com.dmt.bankingapp.entity.AccountHistoryEntry;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.record.balances.AccountMovement;
+import com.dmt.bankingapp.record.statements.StatementLine;
+import com.dmt.bankingapp.utils.Money;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface AccountHistoryRepository extends JpaRepository<AccountHistoryEntry, Integer>, AccountHistoryRepositoryCustom {
+
+    // History records are built straight from the rows of the read model, oldest first. A transfer between
+    // two accounts of the same client has a row for each of them, the sending one is written first
+    String HISTORY = "SELECT new com.dmt.bankingapp.record.History(e.amount, e.counterpartyName, e.counterpartyAccountNumber, "
+            + "e.dateOfTransaction, e.transactionID, e.balanceAfter) FROM AccountHistoryEntry e ";
+    String ORDER = " ORDER BY e.dateOfTransaction, e.transactionID, e.accountHistoryID";
+
+    @Query(HISTORY + "WHERE e.client = :client" + ORDER)
+    List<History> findHistoryOfClient(@Param("client") Client client);
+
+    // Same rows read through a forward-only cursor - the driver fetches them in chunks of the fetch size
+    // instead of buffering the whole result, so an export never holds more than one chunk in memory.
+    // Must be consumed inside a transaction and closed afterwards
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(HISTORY + "WHERE e.client = :client" + ORDER)
+    Stream<History> streamHistoryOfClient(@Param("client") Client client);
+
+    // Movements of all accounts of a range of clients dated in [from, to), one range scan per statement chunk
+    @Query("SELECT new com.dmt.bankingapp.record.statements.StatementLine(e.account.accountID, e.dateOfTransaction, e.amount, e.balanceAfter) "
+            + "FROM AccountHistoryEntry e WHERE e.client.clientID BETWEEN :firstClientID AND :lastClientID "
+            + "AND e.dateOfTransaction >= :from AND e.dateOfTransaction < :to "
+            + "ORDER BY e.account.accountID, e.dateOfTransaction, e.transactionID, e.accountHistoryID")
+    List<StatementLine> findStatementLines(@Param("firstClientID") int firstClientID, @Param("lastClientID") int lastClientID,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Movements of a range of clients made at the latest moment before "from" of their account, so the last
+    // one of each account carries its balance at "from". The subquery is one index lookup per account on
+    // (account_id, date_of_transaction)
+    @Query("SELECT new com.dmt.bankingapp.record.statements.StatementLine(e.account.accountID, e.dateOfTransaction, e.amount, e.balanceAfter) "
+            + "FROM AccountHistoryEntry e WHERE e.client.clientID BETWEEN :firstClientID AND :lastClientID "
+            + "AND e.dateOfTransaction = (SELECT MAX(p.dateOfTransaction) FROM AccountHistoryEntry p "
+            + "WHERE p.account = e.account AND p.dateOfTransaction < :from) "
+            + "ORDER BY e.account.accountID, e.transactionID, e.accountHistoryID")
+    List<StatementLine> findLastLinesBefore(@Param("firstClientID") int firstClientID, @Param("lastClientID") int lastClientID,
+            @Param("from") LocalDateTime from);
+
+    // Movements of one account dated after "from" and at or before "to" - the replay window of a point in
+    // time balance, read from the (account_id, date_of_transaction) index
+    @Query("SELECT e.amount FROM AccountHistoryEntry e WHERE e.account.accountID = :accountID "
+            + "AND e.dateOfTransaction > :from AND e.dateOfTransaction <= :to")
+    List<Money> findAmountsOfAccountBetween(@Param("accountID") int accountID, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // Movements of a page of accounts dated after the given time, for taking snapshots
+    @Query("SELECT new com.dmt.bankingapp.record.balances.AccountMovement(e.account.accountID, e.amount) FROM AccountHistoryEntry e "
+            + "WHERE e.account.accountID BETWEEN :firstAccountID AND :lastAccountID AND e.dateOfTransaction > :after")
+    List<AccountMovement> findMovementsAfter(@Param("firstAccountID") int firstAccountID, @Param("lastAccountID") int lastAccountID,
+            @Param("after") LocalDateTime after);
+
+    // Movements of the given accounts dated after the given time
+    @Query("SELECT new com.dmt.bankingapp.record.balances.AccountMovement(e.account.accountID, e.amount) FROM AccountHistoryEntry e "
+            + "WHERE e.account.accountID IN :accountIDs AND e.dateOfTransaction > :after")
+    List<AccountMovement> findMovementsOfAccountsAfter(@Param("accountIDs") Collection<Integer> accountIDs, @Param("after") LocalDateTime after);
+}
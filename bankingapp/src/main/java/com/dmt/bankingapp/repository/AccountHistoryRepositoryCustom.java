@@ -0,0 +1,11 @@
+package com.dmt.bankingapp.repository;
+
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.record.HistoryFilter;
+
+import java.util.List;
+
+public interface AccountHistoryRepositoryCustom {
+    List<History> findHistoryOfClient(Client client, HistoryFilter filter);
+}
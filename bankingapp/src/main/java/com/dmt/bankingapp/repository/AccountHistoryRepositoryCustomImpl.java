@@ -0,0 +1,85 @@
+package com.dmt.bankingapp.repository;
+
+import com.dmt.bankingapp.entity.AccountHistoryEntry;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.record.HistoryFilter;
+import com.dmt.bankingapp.utils.Money;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// History query with optional filters. Only the predicates of the filters that are set are added, so
+// the database gets a plain range scan on (client, date) instead of "? IS NULL OR ..." conditions it
+// cannot use an index for
+public class AccountHistoryRepositoryCustomImpl implements AccountHistoryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<History> findHistoryOfClient(Client client, HistoryFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<History> query = cb.createQuery(History.class);
+        Root<AccountHistoryEntry> e = query.from(AccountHistoryEntry.class);
+        Path<Money> amount = e.get("amount");
+
+        query.select(cb.construct(History.class,
+                amount, e.get("counterpartyName"), e.get("counterpartyAccountNumber"),
+                e.get("dateOfTransaction"), e.get("transactionID"), e.get("balanceAfter")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(e.get("client"), client));
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(e.<LocalDateTime>get("dateOfTransaction"), filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThan(e.<LocalDateTime>get("dateOfTransaction"), filter.to()));
+        }
+        if (filter.counterpartyAccount() != null) {
+            predicates.add(cb.equal(e.get("counterpartyAccountNumber"), filter.counterpartyAccount()));
+        }
+
+        // Amounts are signed, so direction and amount limits are ranges on the positive side for income
+        // and on the negative side for expenses
+        List<Predicate> sides = new ArrayList<>();
+        if (filter.includesIncome()) {
+            List<Predicate> income = new ArrayList<>();
+            income.add(cb.greaterThan(amount, Money.ZERO));
+            if (filter.minAmount() != null) {
+                income.add(cb.greaterThanOrEqualTo(amount, filter.minAmount()));
+            }
+            if (filter.maxAmount() != null) {
+                income.add(cb.lessThanOrEqualTo(amount, filter.maxAmount()));
+            }
+            sides.add(cb.and(income.toArray(new Predicate[0])));
+        }
+        if (filter.includesExpense()) {
+            List<Predicate> expense = new ArrayList<>();
+            expense.add(cb.lessThan(amount, Money.ZERO));
+            if (filter.minAmount() != null) {
+                expense.add(cb.lessThanOrEqualTo(amount, filter.minAmount().negate()));
+            }
+            if (filter.maxAmount() != null) {
+                expense.add(cb.greaterThanOrEqualTo(amount, filter.maxAmount().negate()));
+            }
+            sides.add(cb.and(expense.toArray(new Predicate[0])));
+        }
+        if (filter.direction() != null || filter.minAmount() != null || filter.maxAmount() != null) {
+            predicates.add(cb.or(sides.toArray(new Predicate[0])));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(e.get("dateOfTransaction")), cb.asc(e.get("transactionID")), cb.asc(e.get("accountHistoryID")));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -2,14 +2,76 @@ package com.dmt.bankingapp.repository;
 
 import com.dmt.bankingapp.entity.Account;
 import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.record.balances.AccountBalance;
+import com.dmt.bankingapp.record.statements.StatementAccount;
+import com.dmt.bankingapp.utils.Money;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Integer> {
     List<Account> findByClient(Client client);
     Account findByAccountNumber(String accountNumber);
     Account findTopByOrderByAccountIDDesc();
+    List<Account> findBySubBalanceStripesGreaterThan(int subBalanceStripes);
+
+    @Query("SELECT a.accountID FROM Account a WHERE a.accountNumber = :accountNumber")
+    Integer findAccountIDByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    // Every account number through a cursor, read from the unique index when the lookup filter is built
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.accountNumber FROM Account a")
+    Stream<String> streamAccountNumbers();
+
+    // SELECT ... FOR UPDATE on a single account row, held until the surrounding transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountID = :accountID")
+    Account lockByAccountID(@Param("accountID") int accountID);
+
+    // Resolves the accounts taking part in a batch without locking them - account numbers never change
+    @Query("SELECT a.accountID FROM Account a WHERE a.accountNumber IN :accountNumbers")
+    List<Integer> findAccountIDsByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    // Locks all accounts of a batch with one IN query over the primary key. InnoDB locks rows in the order
+    // it reads them, which for an IN list on the primary key is ascending accountID - the order of
+    // TransferService.lock, so batches and single transfers over the same accounts queue up instead of
+    // deadlocking. An IN list on accountNumber would be read (and locked) in account number order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountID IN :accountIDs ORDER BY a.accountID")
+    List<Account> lockByAccountIDIn(@Param("accountIDs") Collection<Integer> accountIDs);
+
+    // Accounts of a range of clients with their current balances, for a statement chunk
+    @Query("SELECT new com.dmt.bankingapp.record.statements.StatementAccount(a.accountID, a.accountNumber, c.clientID, a.accountBalance) "
+            + "FROM Account a JOIN a.client c WHERE c.clientID BETWEEN :firstClientID AND :lastClientID ORDER BY a.accountID")
+    List<StatementAccount> findStatementAccounts(@Param("firstClientID") int firstClientID, @Param("lastClientID") int lastClientID);
+
+    // Accounts with their current balances in accountID order, a page after the given accountID at a time
+    @Query("SELECT new com.dmt.bankingapp.record.balances.AccountBalance(a.accountID, a.accountBalance) "
+            + "FROM Account a WHERE a.accountID > :after ORDER BY a.accountID")
+    List<AccountBalance> findBalancesAfter(@Param("after") int after, Limit limit);
+
+    @Query("SELECT a.accountID FROM Account a WHERE a.accountID > :after ORDER BY a.accountID")
+    List<Integer> findAccountIDsAfter(@Param("after") int after, Limit limit);
+
+    @Query("SELECT new com.dmt.bankingapp.record.balances.AccountBalance(a.accountID, a.accountBalance) "
+            + "FROM Account a WHERE a.accountID BETWEEN :firstAccountID AND :lastAccountID")
+    List<AccountBalance> findBalancesBetween(@Param("firstAccountID") int firstAccountID, @Param("lastAccountID") int lastAccountID);
+
+    // Overwrites the cached balance of an account with the one recomputed from the ledger
+    @Modifying
+    @Query("UPDATE Account a SET a.accountBalance = :balance WHERE a.accountID = :accountID")
+    int updateBalance(@Param("accountID") int accountID, @Param("balance") Money balance);
 }
@@ -0,0 +1,21 @@
+package com.dmt.bankingapp.repository;
+
+import com.dmt.bankingapp.entity.AccountStatement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountStatementRepository extends JpaRepository<AccountStatement, Integer> {
+    List<AccountStatement> findByClientIDAndStatementMonthOrderByAccountNumber(int clientID, LocalDate statementMonth);
+
+    // Removes statements of a chunk written by an earlier, interrupted run before it is written again
+    @Modifying
+    @Query("DELETE FROM AccountStatement s WHERE s.statementMonth = :month AND s.clientID BETWEEN :firstClientID AND :lastClientID")
+    int deleteChunk(@Param("month") LocalDate month, @Param("firstClientID") int firstClientID, @Param("lastClientID") int lastClientID);
+}
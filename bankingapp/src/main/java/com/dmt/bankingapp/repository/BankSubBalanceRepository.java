@@ -0,0 +1,33 @@
+package com.dmt.bankingapp.repository;
+
+import com.dmt.bankingapp.entity.BankSubBalance;
+import com.dmt.bankingapp.utils.Money;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BankSubBalanceRepository extends JpaRepository<BankSubBalance, Integer> {
+    List<BankSubBalance> findByAccountIDOrderByStripe(int accountID);
+
+    List<BankSubBalance> findByAccountIDBetween(int firstAccountID, int lastAccountID);
+
+    // SELECT ... FOR UPDATE on one stripe - the only row a transfer locks on the side of a striped account
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BankSubBalance s WHERE s.accountID = :accountID AND s.stripe = :stripe")
+    BankSubBalance lockStripe(@Param("accountID") int accountID, @Param("stripe") int stripe);
+
+    // All stripes of an account in stripe order, for consolidation
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BankSubBalance s WHERE s.accountID = :accountID ORDER BY s.stripe")
+    List<BankSubBalance> lockStripesOfAccount(@Param("accountID") int accountID);
+
+    // Balances as stored in the database, also when the rows are already loaded in the session
+    @Query("SELECT s.balance FROM BankSubBalance s WHERE s.accountID = :accountID")
+    List<Money> findBalancesOfAccount(@Param("accountID") int accountID);
+}
@@ -1,11 +1,20 @@
 package com.dmt.bankingapp.repository;
 
 import com.dmt.bankingapp.entity.Client;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Integer> {
     Client findByClientName(String clientName);
     Client findByClientID(int clientID);
+
+    // Keyset walk over all clients - ids of the next chunk after the given one
+    @Query("SELECT c.clientID FROM Client c WHERE c.clientID > :after ORDER BY c.clientID")
+    List<Integer> findClientIDsAfter(@Param("after") int after, Limit limit);
 }
@@ -5,7 +5,11 @@ import org.springframework.stereotype.Repository;
 
 import com.dmt.bankingapp.entity.Commission;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CommissionRepository extends JpaRepository<Commission, Integer> {
     Commission findByCommissionOf(String commissionOf);
+    List<Commission> findByCommissionOfIn(Collection<String> commissionsOf);
 }
@@ -0,0 +1,13 @@
+package com.dmt.bankingapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.IdempotencyKey;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Integer> {
+    // Single probe on the unique (clientId, idempotencyKey) index
+    IdempotencyKey findByClientAndIdempotencyKey(Client client, String idempotencyKey);
+}
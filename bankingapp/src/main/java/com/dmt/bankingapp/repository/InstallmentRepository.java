@@ -1,12 +1,24 @@
 package com.dmt.bankingapp.repository;
 
 import com.dmt.bankingapp.entity.Installment;
+import com.dmt.bankingapp.entity.Loan;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 
 @Repository
 public interface InstallmentRepository extends JpaRepository<Installment, Integer> {
     Installment findByInstallmentID (int installmentId);
+
+    // Unpaid installments of the loan due after the given date, in order of the due date - a range of the
+    // (loan_id, is_paid, due_date) index, so a page costs the same on a loan of any length
+    @Query("SELECT i FROM Installment i WHERE i.loan = :loan AND i.isPaid = false AND i.dueDate > :after ORDER BY i.dueDate")
+    List<Installment> findUnpaidOfLoanDueAfter(@Param("loan") Loan loan, @Param("after") LocalDateTime after, Limit limit);
 }
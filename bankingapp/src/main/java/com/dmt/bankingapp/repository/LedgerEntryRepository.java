@@ -0,0 +1,24 @@
+package com.dmt.bankingapp.repository;
+
+import com.dmt.bankingapp.entity.LedgerEntry;
+import com.dmt.bankingapp.record.ledger.LedgerBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    List<LedgerEntry> findByTransactionIDOrderByLedgerEntryID(int transactionID);
+
+    // Ledger balance of every account of a range that has entries - credits less debits - and the number of
+    // its entries. Native, so the sum is done by the database on DECIMAL values, read from the
+    // (account_id, ledger_entry_id) index when balances are recomputed
+    @Query(value = "SELECT e.account_id AS accountID, SUM(CASE e.side WHEN 'CREDIT' THEN e.amount ELSE -e.amount END) AS balance, "
+            + "COUNT(*) AS entryCount FROM ledger_entries e WHERE e.account_id BETWEEN :firstAccountID AND :lastAccountID "
+            + "GROUP BY e.account_id",
+            nativeQuery = true)
+    List<LedgerBalance> sumBalancesOfAccounts(@Param("firstAccountID") int firstAccountID, @Param("lastAccountID") int lastAccountID);
+}
@@ -0,0 +1,12 @@
+package com.dmt.bankingapp.repository;
+
+import com.dmt.bankingapp.entity.StandingOrderExecution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StandingOrderExecutionRepository extends JpaRepository<StandingOrderExecution, Integer> {
+    List<StandingOrderExecution> findByStandingOrderIDOrderByStandingOrderExecutionIDDesc(int standingOrderID);
+}
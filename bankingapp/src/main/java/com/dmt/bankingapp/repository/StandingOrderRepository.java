@@ -0,0 +1,40 @@
+package com.dmt.bankingapp.repository;
+
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.StandingOrder;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StandingOrderRepository extends JpaRepository<StandingOrder, Integer> {
+    List<StandingOrder> findByClientOrderByStandingOrderID(Client client);
+
+    // Claims a batch of due orders with SELECT ... FOR UPDATE SKIP LOCKED (lock timeout -2). Orders already
+    // claimed by another node are skipped instead of waited for, so every node takes a different batch.
+    // Served by the (is_active, next_run_at) index
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM StandingOrder s WHERE s.isActive = true AND s.nextRunAt <= :now ORDER BY s.nextRunAt, s.standingOrderID")
+    List<StandingOrder> claimDue(@Param("now") LocalDateTime now, Limit limit);
+
+    // Claims one order the same way, as long as it is still due - null when it has been executed or is
+    // claimed by another node in the meantime
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM StandingOrder s WHERE s.standingOrderID = :standingOrderID AND s.isActive = true AND s.nextRunAt <= :now")
+    StandingOrder claimDueByID(@Param("standingOrderID") int standingOrderID, @Param("now") LocalDateTime now);
+
+    // Due orders in the order claimDue takes them, without locking them
+    @Query("SELECT s.standingOrderID FROM StandingOrder s WHERE s.isActive = true AND s.nextRunAt <= :now ORDER BY s.nextRunAt, s.standingOrderID")
+    List<Integer> findDueIDs(@Param("now") LocalDateTime now, Limit limit);
+}
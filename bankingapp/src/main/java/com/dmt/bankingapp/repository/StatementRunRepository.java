@@ -0,0 +1,11 @@
+package com.dmt.bankingapp.repository;
+
+import com.dmt.bankingapp.entity.StatementRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface StatementRunRepository extends JpaRepository<StatementRun, LocalDate> {
+}
@@ -2,12 +2,68 @@ package com.dmt.bankingapp.repository;
 
 import com.dmt.bankingapp.entity.Account;
 import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.record.HistoryRow;
+import com.dmt.bankingapp.record.ledger.LedgerPosting;
+import com.dmt.bankingapp.record.transactions.TransactionRecord;
+import com.dmt.bankingapp.record.transactions.TransactionTypeTotal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
     List<Transaction> findByGiver(Account giver);
     List<Transaction> findByReceiver(Account receiver);
+
+    // Listings select only the columns of TransactionRecord with plain joins to both accounts, so no
+    // Account/Client entity graphs are loaded for the rows of a page
+    String RECORD = "SELECT new com.dmt.bankingapp.record.transactions.TransactionRecord("
+            + "t.transactionID, t.timestamp, t.amount, g.accountNumber, r.accountNumber) "
+            + "FROM Transaction t JOIN t.giver g JOIN t.receiver r ";
+
+    // Keyset pagination, newest first - "after" is the id of the last transaction on the previous page,
+    // so every page is a range scan from the cursor no matter how old it is
+    @Query(RECORD + "WHERE t.giver = :giver AND t.transactionID < :after ORDER BY t.transactionID DESC")
+    List<TransactionRecord> findPageByGiver(@Param("giver") Account giver, @Param("after") int after, Limit limit);
+
+    @Query(RECORD + "WHERE t.receiver = :receiver AND t.transactionID < :after ORDER BY t.transactionID DESC")
+    List<TransactionRecord> findPageByReceiver(@Param("receiver") Account receiver, @Param("after") int after, Limit limit);
+
+    @Query(RECORD + "WHERE (t.giver = :account OR t.receiver = :account) AND t.transactionID < :after ORDER BY t.transactionID DESC")
+    List<TransactionRecord> findPageByAccount(@Param("account") Account account, @Param("after") int after, Limit limit);
+
+    @Query(RECORD + "WHERE t.transactionID < :after ORDER BY t.transactionID DESC")
+    List<TransactionRecord> findPage(@Param("after") int after, Limit limit);
+
+    // Every transaction with both sides and the current balances of both accounts, newest first - read through
+    // a cursor when the account history read model is rebuilt
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.dmt.bankingapp.record.HistoryRow(t.transactionID, t.timestamp, t.amount, "
+            + "g.accountID, g.accountNumber, g.accountBalance, gc.clientID, gc.clientName, "
+            + "r.accountID, r.accountNumber, r.accountBalance, rc.clientID, rc.clientName) "
+            + "FROM Transaction t JOIN t.giver g LEFT JOIN g.client gc JOIN t.receiver r LEFT JOIN r.client rc "
+            + "ORDER BY t.timestamp DESC, t.transactionID DESC")
+    Stream<HistoryRow> streamAllForHistory();
+
+    // Every transaction oldest first, read through a cursor when the ledger is backfilled
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.dmt.bankingapp.record.ledger.LedgerPosting(t.transactionID, t.timestamp, t.amount, t.giver.accountID, t.receiver.accountID) "
+            + "FROM Transaction t ORDER BY t.timestamp, t.transactionID")
+    Stream<LedgerPosting> streamAllForLedger();
+
+    // Count and total of one type of transactions in a time range. Native, so the sum is done by the database
+    // on DECIMAL values - read from the (transaction_type, date_of_transaction, amount) index alone
+    @Query(value = "SELECT COUNT(*) AS transactionCount, COALESCE(SUM(t.amount), 0) AS total FROM transactions t "
+            + "WHERE t.transaction_type = :transactionType AND t.date_of_transaction >= :from AND t.date_of_transaction < :to",
+            nativeQuery = true)
+    TransactionTypeTotal sumByTypeBetween(@Param("transactionType") String transactionType,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -34,11 +34,18 @@ public class EndpointAccess {
                 //security for TransactionController
                 .requestMatchers(HttpMethod.POST, "/transaction/**").authenticated()
                 .requestMatchers(HttpMethod.GET, "/transaction/**").authenticated()
+                //security for StandingOrderController
+                .requestMatchers(HttpMethod.POST, "/standingOrder/**").authenticated()
+                .requestMatchers(HttpMethod.GET, "/standingOrder/**").authenticated()
                 //security for LoanController
                 .requestMatchers(HttpMethod.POST, "/loan/**").authenticated()
                 .requestMatchers(HttpMethod.GET, "/loan/**").authenticated()
                 //security for HistoryController
+                .requestMatchers(HttpMethod.POST, "/history/**").authenticated()
                 .requestMatchers(HttpMethod.GET, "/history/**").authenticated()
+                //security for StatementController
+                .requestMatchers(HttpMethod.POST, "/statement/**").authenticated()
+                .requestMatchers(HttpMethod.GET, "/statement/**").authenticated()
                 //security for DepositController
                 .requestMatchers(HttpMethod.POST, "/deposit/**").authenticated()
                 .requestMatchers(HttpMethod.GET, "/deposit/**").authenticated()
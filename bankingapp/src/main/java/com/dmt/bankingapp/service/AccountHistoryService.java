@@ -0,0 +1,114 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.AccountHistoryEntry;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.event.TransactionPostedEvent;
+import com.dmt.bankingapp.record.HistoryRow;
+import com.dmt.bankingapp.repository.AccountHistoryRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.utils.Money;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Keeps the account history read model in step with the transactions
+@Service
+public class AccountHistoryService {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    @Autowired
+    private AccountHistoryRepository accountHistoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BankSubBalanceService bankSubBalanceService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Runs synchronously while the transaction is saved, so both rows are written in the same database
+    // transaction as the transfer and its balance changes - they are committed or rolled back together
+    @EventListener
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        Transaction transaction = event.transaction();
+        Account giver = transaction.getGiver();
+        Account receiver = transaction.getReceiver();
+        accountHistoryRepository.saveAll(List.of(
+                new AccountHistoryEntry(giver, giver.getClient(), transaction.getTransactionID(), transaction.getTimestamp(),
+                        transaction.getAmountAsMoney().negate(), receiver.getAccountNumber(), clientName(receiver.getClient()), event.giverBalanceAfter()),
+                new AccountHistoryEntry(receiver, receiver.getClient(), transaction.getTransactionID(), transaction.getTimestamp(),
+                        transaction.getAmountAsMoney(), giver.getAccountNumber(), clientName(giver.getClient()), event.receiverBalanceAfter())));
+    }
+
+    // Recreates the whole read model from the transactions. Balances before the transactions are not
+    // stored anywhere, so running balances are worked out backwards from the current balance of each
+    // account, newest transaction first. Meant for backfilling and repairs while no transfers are posted
+    @Transactional
+    public int rebuild() {
+        accountHistoryRepository.deleteAllInBatch();
+        entityManager.clear();
+        // The current balance of a striped account is its accountBalance plus its stripes
+        Map<Integer, Money> stripes = bankSubBalanceService.stripeTotals(0, Integer.MAX_VALUE);
+        Map<Integer, Money> balances = new HashMap<>();
+        int written = 0;
+        try (Stream<HistoryRow> rows = transactionRepository.streamAllForHistory()) {
+            Iterator<HistoryRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                HistoryRow row = iterator.next();
+                // Balance after this transaction is the balance before the newer one processed last
+                Money giverBalanceAfter = balances.computeIfAbsent(row.giverAccountID(),
+                        accountID -> row.giverBalance().plus(stripes.getOrDefault(accountID, Money.ZERO)));
+                Money receiverBalanceAfter = balances.computeIfAbsent(row.receiverAccountID(),
+                        accountID -> row.receiverBalance().plus(stripes.getOrDefault(accountID, Money.ZERO)));
+                balances.put(row.giverAccountID(), giverBalanceAfter.plus(row.amount()));
+                balances.put(row.receiverAccountID(), receiverBalanceAfter.minus(row.amount()));
+
+                entityManager.persist(new AccountHistoryEntry(entityManager.getReference(Account.class, row.giverAccountID()),
+                        clientReference(row.giverClientID()), row.transactionID(), row.dateOfTransaction(), row.amount().negate(),
+                        row.receiverAccountNumber(), row.receiverClientName(), giverBalanceAfter));
+                entityManager.persist(new AccountHistoryEntry(entityManager.getReference(Account.class, row.receiverAccountID()),
+                        clientReference(row.receiverClientID()), row.transactionID(), row.dateOfTransaction(), row.amount(),
+                        row.giverAccountNumber(), row.giverClientName(), receiverBalanceAfter));
+                written += 2;
+                // Written rows are not needed any more - keep the persistence context small
+                if (written % REBUILD_BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        return written;
+    }
+
+    // Backfills the read model of a database that has transactions from before it was introduced
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (accountHistoryRepository.count() == 0 && transactionRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private Client clientReference(Integer clientID) {
+        return clientID == null ? null : entityManager.getReference(Client.class, clientID);
+    }
+
+    private static String clientName(Client client) {
+        return client == null ? null : client.getClientName();
+    }
+}
@@ -0,0 +1,155 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.utils.BloomFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Resolves account numbers without a database query in the common cases. A Bloom filter of every existing
+// account number accepts fresh generated numbers in memory, and a cache of accountNumber -> accountID turns
+// the lookup of a known account into a primary key read that is usually served by the persistence context.
+// The filter only sees the accounts inserted through this node, so it is never trusted to reject a lookup -
+// an account created on another node is found in the database and added to the filter - and a number it
+// accepted can still be taken, which the unique index of accountNumber catches (see AccountService).
+// Until the filter is built at startup every number is treated as one that may exist
+@Service
+public class AccountLookupService implements PostInsertEventListener {
+
+    public static final double FALSE_POSITIVE_RATE = 0.01;
+    public static final long CACHE_SIZE = 100000;
+    public static final Duration CACHE_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    // Sized for this many accounts - more of them only raise the rate of false "maybe" answers
+    @Value("${bankingapp.accounts.lookup-filter-size:1000000}")
+    private long expectedAccounts;
+
+    private final Cache<String, Integer> accountIDs = Caffeine.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .expireAfterWrite(CACHE_TIME_TO_LIVE)
+            .build();
+
+    // null until built - numbers inserted before that are kept in pending and added when it is swapped in
+    private BloomFilter filter;
+    private final List<String> pending = new ArrayList<>();
+
+    // Every Account insert, wherever it comes from, is added to the filter right after its INSERT. If the
+    // transaction rolls back the number stays in the filter, which only costs a query when it is looked up
+    @PostConstruct
+    public void listenToInserts() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_INSERT, this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            filter = null;
+        }
+        BloomFilter fresh = new BloomFilter(expectedAccounts, FALSE_POSITIVE_RATE);
+        try (Stream<String> accountNumbers = accountRepository.streamAccountNumbers()) {
+            accountNumbers.forEach(fresh::put);
+        }
+        synchronized (this) {
+            pending.forEach(fresh::put);
+            pending.clear();
+            filter = fresh;
+        }
+    }
+
+    public void register(String accountNumber) {
+        BloomFilter current;
+        synchronized (this) {
+            if (filter == null) {
+                pending.add(accountNumber);
+                return;
+            }
+            current = filter;
+        }
+        current.put(accountNumber);
+    }
+
+    // false only for numbers that certainly do not belong to any account
+    public boolean mightExist(String accountNumber) {
+        BloomFilter current;
+        synchronized (this) {
+            current = filter;
+        }
+        return current == null || current.mightContain(accountNumber);
+    }
+
+    // Replaces AccountRepository.findByAccountNumber on the hot paths, returns null for an unknown account.
+    // Not read-only - the account is usually changed by a transfer afterwards in the same session
+    public Account findByAccountNumber(String accountNumber) {
+        if (accountNumber == null) {
+            return null;
+        }
+        Integer accountID = accountIDs.getIfPresent(accountNumber);
+        if (accountID != null) {
+            Account account = accountRepository.findById(accountID).orElse(null);
+            if (account != null) {
+                return account;
+            }
+            // Cached from an insert that has been rolled back since
+            accountIDs.invalidate(accountNumber);
+        }
+        Account account = accountRepository.findByAccountNumber(accountNumber);
+        if (account != null) {
+            accountIDs.put(accountNumber, account.getAccountID());
+            // Created on another node
+            if (!mightExist(accountNumber)) {
+                register(accountNumber);
+            }
+        }
+        return account;
+    }
+
+    // A generated number can be taken without a query whenever the filter of this node has never seen it.
+    // Another node may have taken it in the meantime - the insert of the account fails then and is retried
+    public boolean isAccountNumberFree(String accountNumber) {
+        return !mightExist(accountNumber) || accountRepository.findAccountIDByAccountNumber(accountNumber) == null;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Account account && account.getAccountNumber() != null) {
+            register(account.getAccountNumber());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
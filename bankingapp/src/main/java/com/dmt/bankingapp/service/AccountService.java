@@ -6,32 +6,58 @@ import com.dmt.bankingapp.repository.AccountRepository;
 import com.dmt.bankingapp.utils.AccountNumberGenerator;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AccountService {
 
+    public static final int MAX_CREATE_ATTEMPTS = 3;
+
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private AccountLookupService accountLookupService;
+
     public String addNewAccount(Account.AccountType accountType, Client client) {
+        if (client == null) {
+            return "Client not found";
+        }
+
+        retryOnTakenAccountNumber(() -> accountRepository.save(new Account(generateFreeAccountNumber(), accountType, client)));
+        return "Account created successfully";
+    }
+
+    // Runs a database transaction that inserts an account with a number from generateFreeAccountNumber. The
+    // number is only checked against the lookup filter of this node, so another node may have taken it - the
+    // unique index rejects the insert, the transaction is rolled back and run again with a new number.
+    // Must be called outside of a transaction, which could not go on after the failed insert
+    public <T> T retryOnTakenAccountNumber(Supplier<T> creation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return creation.get();
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_CREATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Most generated numbers have never been used - the lookup filter accepts them without a query
+    public String generateFreeAccountNumber() {
         String accountNumber = "";
         while (accountNumber.isEmpty()) {
             String generatedNumber = AccountNumberGenerator.generateAccountNumber();
-            if (accountRepository.findByAccountNumber(generatedNumber) == null) {
+            if (accountLookupService.isAccountNumberFree(generatedNumber)) {
                 accountNumber = generatedNumber;
             }
         }
-
-        if (client == null) {
-            return "Client not found";
-        }
-
-        Account account = new Account(accountNumber, accountType, client);
-        accountRepository.save(account);
-        return "Account created successfully";
+        return accountNumber;
     }
 
     public Account getLatestAccount() {
@@ -0,0 +1,231 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.record.transactions.AsyncTransferRecord;
+import com.dmt.bankingapp.record.transactions.BatchTransferResult;
+import com.dmt.bankingapp.record.transactions.QueuedTransfer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Opt-in asynchronous transfers. Accepted transfers go to an in-process queue picked by the giver's
+// accountID, and every queue has a single thread posting it in micro-batches of up to BATCH_SIZE
+// transfers per database transaction. All transfers of one giver go through the same thread, so they are
+// posted in the order they were accepted, while transfers of different partitions run in parallel.
+// The queues live in memory - transfers still queued when the application stops are reported as failed
+@Service
+public class AsyncTransferService {
+
+    public static final int BATCH_SIZE = 100;
+    public static final int QUEUE_CAPACITY = 10000;
+    public static final Duration STATUS_RETENTION = Duration.ofHours(1);
+    // How often an idle partition thread checks whether the application is stopping
+    public static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    // How long stop() waits for the batches being posted
+    public static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+
+    public enum Status {
+        QUEUED,
+        POSTED,
+        FAILED
+    }
+
+    @Autowired
+    private TransferService transferService;
+
+    @Value("${bankingapp.transfers.partitions:4}")
+    private int partitionCount;
+
+    // Statuses of accepted transfers by transferID, kept for an hour after the last change. Bounded by the
+    // retention only - a size limit could evict a transfer that is still queued, whose result would then be
+    // lost. Queued ones are bounded by the queues anyway, the rest by the rate of transfers in an hour
+    private final Cache<String, AsyncTransfer> transfers = Caffeine.newBuilder()
+            .expireAfterWrite(STATUS_RETENTION)
+            .build();
+
+    private Partition[] partitions;
+
+    private volatile boolean running;
+
+    // State of one accepted transfer, completed once its micro-batch has been posted
+    private static final class AsyncTransfer {
+        private final QueuedTransfer transfer;
+        private final int clientID;
+        private final CompletableFuture<AsyncTransferRecord> completion = new CompletableFuture<>();
+
+        private AsyncTransfer(QueuedTransfer transfer, int clientID) {
+            this.transfer = transfer;
+            this.clientID = clientID;
+        }
+
+        private AsyncTransferRecord toRecord() {
+            AsyncTransferRecord done = completion.getNow(null);
+            if (done != null) {
+                return done;
+            }
+            return new AsyncTransferRecord(transfer.transferID(), Status.QUEUED.name(), transfer.giverAccountNumber(),
+                    transfer.receiverAccountNumber(), transfer.amount(), null, null);
+        }
+
+        private void complete(BatchTransferResult result) {
+            completion.complete(new AsyncTransferRecord(transfer.transferID(), result.success() ? Status.POSTED.name() : Status.FAILED.name(),
+                    transfer.giverAccountNumber(), transfer.receiverAccountNumber(), result.amount(), result.transactionID(), result.message()));
+        }
+    }
+
+    private final class Partition implements Runnable {
+        private final BlockingQueue<QueuedTransfer> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final Thread thread;
+
+        private Partition(int index) {
+            this.thread = new Thread(this, "transfer-partition-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<QueuedTransfer> batch = new ArrayList<>(BATCH_SIZE);
+            while (running) {
+                try {
+                    QueuedTransfer first = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                // Whatever else is waiting goes into the same micro-batch
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                post(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (partitionCount < 1) {
+            throw new IllegalStateException("Number of transfer partitions has to be at least 1!");
+        }
+        running = true;
+        partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i);
+            partitions[i].thread.start();
+        }
+    }
+
+    // New transfers are refused from now on. Every thread finishes the micro-batch it is posting - it is not
+    // interrupted in the middle of a database transaction - and the transfers still queued are failed
+    @PreDestroy
+    public void stop() {
+        running = false;
+        long deadline = System.nanoTime() + STOP_TIMEOUT.toNanos();
+        for (Partition partition : partitions) {
+            try {
+                partition.thread.join(Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (Partition partition : partitions) {
+            List<QueuedTransfer> left = new ArrayList<>();
+            partition.queue.drainTo(left);
+            for (QueuedTransfer transfer : left) {
+                failNotPosted(transfer);
+            }
+        }
+    }
+
+    // Queues the transfer and returns right away with its transferID. Accounts are only looked up here,
+    // balances are checked when the transfer is posted
+    public AsyncTransferRecord submit(Account giver, Account receiver, double amount, int clientID) {
+        if (!running) {
+            throw new IllegalStateException("Transfers are not accepted while the application is stopping");
+        }
+        QueuedTransfer transfer = new QueuedTransfer(UUID.randomUUID().toString(), giver.getAccountNumber(), receiver.getAccountNumber(), amount);
+        AsyncTransfer state = new AsyncTransfer(transfer, clientID);
+        transfers.put(transfer.transferID(), state);
+        BlockingQueue<QueuedTransfer> queue = partitions[Math.floorMod(giver.getAccountID(), partitions.length)].queue;
+        if (!queue.offer(transfer)) {
+            transfers.invalidate(transfer.transferID());
+            throw new IllegalStateException("Too many transfers are waiting, please try again later");
+        }
+        // stop() may have drained the queue between the check above and the offer - a transfer still in it
+        // would never be posted or failed
+        if (!running && queue.remove(transfer)) {
+            failNotPosted(transfer);
+        }
+        return state.toRecord();
+    }
+
+    // Current status of a transfer accepted for the client, or null when there is no such transfer
+    public AsyncTransferRecord getStatus(String transferID, int clientID) {
+        AsyncTransfer state = find(transferID, clientID);
+        return state == null ? null : state.toRecord();
+    }
+
+    // Completes with the final status of the transfer, or null when there is no such transfer
+    public CompletableFuture<AsyncTransferRecord> whenDone(String transferID, int clientID) {
+        AsyncTransfer state = find(transferID, clientID);
+        return state == null ? null : state.completion;
+    }
+
+    private AsyncTransfer find(String transferID, int clientID) {
+        AsyncTransfer state = transfers.getIfPresent(transferID);
+        return state == null || state.clientID != clientID ? null : state;
+    }
+
+    // Posts one micro-batch. When the database transaction of the whole batch fails (deadlock, lost
+    // connection, ...) its transfers are posted one by one, so a single bad transfer cannot fail the rest
+    private void post(List<QueuedTransfer> batch) {
+        List<BatchTransferResult> results;
+        try {
+            results = transferService.transferInOrder(batch);
+        } catch (RuntimeException e) {
+            results = new ArrayList<>(batch.size());
+            for (QueuedTransfer transfer : batch) {
+                try {
+                    results.add(transferService.transferInOrder(List.of(transfer)).get(0));
+                } catch (RuntimeException single) {
+                    results.add(new BatchTransferResult(1, transfer.receiverAccountNumber(), transfer.amount(), false, null,
+                            "Transaction could not be completed, please try again"));
+                }
+            }
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), results.get(i));
+        }
+    }
+
+    private void failNotPosted(QueuedTransfer transfer) {
+        complete(transfer, new BatchTransferResult(1, transfer.receiverAccountNumber(), transfer.amount(), false, null,
+                "Transfer has not been posted before the application stopped"));
+    }
+
+    private void complete(QueuedTransfer transfer, BatchTransferResult result) {
+        AsyncTransfer state = transfers.getIfPresent(transfer.transferID());
+        if (state != null) {
+            state.complete(result);
+            // Refreshes the write time, so a final status is kept for the whole retention period
+            transfers.put(transfer.transferID(), state);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.AccountBalanceSnapshot;
+import com.dmt.bankingapp.record.balances.AccountBalance;
+import com.dmt.bankingapp.record.balances.AccountMovement;
+import com.dmt.bankingapp.record.balances.BalanceAsOfRecord;
+import com.dmt.bankingapp.repository.AccountBalanceSnapshotRepository;
+import com.dmt.bankingapp.repository.AccountHistoryRepository;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.utils.Money;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+// Daily balance snapshots and balances of accounts at a point in time
+@Service
+public class BalanceSnapshotService {
+
+    private static final int SNAPSHOT_BATCH_SIZE = 500;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountHistoryRepository accountHistoryRepository;
+
+    @Autowired
+    private AccountBalanceSnapshotRepository accountBalanceSnapshotRepository;
+
+    @Autowired
+    private BankSubBalanceService bankSubBalanceService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Shortly after midnight, snapshot of every account as of the midnight that has just passed
+    @Scheduled(cron = "${bankingapp.snapshot.cron:0 5 0 * * *}")
+    public void takeDailySnapshot() {
+        takeSnapshot(LocalDate.now().atStartOfDay());
+    }
+
+    // Writes the balance of every account at the given moment, unless that moment has a snapshot already.
+    // The balance is the current one minus the movements after the moment - with the job running just
+    // after midnight these are only the few minutes of transfers since. Runs in one transaction so the
+    // balances and the movements read for them are consistent with each other
+    @Transactional
+    public int takeSnapshot(LocalDateTime snapshotAt) {
+        if (accountBalanceSnapshotRepository.existsBySnapshotAt(snapshotAt)) {
+            return 0;
+        }
+        int written = 0;
+        int after = 0;
+        while (true) {
+            List<AccountBalance> balances = accountRepository.findBalancesAfter(after, Limit.of(SNAPSHOT_BATCH_SIZE));
+            if (balances.isEmpty()) {
+                break;
+            }
+            int firstAccountID = balances.get(0).accountID();
+            after = balances.get(balances.size() - 1).accountID();
+
+            Map<Integer, Money> stripes = bankSubBalanceService.stripeTotals(firstAccountID, after);
+            Map<Integer, Money> later = new HashMap<>();
+            for (AccountMovement movement : accountHistoryRepository.findMovementsAfter(firstAccountID, after, snapshotAt)) {
+                later.merge(movement.accountID(), movement.amount(), Money::plus);
+            }
+            List<AccountBalanceSnapshot> snapshots = new ArrayList<>(balances.size());
+            for (AccountBalance balance : balances) {
+                Money balanceAt = balance.balance().plus(stripes.getOrDefault(balance.accountID(), Money.ZERO))
+                        .minus(later.getOrDefault(balance.accountID(), Money.ZERO));
+                snapshots.add(new AccountBalanceSnapshot(balance.accountID(), snapshotAt, balanceAt));
+            }
+            accountBalanceSnapshotRepository.saveAll(snapshots);
+            written += snapshots.size();
+            // Written snapshots are not needed any more - keep the persistence context small
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return written;
+    }
+
+    // Balance of the account after every movement dated at or before the given time. Starts from the
+    // nearest snapshot at or before it and adds the movements since - at most a day of them. A time before
+    // the first snapshot of the account is worked out backwards from the nearest snapshot after it, or
+    // from the current balance when the account has no snapshot yet
+    @Transactional(readOnly = true)
+    public BalanceAsOfRecord balanceAsOf(String accountNumber, LocalDateTime at) {
+        Account account = accountRepository.findByAccountNumber(accountNumber);
+        if (account == null) {
+            throw new NoSuchElementException("Account not found with account number: " + accountNumber);
+        }
+        int accountID = account.getAccountID();
+
+        Optional<AccountBalanceSnapshot> before = accountBalanceSnapshotRepository
+                .findFirstByAccountIDAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(accountID, at);
+        if (before.isPresent()) {
+            AccountBalanceSnapshot snapshot = before.get();
+            List<Money> movements = accountHistoryRepository.findAmountsOfAccountBetween(accountID, snapshot.getSnapshotAt(), at);
+            return new BalanceAsOfRecord(accountNumber, at, snapshot.getBalance().plus(sum(movements)).toDouble(),
+                    snapshot.getSnapshotAt(), movements.size());
+        }
+
+        Optional<AccountBalanceSnapshot> after = accountBalanceSnapshotRepository
+                .findFirstByAccountIDAndSnapshotAtGreaterThanOrderBySnapshotAt(accountID, at);
+        Money balance = after.map(AccountBalanceSnapshot::getBalance).orElseGet(() -> bankSubBalanceService.balanceOf(account));
+        LocalDateTime until = after.map(AccountBalanceSnapshot::getSnapshotAt).orElse(LocalDateTime.now());
+        List<Money> movements = accountHistoryRepository.findAmountsOfAccountBetween(accountID, at, until);
+        return new BalanceAsOfRecord(accountNumber, at, balance.minus(sum(movements)).toDouble(),
+                after.map(AccountBalanceSnapshot::getSnapshotAt).orElse(null), movements.size());
+    }
+
+    private static Money sum(List<Money> amounts) {
+        Money total = Money.ZERO;
+        for (Money amount : amounts) {
+            total = total.plus(amount);
+        }
+        return total;
+    }
+}
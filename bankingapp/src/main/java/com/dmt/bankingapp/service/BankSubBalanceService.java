@@ -0,0 +1,189 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.BankSubBalance;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.event.TransactionPostedEvent;
+import com.dmt.bankingapp.record.balances.AccountBalance;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.BankSubBalanceRepository;
+import com.dmt.bankingapp.utils.Money;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Balances of striped bank accounts (BANK_LOAN, BANK_DEPOSIT). Every loan and deposit moves money to or
+// from one of them, so instead of their account row each transfer changes one of several sub-balance
+// rows, picked by the counterparty account. Reads add the stripes to accountBalance, and a scheduled job
+// moves the stripes into accountBalance so they do not grow forever
+@Service
+public class BankSubBalanceService {
+
+    public static final int DEFAULT_STRIPES = 8;
+
+    // Key of the running balances of striped accounts bound to the current database transaction
+    private static final Object RUNNING_BALANCES = new Object();
+
+    @Autowired
+    private BankSubBalanceRepository bankSubBalanceRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Runs before the other listeners of the event, so the history already gets the new balance
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        Transaction transaction = event.transaction();
+        Account giver = transaction.getGiver();
+        Account receiver = transaction.getReceiver();
+        if (giver.isStriped()) {
+            add(transaction, giver, receiver, transaction.getAmountAsMoney().negate());
+        }
+        if (receiver.isStriped()) {
+            add(transaction, receiver, giver, transaction.getAmountAsMoney());
+        }
+    }
+
+    private void add(Transaction transaction, Account account, Account counterparty, Money amount) {
+        Money balanceBefore = runningBalance(account);
+        int stripe = stripeOf(account, counterparty);
+        BankSubBalance subBalance = bankSubBalanceRepository.lockStripe(account.getAccountID(), stripe);
+        if (subBalance == null) {
+            throw new IllegalStateException("Sub-balance " + stripe + " of account " + account.getAccountNumber() + " does not exist!");
+        }
+        // Same as TransferService.lock - the row may be in the session with a value read before the lock
+        entityManager.refresh(subBalance);
+        subBalance.add(amount);
+        entityManager.flush();
+        Money balanceAfter = balanceBefore.plus(amount);
+        setRunningBalance(account, balanceAfter);
+        transaction.setStripedBalanceAfter(account, balanceAfter);
+    }
+
+    // Balance of the account before the current amount. Reading it after the stripe is locked would mix
+    // two states: the locked stripe is read as it is now, the account row and the other stripes from the
+    // snapshot of the transaction, and a consolidation committed in between is then counted in neither.
+    // Locking the other stripes as well would deadlock transfers writing to the same account, so the
+    // balance is read once per database transaction, before any of its stripes is locked - one snapshot,
+    // in which a consolidation is either complete or absent - and moved by every amount added after that
+    private Money runningBalance(Account account) {
+        Map<Integer, Money> balances = runningBalances();
+        if (balances == null) {
+            return balanceOf(account);
+        }
+        return balances.computeIfAbsent(account.getAccountID(), accountID -> balanceOf(account));
+    }
+
+    private void setRunningBalance(Account account, Money balance) {
+        Map<Integer, Money> balances = runningBalances();
+        if (balances != null) {
+            balances.put(account.getAccountID(), balance);
+        }
+    }
+
+    // Running balances of the current database transaction, dropped when it completes - null outside of one
+    @SuppressWarnings("unchecked")
+    private Map<Integer, Money> runningBalances() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Map<Integer, Money> balances = (Map<Integer, Money>) TransactionSynchronizationManager.getResource(RUNNING_BALANCES);
+        if (balances == null) {
+            balances = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(RUNNING_BALANCES, balances);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RUNNING_BALANCES);
+                }
+            });
+        }
+        return balances;
+    }
+
+    // Transfers of one counterparty always use the same stripe, different counterparties spread evenly
+    public static int stripeOf(Account account, Account counterparty) {
+        return Math.floorMod(counterparty.getAccountID(), account.getSubBalanceStripes());
+    }
+
+    // Balance of any account - for a striped one its accountBalance plus all of its stripes, as committed
+    // (or written by the current transaction)
+    @Transactional(readOnly = true)
+    public Money balanceOf(Account account) {
+        if (!account.isStriped()) {
+            return account.getAccountBalanceAsMoney();
+        }
+        List<AccountBalance> stored = accountRepository.findBalancesBetween(account.getAccountID(), account.getAccountID());
+        Money balance = stored.isEmpty() ? Money.ZERO : stored.get(0).balance();
+        for (Money stripe : bankSubBalanceRepository.findBalancesOfAccount(account.getAccountID())) {
+            balance = balance.plus(stripe);
+        }
+        return balance;
+    }
+
+    // Sum of the stripes of every striped account in a range of accountIDs, to be added to accountBalance
+    public Map<Integer, Money> stripeTotals(int firstAccountID, int lastAccountID) {
+        Map<Integer, Money> totals = new HashMap<>();
+        for (BankSubBalance subBalance : bankSubBalanceRepository.findByAccountIDBetween(firstAccountID, lastAccountID)) {
+            totals.merge(subBalance.getAccountID(), subBalance.getBalance(), Money::plus);
+        }
+        return totals;
+    }
+
+    // Creates the stripes of striped accounts that do not have all of them yet - new databases and accounts
+    // whose number of stripes has been raised
+    @Transactional
+    public void createMissingStripes() {
+        for (Account account : accountRepository.findBySubBalanceStripesGreaterThan(0)) {
+            Set<Integer> existing = new HashSet<>();
+            for (BankSubBalance subBalance : bankSubBalanceRepository.findByAccountIDOrderByStripe(account.getAccountID())) {
+                existing.add(subBalance.getStripe());
+            }
+            for (int stripe = 0; stripe < account.getSubBalanceStripes(); stripe++) {
+                if (!existing.contains(stripe)) {
+                    bankSubBalanceRepository.save(new BankSubBalance(account.getAccountID(), stripe));
+                }
+            }
+        }
+    }
+
+    // Moves the stripes of every striped account into its accountBalance. Transfers never lock the row of a
+    // striped account, so they only wait for their stripe during the short moment of the move
+    @Scheduled(fixedDelayString = "${bankingapp.stripes.consolidation-delay:600000}")
+    @Transactional
+    public int consolidate() {
+        int consolidated = 0;
+        for (Account striped : accountRepository.findBySubBalanceStripesGreaterThan(0)) {
+            Account account = accountRepository.lockByAccountID(striped.getAccountID());
+            entityManager.refresh(account);
+            Money total = Money.ZERO;
+            for (BankSubBalance subBalance : bankSubBalanceRepository.lockStripesOfAccount(account.getAccountID())) {
+                entityManager.refresh(subBalance);
+                total = total.plus(subBalance.takeBalance());
+            }
+            account.setAccountBalance(total, false);
+            consolidated++;
+        }
+        return consolidated;
+    }
+}
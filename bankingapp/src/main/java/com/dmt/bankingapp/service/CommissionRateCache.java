@@ -0,0 +1,46 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Commission;
+import com.dmt.bankingapp.repository.CommissionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Current rates of Commission rows, keyed by commissionOf, for reads that don't need to be exact to the
+// millisecond - quotes. CommissionController evicts a rate as soon as it is changed, the time limit only bounds
+// the staleness of a load that raced with a change. Launching a loan still reads the rates from the database
+@Service
+public class CommissionRateCache {
+
+    public static final Duration TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    @Autowired
+    private CommissionRepository commissionRepository;
+
+    private final Cache<String, Double> rates = Caffeine.newBuilder()
+            .expireAfterWrite(TIME_TO_LIVE)
+            .build();
+
+    // Rates in percent of the commissions found - missing ones are left out of the map and not cached
+    public Map<String, Double> getRates(Collection<String> commissionsOf) {
+        return rates.getAll(commissionsOf, missing -> {
+            Map<String, Double> loaded = new HashMap<>();
+            for (Commission commission : commissionRepository.findByCommissionOfIn(Set.copyOf(missing))) {
+                loaded.put(commission.getCommissionOf(), commission.getCommissionRateInPercent());
+            }
+            return loaded;
+        });
+    }
+
+    public void evict(String commissionOf) {
+        rates.invalidate(commissionOf);
+    }
+}
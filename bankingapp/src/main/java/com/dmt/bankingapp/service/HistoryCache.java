@@ -0,0 +1,115 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.event.TransactionPostedEvent;
+import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.record.HistoryCacheStats;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory cache of the history of each client, keyed by clientID. Entries are dropped as soon as a
+// transaction of one of the client's accounts is committed, the time limit only bounds the staleness of an
+// entry that raced with a commit. Memory is bounded by the number of history records held, not entries -
+// histories longer than MAX_CACHED_RECORDS are not cached at all, so a few clients with years of
+// transactions cannot push everyone else out
+@Service
+public class HistoryCache {
+
+    public static final long MAXIMUM_RECORDS = 500000;
+    public static final int MAX_CACHED_RECORDS = 5000;
+    public static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    // Clients share a fixed number of generation counters - two clients on the same one only cost each
+    // other a skipped put now and then, and the memory used does not grow with the number of clients
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Integer, List<History>> cache = Caffeine.newBuilder()
+            .maximumWeight(MAXIMUM_RECORDS)
+            .weigher((Integer clientID, List<History> history) -> history.size() + 1)
+            .expireAfterWrite(TIME_TO_LIVE)
+            .recordStats()
+            .build();
+
+    private final long[] generations = new long[GENERATION_STRIPES];
+    private final Object[] generationLocks = new Object[GENERATION_STRIPES];
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public HistoryCache() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generationLocks[i] = new Object();
+        }
+    }
+
+    // Returns the cached history of the client, or null if it has to be loaded
+    public List<History> get(int clientID) {
+        return cache.getIfPresent(clientID);
+    }
+
+    // Read before loading the history - put() drops the loaded history when the client's transactions
+    // have been evicted since, as it may have been read before the commit that evicted them
+    public long generation(int clientID) {
+        int stripe = stripeOf(clientID);
+        synchronized (generationLocks[stripe]) {
+            return generations[stripe];
+        }
+    }
+
+    public void put(int clientID, long generation, List<History> history) {
+        if (history.size() > MAX_CACHED_RECORDS) {
+            return;
+        }
+        List<History> copy = List.copyOf(history);
+        int stripe = stripeOf(clientID);
+        synchronized (generationLocks[stripe]) {
+            if (generations[stripe] == generation) {
+                cache.put(clientID, copy);
+            }
+        }
+    }
+
+    public void evict(int clientID) {
+        int stripe = stripeOf(clientID);
+        synchronized (generationLocks[stripe]) {
+            generations[stripe]++;
+            cache.invalidate(clientID);
+        }
+        invalidationCount.incrementAndGet();
+    }
+
+    private static int stripeOf(int clientID) {
+        return Math.floorMod(clientID, GENERATION_STRIPES);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    // Runs after the transaction that saved the transfer commits, so the next read already sees it.
+    // Saves made outside of a transaction evict right away
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        evictClient(event.giverClient());
+        evictClient(event.receiverClient());
+    }
+
+    private void evictClient(Client client) {
+        if (client != null) {
+            evict(client.getClientID());
+        }
+    }
+
+    public HistoryCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        return new HistoryCacheStats(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount(), invalidationCount.get());
+    }
+}
@@ -0,0 +1,105 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.repository.AccountHistoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class HistoryExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    public static final String CSV_HEADER = "transactionID,dateOfTransaction,typeOf,contributorName,contributorAccountNumber,amount,balanceAfter";
+
+    @Autowired
+    private AccountHistoryRepository accountHistoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Writes the whole history of the client to the stream, one record at a time, in the same order and
+    // with the same records as /history/checking. Rows come from a database cursor and are written out as
+    // soon as they are read, so memory use does not depend on the length of the history
+    @Transactional(readOnly = true)
+    public void export(Client client, Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try (Stream<History> records = accountHistoryRepository.streamHistoryOfClient(client)) {
+            Iterator<History> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                History history = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsvLine(writer, history);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(history));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsvLine(Writer writer, History history) throws IOException {
+        writer.write(String.valueOf(history.transactionID()));
+        writer.write(',');
+        writer.write(String.valueOf(history.dateOfTransaction()));
+        writer.write(',');
+        writer.write(escapeCsv(history.typeOf().trim()));
+        writer.write(',');
+        writer.write(escapeCsv(history.contributorName()));
+        writer.write(',');
+        writer.write(escapeCsv(history.contributorAccountNumber()));
+        writer.write(',');
+        writer.write(escapeCsv(history.amount()));
+        writer.write(',');
+        writer.write(escapeCsv(history.balanceAfter()));
+        writer.write('\n');
+    }
+
+    // Quotes values containing separators, quotes or line breaks, doubling the quotes inside
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,75 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.record.balances.AccountBalance;
+import com.dmt.bankingapp.record.ledger.LedgerBalance;
+import com.dmt.bankingapp.record.ledger.LedgerMismatch;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.LedgerEntryRepository;
+import com.dmt.bankingapp.utils.Money;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Recomputes the balances of one range of accounts from the ledger in one database transaction, so the
+// cached balances and the entries are read from the same state of the database
+@Service
+public class LedgerChunkReconciler {
+
+    public record ChunkResult(int accountsChecked, int entriesRead, List<LedgerMismatch> mismatches) {
+    }
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BankSubBalanceService bankSubBalanceService;
+
+    @Transactional
+    public ChunkResult reconcileChunk(int firstAccountID, int lastAccountID, boolean repair) {
+        // One row per account - the entries are summed by the database
+        Map<Integer, Money> ledgerBalances = new HashMap<>();
+        int entriesRead = 0;
+        for (LedgerBalance ledgerBalance : ledgerEntryRepository.sumBalancesOfAccounts(firstAccountID, lastAccountID)) {
+            ledgerBalances.put(ledgerBalance.getAccountID(), Money.of(ledgerBalance.getBalance()));
+            entriesRead += (int) ledgerBalance.getEntryCount();
+        }
+
+        // Striped bank accounts hold part of their balance in sub-balance rows
+        Map<Integer, Money> stripeTotals = bankSubBalanceService.stripeTotals(firstAccountID, lastAccountID);
+        List<AccountBalance> balances = accountRepository.findBalancesBetween(firstAccountID, lastAccountID);
+        List<Integer> mismatchedIDs = new ArrayList<>();
+        Map<Integer, Money[]> differences = new HashMap<>();
+        for (AccountBalance balance : balances) {
+            Money stripes = stripeTotals.getOrDefault(balance.accountID(), Money.ZERO);
+            Money cachedBalance = balance.balance().plus(stripes);
+            Money ledgerBalance = ledgerBalances.getOrDefault(balance.accountID(), Money.ZERO);
+            if (!ledgerBalance.equals(cachedBalance)) {
+                mismatchedIDs.add(balance.accountID());
+                differences.put(balance.accountID(), new Money[] { cachedBalance, ledgerBalance, stripes });
+            }
+        }
+
+        List<LedgerMismatch> mismatches = new ArrayList<>(mismatchedIDs.size());
+        if (!mismatchedIDs.isEmpty()) {
+            for (Account account : accountRepository.findAllById(mismatchedIDs)) {
+                Money[] difference = differences.get(account.getAccountID());
+                mismatches.add(new LedgerMismatch(account.getAccountID(), account.getAccountNumber(),
+                        difference[0].toDouble(), difference[1].toDouble()));
+                if (repair) {
+                    accountRepository.updateBalance(account.getAccountID(), difference[1].minus(difference[2]));
+                }
+            }
+        }
+        return new ChunkResult(balances.size(), entriesRead, mismatches);
+    }
+}
@@ -0,0 +1,163 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.LedgerEntry;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.event.TransactionPostedEvent;
+import com.dmt.bankingapp.record.balances.AccountBalance;
+import com.dmt.bankingapp.record.ledger.LedgerMismatch;
+import com.dmt.bankingapp.record.ledger.LedgerPosting;
+import com.dmt.bankingapp.record.ledger.ReconciliationRecord;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.LedgerEntryRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.utils.Money;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Writes the ledger entries of every transaction and checks the cached balances of the accounts against it
+@Service
+public class LedgerService {
+
+    public static final int CHUNK_SIZE = 500;
+    public static final int THREADS = 4;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerChunkReconciler ledgerChunkReconciler;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Debit of the giver and credit of the receiver, in the transaction that posts the transfer
+    @EventListener
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        Transaction transaction = event.transaction();
+        ledgerEntryRepository.saveAll(List.of(
+                new LedgerEntry(transaction.getTransactionID(), transaction.getGiver().getAccountID(), LedgerEntry.Side.DEBIT,
+                        transaction.getAmountAsMoney(), transaction.getTimestamp()),
+                new LedgerEntry(transaction.getTransactionID(), transaction.getReceiver().getAccountID(), LedgerEntry.Side.CREDIT,
+                        transaction.getAmountAsMoney(), transaction.getTimestamp())));
+    }
+
+    // Fills the ledger of a database that has accounts from before it was introduced - the entries of every
+    // transaction, oldest first, and an opening entry for each account whose balance is not explained by
+    // its transactions (money the bank accounts were created with)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (ledgerEntryRepository.count() > 0) {
+            return;
+        }
+        Map<Integer, Money> net = new HashMap<>();
+        int written = 0;
+        try (Stream<LedgerPosting> postings = transactionRepository.streamAllForLedger()) {
+            Iterator<LedgerPosting> iterator = postings.iterator();
+            while (iterator.hasNext()) {
+                LedgerPosting posting = iterator.next();
+                entityManager.persist(new LedgerEntry(posting.transactionID(), posting.giverAccountID(), LedgerEntry.Side.DEBIT,
+                        posting.amount(), posting.dateOfTransaction()));
+                entityManager.persist(new LedgerEntry(posting.transactionID(), posting.receiverAccountID(), LedgerEntry.Side.CREDIT,
+                        posting.amount(), posting.dateOfTransaction()));
+                net.merge(posting.giverAccountID(), posting.amount().negate(), Money::plus);
+                net.merge(posting.receiverAccountID(), posting.amount(), Money::plus);
+                written += 2;
+                if (written % CHUNK_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+
+        LocalDateTime openedAt = LocalDateTime.now();
+        int after = 0;
+        while (true) {
+            List<AccountBalance> balances = accountRepository.findBalancesAfter(after, Limit.of(CHUNK_SIZE));
+            if (balances.isEmpty()) {
+                break;
+            }
+            after = balances.get(balances.size() - 1).accountID();
+            for (AccountBalance balance : balances) {
+                Money opening = balance.balance().minus(net.getOrDefault(balance.accountID(), Money.ZERO));
+                if (!opening.isZero()) {
+                    LedgerEntry.Side side = opening.isNegative() ? LedgerEntry.Side.DEBIT : LedgerEntry.Side.CREDIT;
+                    Money amount = opening.isNegative() ? opening.negate() : opening;
+                    entityManager.persist(new LedgerEntry(null, balance.accountID(), side, amount, openedAt));
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    // Recomputes every balance from the ledger and compares it with the cached one. Accounts are split into
+    // ranges of consecutive ids, each range is summed in its own transaction and the ranges run in parallel.
+    // With repair the cached balances that differ are overwritten - meant for repairs while no transfers
+    // are posted
+    public ReconciliationRecord reconcile(boolean repair) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(THREADS * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            Deque<Future<LedgerChunkReconciler.ChunkResult>> pending = new ArrayDeque<>();
+            int after = 0;
+            while (true) {
+                List<Integer> accountIDs = accountRepository.findAccountIDsAfter(after, Limit.of(CHUNK_SIZE));
+                if (accountIDs.isEmpty()) {
+                    break;
+                }
+                int firstAccountID = accountIDs.get(0);
+                int lastAccountID = accountIDs.get(accountIDs.size() - 1);
+                pending.add(executor.submit(() -> ledgerChunkReconciler.reconcileChunk(firstAccountID, lastAccountID, repair)));
+                after = lastAccountID;
+            }
+
+            int accountsChecked = 0;
+            int entriesRead = 0;
+            List<LedgerMismatch> mismatches = new ArrayList<>();
+            for (Future<LedgerChunkReconciler.ChunkResult> future : pending) {
+                LedgerChunkReconciler.ChunkResult result = future.get();
+                accountsChecked += result.accountsChecked();
+                entriesRead += result.entriesRead();
+                mismatches.addAll(result.mismatches());
+            }
+            mismatches.sort(Comparator.comparing(LedgerMismatch::accountID));
+            return new ReconciliationRecord(accountsChecked, entriesRead, mismatches, repair);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Balances could not be reconciled: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation has been interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Commission;
+import com.dmt.bankingapp.entity.Loan;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.CommissionRepository;
+import com.dmt.bankingapp.repository.LoanRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.utils.AmortizationEngine;
+import com.dmt.bankingapp.utils.Money;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// Launches a loan in one database transaction: the loan account, the three transfers, the loan and its
+// installment schedule are committed together or not at all. Installments and transactions take their
+// ids from pooled sequences, so the schedule goes out in JDBC batches whatever the loan duration
+@Service
+public class LoanOriginationService {
+
+    public static final String LOAN_COMMISSION = "LOAN_COMMISSION";
+    public static final String LOAN_INTEREST = "LOAN_INTEREST";
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CommissionRepository commissionRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountLookupService accountLookupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Throws NoSuchElementException when the client has no checking account or the bank account or a rate
+    // is missing, IllegalStateException when a transfer is refused - nothing is written in either case.
+    // Runs its own transaction, launched again when the number of the loan account turns out to be taken
+    public Loan originate(Client client, double principalAmount, int loanDuration, AmortizationEngine.ScheduleKind scheduleKind) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return accountService.retryOnTakenAccountNumber(() ->
+                transaction.execute(status -> launch(client, principalAmount, loanDuration, scheduleKind)));
+    }
+
+    private Loan launch(Client client, double principalAmount, int loanDuration, AmortizationEngine.ScheduleKind scheduleKind) {
+        // The rollback of a failed attempt clears the persistence context the client was read into
+        if (!entityManager.contains(client)) {
+            client = entityManager.find(Client.class, client.getClientID());
+        }
+        if (client.getCheckingAccount() == null) {
+            throw new NoSuchElementException("Checking account has not been found");
+        }
+        // Same as TransferService.lock - the disbursement must not overwrite a transfer posted concurrently
+        // from or to the checking account, and the account may be in the persistence context with an old balance
+        Account checkingAccount = accountRepository.lockByAccountID(client.getCheckingAccount().getAccountID());
+        if (checkingAccount == null) {
+            throw new NoSuchElementException("Checking account has not been found");
+        }
+        entityManager.refresh(checkingAccount);
+        Account bankAccount = accountLookupService.findByAccountNumber("BANK_LOAN");
+        if (bankAccount == null) {
+            throw new NoSuchElementException("Bank account has not been found");
+        }
+        if (loanDuration <= 0) {
+            throw new IllegalStateException("Loan duration has to be at least 1 month!");
+        }
+
+        // Both live rates with one query
+        Map<String, Double> rates = new HashMap<>();
+        for (Commission commission : commissionRepository.findByCommissionOfIn(List.of(LOAN_COMMISSION, LOAN_INTEREST))) {
+            rates.put(commission.getCommissionOf(), commission.getCommissionRateInPercent());
+        }
+        if (!rates.containsKey(LOAN_COMMISSION) || !rates.containsKey(LOAN_INTEREST)) {
+            throw new NoSuchElementException("Loan rates have not been found");
+        }
+        double commisionRate = rates.get(LOAN_COMMISSION);
+        double interestRate = rates.get(LOAN_INTEREST);
+
+        // The new account is used directly - no lookup of the latest account, which could be another one
+        // created at the same time
+        Account loanAccount = accountRepository.save(new Account(accountService.generateFreeAccountNumber(), Account.AccountType.LOAN, client));
+
+        Loan loan = new Loan(loanAccount, checkingAccount, principalAmount, interestRate, commisionRate, loanDuration, bankAccount);
+        // Same arithmetic as /loan/quote
+        AmortizationEngine.Quote quote = AmortizationEngine.quote(scheduleKind, principalAmount, interestRate, commisionRate, loanDuration);
+        double intrestForBank = Money.ofGrosze(quote.interestGrosze()).toDouble();
+        double commisionForBank = Money.ofGrosze(quote.commissionGrosze()).toDouble();
+        loan.setDateOfLoan(LocalDateTime.now());
+        loan.setScheduleKind(scheduleKind);
+
+        // Principal to the client, interest and commission to the bank
+        transactionRepository.saveAll(List.of(
+                new Transaction(loanAccount, checkingAccount, principalAmount, Transaction.TransactionType.LOAN_DISBURSEMENT),
+                new Transaction(loanAccount, bankAccount, intrestForBank, Transaction.TransactionType.LOAN_INTEREST),
+                new Transaction(loanAccount, bankAccount, commisionForBank, Transaction.TransactionType.LOAN_COMMISSION)));
+
+        Money totalLoanAmount = Money.ofGrosze(quote.totalGrosze());
+        loan.setTotalLoanAmout(totalLoanAmount.toDouble());
+        loan.setLeftToPay(totalLoanAmount);
+        loan.generateInstallments();
+        loan.setIsActive(true);
+
+        // Cascades to the installments, inserted together when the transaction commits
+        loanRepository.save(loan);
+        loanAccount.setLoan(loan);
+        return loan;
+    }
+}
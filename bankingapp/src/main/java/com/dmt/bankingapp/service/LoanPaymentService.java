@@ -0,0 +1,109 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Installment;
+import com.dmt.bankingapp.entity.Loan;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.entity.Transaction.InstallmentPayment;
+import com.dmt.bankingapp.event.TransactionPostedEvent;
+import com.dmt.bankingapp.repository.InstallmentRepository;
+import com.dmt.bankingapp.utils.Money;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Loads the installments a payment to a loan account will reach before the transaction is posted, so
+// Transaction.processLoanPayments works on the unpaid tail of the schedule instead of the whole of it, and
+// writes what the payment allocated to them with one UPDATE once the transaction is saved
+@Service
+public class LoanPaymentService {
+
+    // A year of installments per query
+    public static final int PAGE_SIZE = 12;
+
+    // Installments per UPDATE - three parameters each, far below the limits of the databases
+    public static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    @Autowired
+    private InstallmentRepository installmentRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Has to run in the transaction posting the payment, after the loan account is locked. Loads unpaid
+    // installments in pages until they add up to more than the amount, so the installment the payment stops
+    // at - the next unpaid one - is loaded too. Does nothing for other accounts
+    public void loadInstallmentsReachedBy(Account receiver, double amount) {
+        Loan loan = receiver.getAccountType() == Account.AccountType.LOAN ? receiver.getLoan() : null;
+        if (loan == null || !loan.getIsActive()) {
+            return;
+        }
+        Money amountLeft = Money.of(amount);
+        List<Installment> unpaidInstallments = new ArrayList<>();
+        // Every installment is due at least a month after the loan was launched
+        LocalDateTime after = loan.getDateOfLoan();
+        while (!amountLeft.isNegative()) {
+            List<Installment> page = installmentRepository.findUnpaidOfLoanDueAfter(loan, after, Limit.of(PAGE_SIZE));
+            for (Installment installment : page) {
+                unpaidInstallments.add(installment);
+                amountLeft = amountLeft.minus(installment.getDueAmount());
+                if (amountLeft.isNegative()) {
+                    break;
+                }
+            }
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            after = page.get(page.size() - 1).getDueDate();
+        }
+        loan.setUnpaidInstallments(unpaidInstallments);
+    }
+
+    // Runs in the transaction saving the payment. The loan row (leftToPay, isActive, next unpaid installment)
+    // is written by the flush of the same transaction. The installments are changed only after their rows
+    // have been written
+    @EventListener
+    public void onTransactionPosted(TransactionPostedEvent event) {
+        Transaction transaction = event.transaction();
+        List<InstallmentPayment> payments = transaction.getInstallmentPayments();
+        for (int from = 0; from < payments.size(); from += MAX_ROWS_PER_STATEMENT) {
+            writePaidAmounts(payments.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, payments.size())));
+        }
+        transaction.applyInstallmentPayments();
+    }
+
+    // UPDATE ... SET paid_amount = CASE installment_id WHEN ... END, is_paid = CASE ... END WHERE installment_id IN (...)
+    // Only pending inserts of installments are flushed before it - a new loan paid in the same transaction
+    private void writePaidAmounts(List<InstallmentPayment> payments) {
+        StringBuilder paidAmounts = new StringBuilder();
+        StringBuilder paidFlags = new StringBuilder();
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < payments.size(); i++) {
+            int id = 3 * i + 1;
+            paidAmounts.append(" WHEN ?").append(id).append(" THEN ?").append(id + 1);
+            paidFlags.append(" WHEN ?").append(id).append(" THEN ?").append(id + 2);
+            ids.append(i == 0 ? "?" : ", ?").append(id);
+        }
+        Query update = entityManager.createNativeQuery("UPDATE installment SET paid_amount = CASE installment_id" + paidAmounts
+                + " END, is_paid = CASE installment_id" + paidFlags + " END WHERE installment_id IN (" + ids + ")");
+        for (int i = 0; i < payments.size(); i++) {
+            InstallmentPayment payment = payments.get(i);
+            update.setParameter(3 * i + 1, payment.installment().getInstallmentID());
+            update.setParameter(3 * i + 2, payment.paidAmount().toBigDecimal());
+            update.setParameter(3 * i + 3, payment.isPaid());
+        }
+        update.unwrap(NativeQuery.class).addSynchronizedEntityClass(Installment.class);
+        update.executeUpdate();
+    }
+}
@@ -0,0 +1,89 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.StandingOrder;
+import com.dmt.bankingapp.entity.StandingOrderExecution;
+import com.dmt.bankingapp.record.transactions.BatchTransferResult;
+import com.dmt.bankingapp.record.transactions.QueuedTransfer;
+import com.dmt.bankingapp.repository.StandingOrderExecutionRepository;
+import com.dmt.bankingapp.repository.StandingOrderRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// One batch of due standing orders in its own database transaction, called by StandingOrderService.
+// The claimed order rows stay locked until the batch commits together with its transactions, so an
+// order is never executed twice for the same run, even by several app nodes
+@Component
+public class StandingOrderBatchExecutor {
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private StandingOrderExecutionRepository standingOrderExecutionRepository;
+
+    @Autowired
+    private TransferService transferService;
+
+    // Returns the number of orders claimed - fewer than batchSize means nothing else is due right now
+    @Transactional
+    public int executeBatch(LocalDateTime now, int batchSize) {
+        List<StandingOrder> orders = standingOrderRepository.claimDue(now, Limit.of(batchSize));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        execute(orders, now);
+        return orders.size();
+    }
+
+    // Same as executeBatch for a single order, returns 0 when it is not due any more
+    @Transactional
+    public int executeOrder(int standingOrderID, LocalDateTime now) {
+        StandingOrder order = standingOrderRepository.claimDueByID(standingOrderID, now);
+        if (order == null) {
+            return 0;
+        }
+        execute(List.of(order), now);
+        return 1;
+    }
+
+    // Records a failed run of an order whose transaction could not be committed at all, so the order moves
+    // on to its next run instead of being claimed again and again
+    @Transactional
+    public int recordFailure(int standingOrderID, LocalDateTime now, String message) {
+        StandingOrder order = standingOrderRepository.claimDueByID(standingOrderID, now);
+        if (order == null) {
+            return 0;
+        }
+        order.recordRun(now, false, message);
+        standingOrderExecutionRepository.save(new StandingOrderExecution(order.getStandingOrderID(), now, order.getAmount(), false, null, message));
+        return 1;
+    }
+
+    private void execute(List<StandingOrder> orders, LocalDateTime now) {
+        // Posted like queued transfers - all accounts of the batch are locked with one query and every
+        // transfer is validated by Transaction, a failed one does not stop the rest
+        List<QueuedTransfer> transfers = new ArrayList<>();
+        for (StandingOrder order : orders) {
+            transfers.add(new QueuedTransfer("standing-order-" + order.getStandingOrderID(), order.getGiver().getAccountNumber(),
+                    order.getReceiver().getAccountNumber(), order.getAmount().toDouble()));
+        }
+        List<BatchTransferResult> results = transferService.transferInOrder(transfers);
+
+        List<StandingOrderExecution> executions = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            StandingOrder order = orders.get(i);
+            BatchTransferResult result = results.get(i);
+            order.recordRun(now, result.success(), result.message());
+            executions.add(new StandingOrderExecution(order.getStandingOrderID(), now, order.getAmount(),
+                    result.success(), result.transactionID(), result.message()));
+        }
+        standingOrderExecutionRepository.saveAll(executions);
+    }
+}
@@ -0,0 +1,104 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.StandingOrder;
+import com.dmt.bankingapp.record.standingOrders.StandingOrderExecutionRecord;
+import com.dmt.bankingapp.record.standingOrders.StandingOrderRecord;
+import com.dmt.bankingapp.repository.StandingOrderExecutionRepository;
+import com.dmt.bankingapp.repository.StandingOrderRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Standing orders of clients and the job executing the due ones. Every node of the application runs the
+// job, batches are claimed with SKIP LOCKED so the nodes share the due orders instead of competing for them
+@Service
+public class StandingOrderService {
+
+    public static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    @Autowired
+    private StandingOrderExecutionRepository standingOrderExecutionRepository;
+
+    @Autowired
+    private StandingOrderBatchExecutor standingOrderBatchExecutor;
+
+    @Transactional
+    public StandingOrderRecord create(Account giver, Account receiver, double amount, StandingOrder.Frequency frequency, LocalDate startDate) {
+        StandingOrder order = standingOrderRepository.saveAndFlush(new StandingOrder(giver, receiver, amount, frequency, startDate));
+        order.scheduleNextRun();
+        return new StandingOrderRecord(order);
+    }
+
+    @Transactional(readOnly = true)
+    public List<StandingOrderRecord> getOrdersOfClient(Client client) {
+        return standingOrderRepository.findByClientOrderByStandingOrderID(client).stream().map(StandingOrderRecord::new).toList();
+    }
+
+    // Throws NoSuchElementException for an order that does not exist or belongs to another client
+    @Transactional
+    public StandingOrderRecord cancel(int standingOrderID, Client client) {
+        StandingOrder order = findOrderOfClient(standingOrderID, client);
+        order.cancel();
+        return new StandingOrderRecord(order);
+    }
+
+    @Transactional(readOnly = true)
+    public List<StandingOrderExecutionRecord> getExecutions(int standingOrderID, Client client) {
+        findOrderOfClient(standingOrderID, client);
+        return standingOrderExecutionRepository.findByStandingOrderIDOrderByStandingOrderExecutionIDDesc(standingOrderID)
+                .stream().map(StandingOrderExecutionRecord::new).toList();
+    }
+
+    private StandingOrder findOrderOfClient(int standingOrderID, Client client) {
+        return standingOrderRepository.findById(standingOrderID)
+                .filter(order -> order.getClient().equals(client))
+                .orElseThrow(() -> new NoSuchElementException("Standing order has not been found"));
+    }
+
+    // Executes due orders one batch (and one database transaction) at a time until none is left. Orders
+    // are spread over the first hours of their day (StandingOrder.EXECUTION_WINDOW_MINUTES), so even on the
+    // 1st of the month each run only finds the orders that became due since the previous one
+    @Scheduled(fixedDelayString = "${bankingapp.standing-orders.delay:60000}")
+    public int executeDueOrders() {
+        LocalDateTime now = LocalDateTime.now();
+        int executed = 0;
+        int claimed;
+        do {
+            try {
+                claimed = standingOrderBatchExecutor.executeBatch(now, BATCH_SIZE);
+            } catch (RuntimeException e) {
+                claimed = executeOneByOne(now, BATCH_SIZE);
+            }
+            executed += claimed;
+        } while (claimed == BATCH_SIZE);
+        return executed;
+    }
+
+    // When the database transaction of a whole batch fails (deadlock, lost connection, ...) nothing of it is
+    // written, so the same orders would be claimed again on every run. They are executed one by one instead,
+    // like the transfers of AsyncTransferService, and an order that still fails gets a failed run recorded
+    private int executeOneByOne(LocalDateTime now, int batchSize) {
+        int executed = 0;
+        for (Integer standingOrderID : standingOrderRepository.findDueIDs(now, Limit.of(batchSize))) {
+            try {
+                executed += standingOrderBatchExecutor.executeOrder(standingOrderID, now);
+            } catch (RuntimeException e) {
+                executed += standingOrderBatchExecutor.recordFailure(standingOrderID, now, "Transaction could not be completed, please try again");
+            }
+        }
+        return executed;
+    }
+}
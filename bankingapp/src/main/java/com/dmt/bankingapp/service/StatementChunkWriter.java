@@ -0,0 +1,97 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.AccountStatement;
+import com.dmt.bankingapp.record.balances.AccountMovement;
+import com.dmt.bankingapp.record.statements.StatementAccount;
+import com.dmt.bankingapp.record.statements.StatementLine;
+import com.dmt.bankingapp.repository.AccountHistoryRepository;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.AccountStatementRepository;
+import com.dmt.bankingapp.utils.Money;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes the statements of one chunk of clients in one database transaction
+@Service
+public class StatementChunkWriter {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountHistoryRepository accountHistoryRepository;
+
+    @Autowired
+    private AccountStatementRepository accountStatementRepository;
+
+    @Autowired
+    private BankSubBalanceService bankSubBalanceService;
+
+    // A few queries for the whole chunk - the accounts of its clients, their movements in the month and the
+    // last movement of each before the month, all read from the account history. The opening balance is the
+    // balance after that last movement, or before the first movement in the month for accounts without
+    // earlier ones. An account with no movement before the end of the month has had the same balance since
+    // it was opened: its current one, stripes included, less the movements after the month
+    @Transactional
+    public int writeChunk(LocalDate month, int firstClientID, int lastClientID) {
+        LocalDateTime from = month.atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atStartOfDay();
+
+        Map<Integer, List<StatementLine>> linesByAccount = new HashMap<>();
+        for (StatementLine line : accountHistoryRepository.findStatementLines(firstClientID, lastClientID, from, to)) {
+            linesByAccount.computeIfAbsent(line.accountID(), id -> new ArrayList<>()).add(line);
+        }
+        // Lines come in history order, so the last one of an account is kept
+        Map<Integer, Money> balancesAtFrom = new HashMap<>();
+        for (StatementLine line : accountHistoryRepository.findLastLinesBefore(firstClientID, lastClientID, from)) {
+            balancesAtFrom.put(line.accountID(), line.balanceAfter());
+        }
+
+        List<StatementAccount> accounts = accountRepository.findStatementAccounts(firstClientID, lastClientID);
+        List<Integer> unchanged = new ArrayList<>();
+        for (StatementAccount account : accounts) {
+            if (!balancesAtFrom.containsKey(account.accountID()) && !linesByAccount.containsKey(account.accountID())) {
+                unchanged.add(account.accountID());
+            }
+        }
+        if (!unchanged.isEmpty()) {
+            Map<Integer, Money> current = new HashMap<>();
+            for (StatementAccount account : accounts) {
+                current.put(account.accountID(), account.accountBalance());
+            }
+            Map<Integer, Money> stripes = bankSubBalanceService.stripeTotals(unchanged.get(0), unchanged.get(unchanged.size() - 1));
+            for (AccountMovement movement : accountHistoryRepository.findMovementsOfAccountsAfter(unchanged, from)) {
+                current.merge(movement.accountID(), movement.amount().negate(), Money::plus);
+            }
+            for (Integer accountID : unchanged) {
+                balancesAtFrom.put(accountID, current.get(accountID).plus(stripes.getOrDefault(accountID, Money.ZERO)));
+            }
+        }
+
+        List<AccountStatement> statements = new ArrayList<>();
+        for (StatementAccount account : accounts) {
+            List<StatementLine> lines = linesByAccount.getOrDefault(account.accountID(), List.of());
+            Money openingBalance = balancesAtFrom.containsKey(account.accountID())
+                    ? balancesAtFrom.get(account.accountID())
+                    : lines.get(0).balanceAfter().minus(lines.get(0).amount());
+            AccountStatement statement = new AccountStatement(account.accountID(), account.accountNumber(), account.clientID(), month, openingBalance);
+            for (StatementLine line : lines) {
+                statement.addMovement(line.amount(), line.balanceAfter());
+            }
+            statements.add(statement);
+        }
+
+        accountStatementRepository.deleteChunk(month, firstClientID, lastClientID);
+        accountStatementRepository.saveAll(statements);
+        return statements.size();
+    }
+}
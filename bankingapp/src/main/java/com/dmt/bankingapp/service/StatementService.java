@@ -0,0 +1,109 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.StatementRun;
+import com.dmt.bankingapp.record.statements.StatementRunRecord;
+import com.dmt.bankingapp.repository.ClientRepository;
+import com.dmt.bankingapp.repository.StatementRunRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Month-end statements of all clients. Clients are walked in clientID order in chunks, each chunk is
+// written by StatementChunkWriter in its own transaction on a small thread pool, and the progress of the
+// month is kept in StatementRun so an interrupted run resumes from the last committed chunk
+@Service
+public class StatementService {
+
+    public static final int CHUNK_SIZE = 100;
+    public static final int THREADS = 4;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private StatementRunRepository statementRunRepository;
+
+    @Autowired
+    private StatementChunkWriter statementChunkWriter;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private record PendingChunk(int lastClientID, Future<Integer> written) {
+    }
+
+    // Generates the statements of the month. A run that did not finish is continued, a finished one
+    // is generated again from the first client
+    public StatementRunRecord generate(YearMonth yearMonth) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Statements are already being generated!");
+        }
+        LocalDate month = yearMonth.atDay(1);
+        // The queue holds only a few chunks - when it is full the walking thread writes the chunk itself,
+        // which holds back reading further chunks until the pool catches up
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(THREADS * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            StatementRun run = statementRunRepository.findById(month).orElseGet(() -> new StatementRun(month));
+            if (run.getStatus() == StatementRun.Status.COMPLETED) {
+                run.start();
+            }
+            run = statementRunRepository.save(run);
+
+            Deque<PendingChunk> pending = new ArrayDeque<>();
+            int chunks = 0;
+            int written = 0;
+            int cursor = run.getLastClientID();
+            while (true) {
+                List<Integer> clientIDs = clientRepository.findClientIDsAfter(cursor, Limit.of(CHUNK_SIZE));
+                if (clientIDs.isEmpty()) {
+                    break;
+                }
+                int firstClientID = clientIDs.get(0);
+                int lastClientID = clientIDs.get(clientIDs.size() - 1);
+                pending.add(new PendingChunk(lastClientID, executor.submit(() -> statementChunkWriter.writeChunk(month, firstClientID, lastClientID))));
+                cursor = lastClientID;
+
+                // Move the saved progress over the chunks that are done, in order
+                while (!pending.isEmpty() && pending.peek().written().isDone()) {
+                    PendingChunk done = pending.poll();
+                    written += done.written().get();
+                    chunks++;
+                    run.setLastClientID(done.lastClientID());
+                    run = statementRunRepository.save(run);
+                }
+            }
+            while (!pending.isEmpty()) {
+                PendingChunk done = pending.poll();
+                written += done.written().get();
+                chunks++;
+                run.setLastClientID(done.lastClientID());
+                run = statementRunRepository.save(run);
+            }
+
+            run.complete();
+            run = statementRunRepository.save(run);
+            return new StatementRunRecord(yearMonth.toString(), run.getStatus().name(), run.getLastClientID(), chunks, written);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Statements could not be generated, run it again to continue: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Statement generation has been interrupted, run it again to continue", e);
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+    }
+}
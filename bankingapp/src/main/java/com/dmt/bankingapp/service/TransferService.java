@@ -0,0 +1,258 @@
+package com.dmt.bankingapp.service;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.IdempotencyKey;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.entity.Account.AccountType;
+import com.dmt.bankingapp.record.transactions.BatchTransferResult;
+import com.dmt.bankingapp.record.transactions.QueuedTransfer;
+import com.dmt.bankingapp.record.transactions.TransferLeg;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.IdempotencyKeyRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.utils.Money;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class TransferService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private LoanPaymentService loanPaymentService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Returns the transaction already posted by the client under the given key, or null
+    @Transactional(readOnly = true)
+    public Transaction findByIdempotencyKey(Client client, String idempotencyKey) {
+        IdempotencyKey stored = idempotencyKeyRepository.findByClientAndIdempotencyKey(client, idempotencyKey);
+        return stored == null ? null : stored.getTransaction();
+    }
+
+    // Posts a transfer in one database transaction. Both account rows are locked with
+    // SELECT ... FOR UPDATE in ascending accountID order, so two transfers over the same
+    // accounts queue up instead of deadlocking, while transfers on unrelated accounts
+    // never wait for each other
+    @Transactional
+    public Transaction transfer(Account giver, Account receiver, double amount) {
+        return transfer(giver, receiver, amount, null, null);
+    }
+
+    // When an idempotency key is given it is stored together with the new transaction in the
+    // same database transaction. A concurrent request with the same key fails on the unique
+    // index and rolls back, so the money is moved only once
+    @Transactional
+    public Transaction transfer(Account giver, Account receiver, double amount, Client client, String idempotencyKey) {
+        return transfer(giver, receiver, amount, Transaction.TransactionType.TRANSFER, client, idempotencyKey);
+    }
+
+    // Transfers of the bank itself (deposits, deposit payouts, ...) are posted the same way, so they
+    // queue up with the client's own transfers on the same accounts
+    @Transactional
+    public Transaction transfer(Account giver, Account receiver, double amount, Transaction.TransactionType transactionType) {
+        return transfer(giver, receiver, amount, transactionType, null, null);
+    }
+
+    private Transaction transfer(Account giver, Account receiver, double amount, Transaction.TransactionType transactionType,
+            Client client, String idempotencyKey) {
+        Account lockedGiver;
+        Account lockedReceiver;
+        if (giver.getAccountID() <= receiver.getAccountID()) {
+            lockedGiver = lock(giver);
+            lockedReceiver = lock(receiver);
+        } else {
+            lockedReceiver = lock(receiver);
+            lockedGiver = lock(giver);
+        }
+
+        // Validation and balance changes happen on the locked rows, so the balance check
+        // cannot be passed by two concurrent transfers at once
+        loanPaymentService.loadInstallmentsReachedBy(lockedReceiver, amount);
+        Transaction transaction = transactionRepository.save(new Transaction(lockedGiver, lockedReceiver, amount, transactionType));
+        if (idempotencyKey != null) {
+            idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(client, idempotencyKey, transaction));
+        }
+        return transaction;
+    }
+
+    private Account lock(Account account) {
+        // Balance of a striped bank account is not changed by the transaction itself, its sub-balance is
+        // locked when the transaction is saved
+        if (account.isStriped()) {
+            return account;
+        }
+        Account locked = accountRepository.lockByAccountID(account.getAccountID());
+        if (locked == null) {
+            throw new IllegalStateException("Account " + account.getAccountNumber() + " does not exist!");
+        }
+        // The account may already be in the persistence context with a balance read before
+        // the lock was granted - reload it from the locked row
+        entityManager.refresh(locked);
+        return locked;
+    }
+
+    // Posts many transfers from one account in a single database transaction. The sender and all
+    // receivers are resolved and locked with one IN query, the whole batch is checked against the
+    // sender's balance once, and the transactions are inserted with JDBC batching. Legs that fail
+    // their own validation (unknown receiver, invalid amount, ...) are reported and skipped
+    @Transactional
+    public List<BatchTransferResult> batchTransfer(Account giver, List<TransferLeg> legs) {
+        Set<String> accountNumbers = new HashSet<>();
+        accountNumbers.add(giver.getAccountNumber());
+        for (TransferLeg leg : legs) {
+            if (leg.receiverAccountNumber() != null) {
+                accountNumbers.add(leg.receiverAccountNumber());
+            }
+        }
+
+        Map<String, Account> accounts = lockAll(accountNumbers);
+
+        Account lockedGiver = accounts.get(giver.getAccountNumber());
+        if (lockedGiver == null) {
+            throw new IllegalStateException("Account " + giver.getAccountNumber() + " does not exist!");
+        }
+
+        if (lockedGiver.getAccountType().equals(AccountType.CHECKING) || lockedGiver.getAccountType().equals(AccountType.DEPOSIT)) {
+            Money total = Money.ZERO;
+            for (TransferLeg leg : legs) {
+                total = total.plus(Money.of(leg.amount()));
+            }
+            if (total.isGreaterThan(lockedGiver.getAccountBalanceAsMoney())) {
+                throw new IllegalStateException("You cannot transfer more money than you have on the account!");
+            }
+        }
+
+        Transaction[] posted = new Transaction[legs.size()];
+        String[] errors = new String[legs.size()];
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < legs.size(); i++) {
+            Account receiver = accounts.get(legs.get(i).receiverAccountNumber());
+            if (receiver == null) {
+                errors[i] = "Receiver's account has not been found";
+                continue;
+            }
+            try {
+                loanPaymentService.loadInstallmentsReachedBy(receiver, legs.get(i).amount());
+                posted[i] = new Transaction(lockedGiver, receiver, legs.get(i).amount());
+                transactions.add(posted[i]);
+            } catch (IllegalStateException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+        transactionRepository.saveAll(transactions);
+
+        List<BatchTransferResult> results = new ArrayList<>();
+        for (int i = 0; i < legs.size(); i++) {
+            TransferLeg leg = legs.get(i);
+            if (posted[i] != null) {
+                results.add(new BatchTransferResult(i + 1, leg.receiverAccountNumber(), posted[i].getAmount(), true, posted[i].getTransactionID(), "OK"));
+            } else {
+                results.add(new BatchTransferResult(i + 1, leg.receiverAccountNumber(), leg.amount(), false, null, errors[i]));
+            }
+        }
+        return results;
+    }
+
+    // Posts transfers queued by AsyncTransferService in one database transaction, in the order they were
+    // queued. All accounts of the micro-batch are locked with one IN query. A transfer that fails its own
+    // validation is reported and skipped, the following transfers of the same giver see the balance without it
+    @Transactional
+    public List<BatchTransferResult> transferInOrder(List<QueuedTransfer> transfers) {
+        Set<String> accountNumbers = new HashSet<>();
+        for (QueuedTransfer transfer : transfers) {
+            accountNumbers.add(transfer.giverAccountNumber());
+            accountNumbers.add(transfer.receiverAccountNumber());
+        }
+        Map<String, Account> accounts = lockAll(accountNumbers);
+
+        Transaction[] posted = new Transaction[transfers.size()];
+        String[] errors = new String[transfers.size()];
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            QueuedTransfer transfer = transfers.get(i);
+            Account giver = accounts.get(transfer.giverAccountNumber());
+            Account receiver = accounts.get(transfer.receiverAccountNumber());
+            if (giver == null) {
+                errors[i] = "Sender's account has not been found";
+                continue;
+            }
+            if (receiver == null) {
+                errors[i] = "Receiver's account has not been found";
+                continue;
+            }
+            try {
+                loanPaymentService.loadInstallmentsReachedBy(receiver, transfer.amount());
+                posted[i] = new Transaction(giver, receiver, transfer.amount());
+                transactions.add(posted[i]);
+            } catch (IllegalStateException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+        transactionRepository.saveAll(transactions);
+
+        List<BatchTransferResult> results = new ArrayList<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            QueuedTransfer transfer = transfers.get(i);
+            if (posted[i] != null) {
+                results.add(new BatchTransferResult(i + 1, transfer.receiverAccountNumber(), posted[i].getAmount(), true, posted[i].getTransactionID(), "OK"));
+            } else {
+                results.add(new BatchTransferResult(i + 1, transfer.receiverAccountNumber(), transfer.amount(), false, null, errors[i]));
+            }
+        }
+        return results;
+    }
+
+    private Map<String, Account> lockAll(Set<String> accountNumbers) {
+        Map<String, Account> accounts = new HashMap<>();
+        List<Integer> accountIDs = accountRepository.findAccountIDsByAccountNumberIn(accountNumbers);
+        if (accountIDs.isEmpty()) {
+            return accounts;
+        }
+        Set<Object> alreadyLoaded = managedAccountIDs();
+        for (Account account : accountRepository.lockByAccountIDIn(accountIDs)) {
+            // Same as in lock() - accounts loaded before the lock was granted may hold an old balance
+            if (alreadyLoaded.contains(account.getAccountID())) {
+                entityManager.refresh(account);
+            }
+            accounts.put(account.getAccountNumber(), account);
+        }
+        return accounts;
+    }
+
+    private Set<Object> managedAccountIDs() {
+        Set<Object> ids = new HashSet<>();
+        for (Object key : entityManager.unwrap(Session.class).getStatistics().getEntityKeys()) {
+            EntityKey entityKey = (EntityKey) key;
+            if (entityKey.getEntityName().equals(Account.class.getName())) {
+                ids.add(entityKey.getIdentifier());
+            }
+        }
+        return ids;
+    }
+}
@@ -1,13 +1,12 @@
 package com.dmt.bankingapp.service.implementation;
 
-import com.dmt.bankingapp.entity.Account;
 import com.dmt.bankingapp.entity.Client;
-import com.dmt.bankingapp.entity.Transaction;
 import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.record.HistoryFilter;
+import com.dmt.bankingapp.repository.AccountHistoryRepository;
 import com.dmt.bankingapp.repository.AccountRepository;
-import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.HistoryCache;
 import com.dmt.bankingapp.service.interfaceClass.AccountsOfUserIntoHistoryList;
-import com.dmt.bankingapp.utils.HistoryRecordGenerator;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -16,7 +15,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -26,54 +24,50 @@ public class AccountsOfUserIntoHistoryListImpl implements AccountsOfUserIntoHist
     private final AccountRepository accountRepository;
 
     @Autowired
-    private final TransactionRepository transactionRepository;
+    private final AccountHistoryRepository accountHistoryRepository;
 
-    public AccountsOfUserIntoHistoryListImpl(AccountRepository accountRepository, TransactionRepository transactionRepository) {
+    @Autowired
+    private final HistoryCache historyCache;
+
+    public AccountsOfUserIntoHistoryListImpl(AccountRepository accountRepository, AccountHistoryRepository accountHistoryRepository, HistoryCache historyCache) {
         this.accountRepository = accountRepository;
-        this.transactionRepository = transactionRepository;
+        this.accountHistoryRepository = accountHistoryRepository;
+        this.historyCache = historyCache;
     }
 
     @Override
     public ResponseEntity<ArrayList<History>> getStoredHistoryByClient(Client client){
-        //find instance of client's account
-        List<Account> accountList = accountRepository.findByClient(client);
-        if(accountList.isEmpty()){
+        return getStoredHistoryByClient(client, HistoryFilter.NONE);
+    }
+
+    @Override
+    public ResponseEntity<ArrayList<History>> getStoredHistoryByClient(Client client, HistoryFilter filter){
+        //serve repeated requests for the whole history from the cache - it is cleared whenever a transaction of the client is committed
+        long generation = 0;
+        if(filter.isEmpty()){
+            List<History> cached = historyCache.get(client.getClientID());
+            if(cached != null){
+                return ResponseEntity.ok(new ArrayList<>(cached));
+            }
+            //read before the query, so a commit evicting the client while it runs keeps its result out of the cache
+            generation = historyCache.generation(client.getClientID());
+        }
+        //read matching history records of all client's accounts from the history read model, already in chronological order
+        List<History> records = filter.isEmpty()
+                ? accountHistoryRepository.findHistoryOfClient(client)
+                : accountHistoryRepository.findHistoryOfClient(client, filter);
+        //accounts are only looked up when there is no history to tell apart "no accounts" from "no transactions"
+        if(records.isEmpty() && accountRepository.findByClient(client).isEmpty()){
             HttpHeaders header = new HttpHeaders();
             header.add("ErrorMessage", "Client don't have any active accounts!");
             return new ResponseEntity<>(null, header, HttpStatus.NOT_FOUND);
         }
         //Array list of history instance records
-        ArrayList<History> historyArrayList = new ArrayList<>();
-        for (int i = 0; i < accountList.size(); i++) {
-            Account currentlyWorkingOn = accountList.get(i);
-            System.out.println(currentlyWorkingOn.getAccountNumber());
-            System.out.println(".".repeat(100));
-            //fetch all records in Transaction table that have ID of account
-            //All transaction where found account was receiver
-            List<Transaction> incomeTransactions = transactionRepository.findByReceiver(currentlyWorkingOn);
-            //All transaction where found account was giver
-            List<Transaction> expenseTransactions = transactionRepository.findByGiver(currentlyWorkingOn);
+        ArrayList<History> historyArrayList = new ArrayList<>(records);
 
-
-            for(Transaction x : incomeTransactions){
-                //for each loop to convert and add data from list of transactions to readable history records
-                History historyRecord = HistoryRecordGenerator.castDataToCreateHistoryRecord(x,currentlyWorkingOn);
-                historyArrayList.add(historyRecord);
-            }
-            for(Transaction x : expenseTransactions){
-                //for each loop to convert and add data from list of transactions to readable history records
-                History historyRecord = HistoryRecordGenerator.castDataToCreateHistoryRecord(x,currentlyWorkingOn);
-                historyArrayList.add(historyRecord);
-            }
-
-            i++;
-            accountList.remove(currentlyWorkingOn);
+        if(filter.isEmpty()){
+            historyCache.put(client.getClientID(), generation, historyArrayList);
         }
-
-        //Sort history to chronological order by date of transaction
-        historyArrayList.sort(Comparator.comparing(History::dateOfTransaction));
-        //return sorted history
-
         ResponseEntity<ArrayList<History>> output = ResponseEntity.ok(historyArrayList);
         return output;
     }
@@ -2,6 +2,7 @@ package com.dmt.bankingapp.service.interfaceClass;
 
 import com.dmt.bankingapp.entity.Client;
 import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.record.HistoryFilter;
 import org.springframework.http.ResponseEntity;
 
 import java.io.IOException;
@@ -9,4 +10,5 @@ import java.util.ArrayList;
 
 public interface AccountsOfUserIntoHistoryList {
     public ResponseEntity<ArrayList<History>> getStoredHistoryByClient(Client client) throws IOException;
+    public ResponseEntity<ArrayList<History>> getStoredHistoryByClient(Client client, HistoryFilter filter) throws IOException;
 }
@@ -0,0 +1,120 @@
+package com.dmt.bankingapp.utils;
+
+// Loan arithmetic without entities or the database - amounts are whole grosze in primitive longs, so a quote
+// for any duration is a handful of multiplications and one array. Loan delegates here, which keeps a quote
+// and the loan launched with the same rates equal to the grosz
+public class AmortizationEngine {
+
+    // How the total is split into installments
+    public enum ScheduleKind {
+        // Flat interest on the principal for the whole duration, the total split into equal installments
+        EQUAL,
+        // Principal and commission amortized at the monthly rate with equal installments
+        ANNUITY,
+        // Principal and commission amortized at the monthly rate with an equal share of principal each month,
+        // so the installments go down with the interest on the remaining balance
+        DECREASING
+    }
+
+    // Yearly rates are kept in millionths of a percent, so the interest of a month is
+    // balance * rate / (100% * 12 months) in integer arithmetic
+    private static final long RATE_SCALE = 1_000_000L;
+    private static final long RATE_DIVISOR = 100L * 12L * RATE_SCALE;
+
+    // Totals and the installment amounts of a loan - installment i (from 0) is due i + 1 months after the launch
+    public record Quote(ScheduleKind scheduleKind, long principalGrosze, long interestGrosze, long commissionGrosze,
+            long totalGrosze, long[] installmentGrosze) {
+    }
+
+    public static Quote quote(double principalAmount, double interestRate, double commisionRate, int loanDuration) {
+        return quote(ScheduleKind.EQUAL, principalAmount, interestRate, commisionRate, loanDuration);
+    }
+
+    public static Quote quote(ScheduleKind scheduleKind, double principalAmount, double interestRate, double commisionRate, int loanDuration) {
+        if (loanDuration <= 0) {
+            throw new IllegalStateException("Loan duration has to be at least 1 month!");
+        }
+        long principal = Money.of(principalAmount).getGrosze();
+        long commission = commissionGrosze(principalAmount, commisionRate);
+        long[] installments = new long[loanDuration];
+        long interest = fillSchedule(scheduleKind, principal, commission, interestRate, installments);
+        return new Quote(scheduleKind, principal, interest, commission, principal + interest + commission, installments);
+    }
+
+    // Writes the installments of the loan into the array, one per month of the duration, and returns the
+    // interest. Nothing is allocated, so the same array can be reused to re-price any number of loans
+    public static long fillSchedule(ScheduleKind scheduleKind, long principalGrosze, long commissionGrosze, double interestRate, long[] installments) {
+        int loanDuration = installments.length;
+        if (loanDuration == 0) {
+            throw new IllegalStateException("Loan duration has to be at least 1 month!");
+        }
+        if (scheduleKind == ScheduleKind.EQUAL) {
+            long interest = interestGrosze(principalGrosze / 100.0, interestRate, loanDuration);
+            splitEqually(principalGrosze + interest + commissionGrosze, installments);
+            return interest;
+        }
+
+        long rate = Math.round(interestRate * RATE_SCALE);
+        long balance = principalGrosze + commissionGrosze;
+        long principalShare = balance / loanDuration;
+        long remainder = balance % loanDuration;
+        long annuity = scheduleKind == ScheduleKind.ANNUITY ? annuityPayment(balance, interestRate, loanDuration) : 0;
+        long totalInterest = 0;
+        for (int i = 0; i < loanDuration; i++) {
+            long interest = monthlyInterest(balance, rate);
+            long principalPart;
+            if (i == loanDuration - 1) {
+                // The last installment repays what is left, so rounding never leaves a grosz unpaid
+                principalPart = balance;
+            } else if (scheduleKind == ScheduleKind.ANNUITY) {
+                principalPart = Math.min(Math.max(annuity - interest, 0), balance);
+            } else {
+                principalPart = i == 0 ? principalShare + remainder : principalShare;
+            }
+            installments[i] = principalPart + interest;
+            balance -= principalPart;
+            totalInterest += interest;
+        }
+        return totalInterest;
+    }
+
+    // Simple interest for the whole duration: principal * rate * months / 12
+    public static long interestGrosze(double principalAmount, double interestRate, int loanDuration) {
+        double convertedRate = interestRate * 0.01; // converting from % value to decimal value (i.e. 3% to 0.03)
+        double total = principalAmount * (1 + ((convertedRate * loanDuration) / 12));
+        return Money.of(total - principalAmount).getGrosze();
+    }
+
+    // Commission charged once, when the loan is granted
+    public static long commissionGrosze(double principalAmount, double commisionRate) {
+        double decimalRate = commisionRate * 0.01; // converting from % value to decimal value (i.e. 3% to 0.03)
+        return Money.of(principalAmount * decimalRate).getGrosze();
+    }
+
+    // Equal installments in whole złoty - the remainder of the division goes to the first installment, so the
+    // installments always add up exactly to the total
+    public static void splitEqually(long totalInGrosze, long[] installments) {
+        int loanDuration = installments.length;
+        long modulo = totalInGrosze % (loanDuration * 100L);
+        long wholeInstalment = (totalInGrosze - modulo) / loanDuration;
+        for (int i = 0; i < loanDuration; i++) {
+            installments[i] = wholeInstalment;
+        }
+        installments[0] += modulo;
+    }
+
+    // Equal payment that repays the balance in the given number of months: B * r / (1 - (1 + r)^-n), rounded
+    // to the grosz. Only the payment uses floating point - the interest of every month is computed exactly
+    private static long annuityPayment(long balance, double interestRate, int loanDuration) {
+        double monthlyRate = interestRate / 1200.0;
+        if (monthlyRate == 0) {
+            return balance / loanDuration;
+        }
+        return Math.round(balance * monthlyRate / (1 - Math.pow(1 + monthlyRate, -loanDuration)));
+    }
+
+    // Interest of one month on the balance, rounded half up to the grosz
+    private static long monthlyInterest(long balance, long rate) {
+        return (Math.multiplyExact(balance, rate) + RATE_DIVISOR / 2) / RATE_DIVISOR;
+    }
+}
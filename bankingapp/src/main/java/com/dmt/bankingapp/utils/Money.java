@@ -0,0 +1,119 @@
+package com.dmt.bankingapp.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Immutable amount of money kept as a whole number of grosze (1/100 PLN).
+// Arithmetic works on the long value directly, so adding, subtracting and comparing
+// amounts is exact and never creates a BigDecimal. Rounding (HALF_UP) only happens
+// when a value enters from outside - a double from a form, or a DECIMAL column.
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private final long grosze;
+
+    private Money(long grosze) {
+        this.grosze = grosze;
+    }
+
+    public static Money ofGrosze(long grosze) {
+        return grosze == 0 ? ZERO : new Money(grosze);
+    }
+
+    public static Money of(double value) {
+        // Same rule as DecimalPlacesAdjuster - positive amounts below 1 grosz are treated as 0
+        if (value < 0.01 && value > 0) {
+            return ZERO;
+        }
+        return ofGrosze(roundHalfUp(value * 100));
+    }
+
+    public static Money of(BigDecimal value) {
+        return ofGrosze(value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public long getGrosze() {
+        return grosze;
+    }
+
+    public double toDouble() {
+        return grosze / 100.0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(grosze, 2);
+    }
+
+    public Money plus(Money other) {
+        return ofGrosze(Math.addExact(grosze, other.grosze));
+    }
+
+    public Money minus(Money other) {
+        return ofGrosze(Math.subtractExact(grosze, other.grosze));
+    }
+
+    public Money negate() {
+        return ofGrosze(-grosze);
+    }
+
+    // Multiplies by a plain factor (e.g. a rate already converted from percent) and rounds HALF_UP to a grosz
+    public Money multiply(double factor) {
+        return ofGrosze(roundHalfUp(grosze * factor));
+    }
+
+    public Money min(Money other) {
+        return grosze <= other.grosze ? this : other;
+    }
+
+    public boolean isZero() {
+        return grosze == 0;
+    }
+
+    public boolean isPositive() {
+        return grosze > 0;
+    }
+
+    public boolean isNegative() {
+        return grosze < 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return grosze > other.grosze;
+    }
+
+    public boolean isLessThan(Money other) {
+        return grosze < other.grosze;
+    }
+
+    // HALF_UP rounds halves away from zero, Math.round alone would round -0.5 towards zero
+    private static long roundHalfUp(double value) {
+        return value < 0 ? -Math.round(-value) : Math.round(value);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(grosze, other.grosze);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        return grosze == ((Money) o).grosze;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(grosze);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
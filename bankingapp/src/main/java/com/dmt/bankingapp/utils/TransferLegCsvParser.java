@@ -0,0 +1,42 @@
+package com.dmt.bankingapp.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.dmt.bankingapp.record.transactions.TransferLeg;
+
+public class TransferLegCsvParser {
+
+    // Parses "receiverAccountNumber,amount" lines, an optional header line and blank lines are skipped
+    public static List<TransferLeg> parse(String csv) {
+        List<TransferLeg> legs = new ArrayList<>();
+        if (csv == null) {
+            return legs;
+        }
+        String[] lines = csv.split("\\r?\\n");
+        boolean firstLine = true;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            boolean headerAllowed = firstLine;
+            firstLine = false;
+            String[] columns = line.split("[,;]");
+            if (columns.length != 2) {
+                throw new IllegalArgumentException("Line " + (i + 1) + " should contain receiver account number and amount");
+            }
+            String receiverAccountNumber = columns[0].trim();
+            String amount = columns[1].trim();
+            try {
+                legs.add(new TransferLeg(receiverAccountNumber, Double.parseDouble(amount)));
+            } catch (NumberFormatException e) {
+                if (headerAllowed) {
+                    continue; // header line
+                }
+                throw new IllegalArgumentException("Line " + (i + 1) + " contains invalid amount: " + amount);
+            }
+        }
+        return legs;
+    }
+}
@@ -0,0 +1,39 @@
+-- Recurring transfers (StandingOrder) and the outcome of each of their runs (StandingOrderExecution)
+CREATE TABLE standing_orders (
+    standing_order_id INT NOT NULL AUTO_INCREMENT,
+    client INT NOT NULL,
+    giver_account INT NOT NULL,
+    receiver_account INT NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    frequency ENUM('DAILY', 'WEEKLY', 'MONTHLY') NOT NULL,
+    start_date DATE NOT NULL,
+    run_count INT NOT NULL,
+    next_run_at DATETIME(6) NOT NULL,
+    is_active BIT NOT NULL,
+    failed_runs INT NOT NULL,
+    last_run_at DATETIME(6),
+    last_result VARCHAR(255),
+    PRIMARY KEY (standing_order_id),
+    CONSTRAINT fk_standing_orders_client FOREIGN KEY (client) REFERENCES clients (client_id),
+    CONSTRAINT fk_standing_orders_giver FOREIGN KEY (giver_account) REFERENCES accounts (account_id),
+    CONSTRAINT fk_standing_orders_receiver FOREIGN KEY (receiver_account) REFERENCES accounts (account_id)
+) ENGINE=InnoDB;
+
+-- Due orders are claimed in next_run_at order with FOR UPDATE SKIP LOCKED, only active ones are looked at
+CREATE INDEX ix_standing_orders_due ON standing_orders (is_active, next_run_at);
+CREATE INDEX ix_standing_orders_client ON standing_orders (client);
+
+CREATE TABLE standing_order_executions (
+    standing_order_execution_id INT NOT NULL AUTO_INCREMENT,
+    standing_order_id INT NOT NULL,
+    executed_at DATETIME(6) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    succeeded BIT NOT NULL,
+    transaction_id INT,
+    message VARCHAR(255),
+    PRIMARY KEY (standing_order_execution_id),
+    CONSTRAINT fk_standing_order_executions_order FOREIGN KEY (standing_order_id) REFERENCES standing_orders (standing_order_id),
+    CONSTRAINT fk_standing_order_executions_transaction FOREIGN KEY (transaction_id) REFERENCES transactions (transaction_id)
+) ENGINE=InnoDB;
+
+CREATE INDEX ix_standing_order_executions_order ON standing_order_executions (standing_order_id, standing_order_execution_id);
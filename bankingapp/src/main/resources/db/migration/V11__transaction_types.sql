@@ -0,0 +1,37 @@
+-- What each transaction was for (Transaction.TransactionType), set by the code creating it
+ALTER TABLE transactions ADD COLUMN transaction_type
+    ENUM('TRANSFER', 'LOAN_DISBURSEMENT', 'LOAN_INTEREST', 'LOAN_COMMISSION', 'INSTALLMENT_PAYMENT', 'DEPOSIT', 'DEPOSIT_PAYOUT')
+    NOT NULL DEFAULT 'TRANSFER';
+
+-- Existing transactions are typed by their accounts, the same way the code creating them tells them apart
+UPDATE transactions t JOIN accounts r ON r.account_id = t.account_of_receiver
+SET t.transaction_type = 'INSTALLMENT_PAYMENT'
+WHERE r.account_type = 'LOAN';
+
+UPDATE transactions t JOIN accounts g ON g.account_id = t.account_of_sender JOIN accounts r ON r.account_id = t.account_of_receiver
+SET t.transaction_type = 'LOAN_DISBURSEMENT'
+WHERE g.account_type = 'LOAN' AND r.account_type <> 'BANK';
+
+-- A loan sends interest and then commission to the bank, so the first of the two is the interest
+UPDATE transactions t JOIN accounts g ON g.account_id = t.account_of_sender JOIN accounts r ON r.account_id = t.account_of_receiver
+SET t.transaction_type = 'LOAN_COMMISSION'
+WHERE g.account_type = 'LOAN' AND r.account_type = 'BANK';
+
+UPDATE transactions t JOIN (
+    SELECT MIN(t2.transaction_id) AS transaction_id
+    FROM transactions t2 JOIN accounts g ON g.account_id = t2.account_of_sender JOIN accounts r ON r.account_id = t2.account_of_receiver
+    WHERE g.account_type = 'LOAN' AND r.account_type = 'BANK'
+    GROUP BY t2.account_of_sender
+) interest ON interest.transaction_id = t.transaction_id
+SET t.transaction_type = 'LOAN_INTEREST';
+
+UPDATE transactions t JOIN accounts r ON r.account_id = t.account_of_receiver
+SET t.transaction_type = 'DEPOSIT'
+WHERE r.account_number = 'BANK_DEPOSIT';
+
+UPDATE transactions t JOIN accounts g ON g.account_id = t.account_of_sender
+SET t.transaction_type = 'DEPOSIT_PAYOUT'
+WHERE g.account_number = 'BANK_DEPOSIT';
+
+-- Reports aggregate one type over a time range, the amount is in the index so they never read the table
+CREATE INDEX ix_transactions_type_date ON transactions (transaction_type, date_of_transaction, amount);
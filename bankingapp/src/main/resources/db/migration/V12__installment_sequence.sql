@@ -0,0 +1,8 @@
+-- Pooled id sequence of installments (allocationSize 50), same as transaction_seq - the schedule of a new
+-- loan is inserted in JDBC batches. The first block handed out starts 49 below next_val, so it is moved
+-- past the highest existing id
+CREATE TABLE installment_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO installment_seq (next_val) SELECT COALESCE(MAX(installment_id), 0) + 51 FROM installment;
+
@@ -0,0 +1,3 @@
+-- How the installments of a loan were computed (AmortizationEngine.ScheduleKind), loans launched before had
+-- the total split into equal installments
+ALTER TABLE loans ADD COLUMN schedule_kind ENUM('EQUAL', 'ANNUITY', 'DECREASING') NOT NULL DEFAULT 'EQUAL';
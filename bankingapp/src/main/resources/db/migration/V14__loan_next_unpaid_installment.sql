@@ -0,0 +1,15 @@
+-- First installment of each loan that is not fully paid, moved by every payment (null once the loan is paid)
+ALTER TABLE loans
+    ADD COLUMN next_unpaid_installment_id INT,
+    ADD COLUMN next_due_date DATETIME(6),
+    ADD CONSTRAINT fk_loans_next_unpaid_installment FOREIGN KEY (next_unpaid_installment_id) REFERENCES installment (installment_id);
+
+UPDATE loans l
+SET l.next_unpaid_installment_id = (
+    SELECT i.installment_id FROM installment i
+    WHERE i.loan_id = l.loan_id AND i.is_paid = 0
+    ORDER BY i.due_date, i.installment_id
+    LIMIT 1);
+
+UPDATE loans l JOIN installment i ON i.installment_id = l.next_unpaid_installment_id
+SET l.next_due_date = i.due_date;
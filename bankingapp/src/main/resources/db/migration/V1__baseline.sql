@@ -0,0 +1,98 @@
+-- Schema as it was generated by Hibernate (ddl-auto=update) before migrations were introduced.
+-- Existing databases are baselined at this version, so this script only runs on an empty schema.
+
+CREATE TABLE clients (
+    client_id INT NOT NULL AUTO_INCREMENT,
+    client_name VARCHAR(255),
+    is_admin BOOLEAN DEFAULT FALSE NOT NULL,
+    bcrypt_client_password VARCHAR(68),
+    checking_account_id INT,
+    PRIMARY KEY (client_id),
+    CONSTRAINT uk_clients_checking_account UNIQUE (checking_account_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE accounts (
+    account_id INT NOT NULL AUTO_INCREMENT,
+    account_number VARCHAR(255),
+    client_id INT,
+    account_balance DOUBLE NOT NULL,
+    account_type ENUM('BANK', 'CHECKING', 'DEPOSIT', 'LOAN'),
+    loan_id INT,
+    deposit_id INT,
+    PRIMARY KEY (account_id),
+    CONSTRAINT uk_accounts_loan UNIQUE (loan_id),
+    CONSTRAINT uk_accounts_deposit UNIQUE (deposit_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE transactions (
+    transaction_id INT NOT NULL AUTO_INCREMENT,
+    account_of_sender INT,
+    account_of_receiver INT,
+    amount DOUBLE NOT NULL,
+    date_of_transaction DATETIME(6),
+    PRIMARY KEY (transaction_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE loans (
+    loan_id INT NOT NULL AUTO_INCREMENT,
+    loan_account INT,
+    checking_account INT,
+    client INT,
+    principal_loan_amount DOUBLE NOT NULL,
+    loan_duration INT NOT NULL,
+    interest_rate DOUBLE NOT NULL,
+    total_loan_amount DOUBLE NOT NULL,
+    date_of_loan DATETIME(6),
+    left_to_pay DOUBLE NOT NULL,
+    commision_rate DOUBLE NOT NULL,
+    bank_account INT,
+    is_active BIT NOT NULL,
+    PRIMARY KEY (loan_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE installment (
+    installment_id INT NOT NULL AUTO_INCREMENT,
+    loan_id INT,
+    installment_amount DOUBLE NOT NULL,
+    due_date DATETIME(6),
+    paid_amount DOUBLE NOT NULL,
+    is_paid BIT NOT NULL,
+    PRIMARY KEY (installment_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE deposits (
+    deposit_id INT NOT NULL AUTO_INCREMENT,
+    checking_account INT,
+    is_active BIT NOT NULL,
+    client INT,
+    interest_rate DOUBLE NOT NULL,
+    deposit_duration INT NOT NULL,
+    total_deposit_amount DOUBLE NOT NULL,
+    date_of_deposit DATETIME(6),
+    return_of_investment DOUBLE NOT NULL,
+    deposit_type ENUM('FIXED', 'PROGRESSIVE'),
+    date_of_withdrawn DATETIME(6),
+    PRIMARY KEY (deposit_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE commissions (
+    commission_id INT NOT NULL AUTO_INCREMENT,
+    commission_of VARCHAR(255),
+    commission_rate_in_percent DOUBLE NOT NULL,
+    creation_time DATETIME(6),
+    PRIMARY KEY (commission_id)
+) ENGINE=InnoDB;
+
+ALTER TABLE clients ADD CONSTRAINT fk_clients_checking_account FOREIGN KEY (checking_account_id) REFERENCES accounts (account_id);
+ALTER TABLE accounts ADD CONSTRAINT fk_accounts_client FOREIGN KEY (client_id) REFERENCES clients (client_id);
+ALTER TABLE accounts ADD CONSTRAINT fk_accounts_loan FOREIGN KEY (loan_id) REFERENCES loans (loan_id);
+ALTER TABLE accounts ADD CONSTRAINT fk_accounts_deposit FOREIGN KEY (deposit_id) REFERENCES deposits (deposit_id);
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_sender FOREIGN KEY (account_of_sender) REFERENCES accounts (account_id);
+ALTER TABLE transactions ADD CONSTRAINT fk_transactions_receiver FOREIGN KEY (account_of_receiver) REFERENCES accounts (account_id);
+ALTER TABLE loans ADD CONSTRAINT fk_loans_loan_account FOREIGN KEY (loan_account) REFERENCES accounts (account_id);
+ALTER TABLE loans ADD CONSTRAINT fk_loans_checking_account FOREIGN KEY (checking_account) REFERENCES accounts (account_id);
+ALTER TABLE loans ADD CONSTRAINT fk_loans_client FOREIGN KEY (client) REFERENCES clients (client_id);
+ALTER TABLE loans ADD CONSTRAINT fk_loans_bank_account FOREIGN KEY (bank_account) REFERENCES accounts (account_id);
+ALTER TABLE installment ADD CONSTRAINT fk_installment_loan FOREIGN KEY (loan_id) REFERENCES loans (loan_id);
+ALTER TABLE deposits ADD CONSTRAINT fk_deposits_checking_account FOREIGN KEY (checking_account) REFERENCES accounts (account_id);
+ALTER TABLE deposits ADD CONSTRAINT fk_deposits_client FOREIGN KEY (client) REFERENCES clients (client_id);
@@ -0,0 +1,32 @@
+-- Money is mapped to DECIMAL(19,2) zlotys (MoneyConverter)
+ALTER TABLE accounts MODIFY account_balance DECIMAL(19, 2) NOT NULL;
+ALTER TABLE transactions MODIFY amount DECIMAL(19, 2) NOT NULL;
+ALTER TABLE loans MODIFY principal_loan_amount DECIMAL(19, 2) NOT NULL;
+ALTER TABLE loans MODIFY total_loan_amount DECIMAL(19, 2) NOT NULL;
+ALTER TABLE loans MODIFY left_to_pay DECIMAL(19, 2) NOT NULL;
+ALTER TABLE installment MODIFY installment_amount DECIMAL(19, 2) NOT NULL;
+ALTER TABLE installment MODIFY paid_amount DECIMAL(19, 2) NOT NULL;
+ALTER TABLE deposits MODIFY total_deposit_amount DECIMAL(19, 2) NOT NULL;
+ALTER TABLE deposits MODIFY return_of_investment DECIMAL(19, 2) NOT NULL;
+
+-- Idempotency keys of POST /transaction/add, may already exist if created by ddl-auto=update
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key_id INT NOT NULL AUTO_INCREMENT,
+    client_id INT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    transaction_id INT NOT NULL,
+    creation_time DATETIME(6),
+    PRIMARY KEY (idempotency_key_id),
+    CONSTRAINT uk_idempotency_client_key UNIQUE (client_id, idempotency_key),
+    CONSTRAINT fk_idempotency_keys_client FOREIGN KEY (client_id) REFERENCES clients (client_id),
+    CONSTRAINT fk_idempotency_keys_transaction FOREIGN KEY (transaction_id) REFERENCES transactions (transaction_id)
+) ENGINE=InnoDB;
+
+-- Pooled id sequence of transactions (allocationSize 50), MySQL has no sequences so Hibernate keeps it
+-- in a one-row table. The first block handed out starts 49 below next_val, so it is moved past the
+-- highest existing id
+CREATE TABLE IF NOT EXISTS transaction_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+DELETE FROM transaction_seq;
+INSERT INTO transaction_seq (next_val) SELECT COALESCE(MAX(transaction_id), 0) + 51 FROM transactions;
@@ -0,0 +1,13 @@
+-- Lookups done on every request: login and client by name, account by number
+CREATE UNIQUE INDEX ux_clients_client_name ON clients (client_name);
+CREATE UNIQUE INDEX ux_accounts_account_number ON accounts (account_number);
+
+-- Keyset pages of outgoing/incoming transactions (account = ? AND transaction_id < ? ORDER BY transaction_id DESC)
+CREATE INDEX ix_transactions_sender_id ON transactions (account_of_sender, transaction_id);
+CREATE INDEX ix_transactions_receiver_id ON transactions (account_of_receiver, transaction_id);
+
+-- Unpaid installments of a loan in due date order
+CREATE INDEX ix_installment_loan_paid_due ON installment (loan_id, is_paid, due_date);
+
+-- Active deposits of a client by type
+CREATE INDEX ix_deposits_client_type_active ON deposits (client, deposit_type, is_active);
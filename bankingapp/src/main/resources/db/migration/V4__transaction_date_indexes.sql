@@ -0,0 +1,4 @@
+-- History of a client filtered by date: the transactions of each of their accounts in a date range
+-- (account = ? AND date_of_transaction BETWEEN ? AND ?), on both sides of the transfer
+CREATE INDEX ix_transactions_sender_date ON transactions (account_of_sender, date_of_transaction);
+CREATE INDEX ix_transactions_receiver_date ON transactions (account_of_receiver, date_of_transaction);
@@ -0,0 +1,27 @@
+-- Read model of the history, one row per account per transaction (AccountHistoryEntry). Existing
+-- transactions are copied in by AccountHistoryService.rebuildIfEmpty on the first start
+CREATE TABLE account_history (
+    account_history_id INT NOT NULL,
+    account_id INT NOT NULL,
+    client_id INT,
+    transaction_id INT NOT NULL,
+    date_of_transaction DATETIME(6) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    counterparty_account_number VARCHAR(255),
+    counterparty_name VARCHAR(255),
+    balance_after DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (account_history_id),
+    CONSTRAINT fk_account_history_account FOREIGN KEY (account_id) REFERENCES accounts (account_id),
+    CONSTRAINT fk_account_history_client FOREIGN KEY (client_id) REFERENCES clients (client_id),
+    CONSTRAINT fk_account_history_transaction FOREIGN KEY (transaction_id) REFERENCES transactions (transaction_id)
+) ENGINE=InnoDB;
+
+-- History of a client and statements of an account are range scans in date order
+CREATE INDEX ix_account_history_client_date ON account_history (client_id, date_of_transaction, transaction_id);
+CREATE INDEX ix_account_history_account_date ON account_history (account_id, date_of_transaction, transaction_id);
+
+-- Pooled id sequence (allocationSize 50), kept by Hibernate in a one-row table like transaction_seq
+CREATE TABLE account_history_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO account_history_seq (next_val) VALUES (1);
@@ -0,0 +1,36 @@
+-- Month-end statements (AccountStatement), one row per account per month, written by StatementService
+CREATE TABLE account_statements (
+    account_statement_id INT NOT NULL,
+    account_id INT NOT NULL,
+    account_number VARCHAR(255),
+    client_id INT NOT NULL,
+    statement_month DATE NOT NULL,
+    opening_balance DECIMAL(19, 2) NOT NULL,
+    closing_balance DECIMAL(19, 2) NOT NULL,
+    total_income DECIMAL(19, 2) NOT NULL,
+    total_expense DECIMAL(19, 2) NOT NULL,
+    transaction_count INT NOT NULL,
+    generated_at DATETIME(6),
+    PRIMARY KEY (account_statement_id),
+    CONSTRAINT uk_account_statements_account_month UNIQUE (account_id, statement_month),
+    CONSTRAINT fk_account_statements_account FOREIGN KEY (account_id) REFERENCES accounts (account_id),
+    CONSTRAINT fk_account_statements_client FOREIGN KEY (client_id) REFERENCES clients (client_id)
+) ENGINE=InnoDB;
+
+-- Statements of a client are read, and a chunk of clients is replaced, by client and month
+CREATE INDEX ix_account_statements_client_month ON account_statements (client_id, statement_month);
+
+CREATE TABLE account_statement_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO account_statement_seq (next_val) VALUES (1);
+
+-- Progress of the statement job, one row per month
+CREATE TABLE statement_runs (
+    statement_month DATE NOT NULL,
+    status ENUM('RUNNING', 'COMPLETED') NOT NULL,
+    last_client_id INT NOT NULL,
+    started_at DATETIME(6),
+    finished_at DATETIME(6),
+    PRIMARY KEY (statement_month)
+) ENGINE=InnoDB;
@@ -0,0 +1,19 @@
+-- Daily balance of every account (AccountBalanceSnapshot), written by BalanceSnapshotService just after
+-- midnight. The unique key is also the index the nearest snapshot of an account is looked up by
+CREATE TABLE account_balance_snapshots (
+    account_balance_snapshot_id INT NOT NULL,
+    account_id INT NOT NULL,
+    snapshot_at DATETIME(6) NOT NULL,
+    balance DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (account_balance_snapshot_id),
+    CONSTRAINT uk_account_balance_snapshots_account_at UNIQUE (account_id, snapshot_at),
+    CONSTRAINT fk_account_balance_snapshots_account FOREIGN KEY (account_id) REFERENCES accounts (account_id)
+) ENGINE=InnoDB;
+
+-- existsBySnapshotAt check of the daily job
+CREATE INDEX ix_account_balance_snapshots_at ON account_balance_snapshots (snapshot_at);
+
+CREATE TABLE account_balance_snapshot_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO account_balance_snapshot_seq (next_val) VALUES (1);
@@ -0,0 +1,21 @@
+-- Append-only double-entry ledger (LedgerEntry) - a DEBIT and a CREDIT row per transaction. Existing
+-- transactions and the opening balances of existing accounts are copied in by LedgerService.backfillIfEmpty
+CREATE TABLE ledger_entries (
+    ledger_entry_id BIGINT NOT NULL,
+    transaction_id INT,
+    account_id INT NOT NULL,
+    side ENUM('DEBIT', 'CREDIT') NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    posted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (ledger_entry_id),
+    CONSTRAINT fk_ledger_entries_account FOREIGN KEY (account_id) REFERENCES accounts (account_id),
+    CONSTRAINT fk_ledger_entries_transaction FOREIGN KEY (transaction_id) REFERENCES transactions (transaction_id)
+) ENGINE=InnoDB;
+
+-- Balances are recomputed per range of accounts
+CREATE INDEX ix_ledger_entries_account ON ledger_entries (account_id, ledger_entry_id);
+
+CREATE TABLE ledger_entry_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+INSERT INTO ledger_entry_seq (next_val) VALUES (1);
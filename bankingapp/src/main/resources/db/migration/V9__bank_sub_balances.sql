@@ -0,0 +1,22 @@
+-- Balances of BANK_LOAN and BANK_DEPOSIT are split into sub-balance rows (BankSubBalance). A transaction
+-- only locks the stripe picked by its counterparty, BankSubBalanceService.consolidate moves the stripes
+-- back into accounts.account_balance
+ALTER TABLE accounts ADD COLUMN sub_balance_stripes INT NOT NULL DEFAULT 0;
+UPDATE accounts SET sub_balance_stripes = 8 WHERE account_number IN ('BANK_LOAN', 'BANK_DEPOSIT');
+
+CREATE TABLE bank_sub_balances (
+    bank_sub_balance_id INT NOT NULL AUTO_INCREMENT,
+    account_id INT NOT NULL,
+    stripe INT NOT NULL,
+    balance DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (bank_sub_balance_id),
+    CONSTRAINT uk_bank_sub_balances_account_stripe UNIQUE (account_id, stripe),
+    CONSTRAINT fk_bank_sub_balances_account FOREIGN KEY (account_id) REFERENCES accounts (account_id)
+) ENGINE=InnoDB;
+
+INSERT INTO bank_sub_balances (account_id, stripe, balance)
+SELECT a.account_id, s.stripe, 0
+FROM accounts a
+JOIN (SELECT 0 AS stripe UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3
+      UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7) s
+  ON s.stripe < a.sub_balance_stripes;
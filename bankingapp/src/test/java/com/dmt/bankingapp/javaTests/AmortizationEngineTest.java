@@ -0,0 +1,93 @@
+package com.dmt.bankingapp.javaTests;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Loan;
+import com.dmt.bankingapp.utils.AmortizationEngine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AmortizationEngineTest {
+
+    @Test
+    void testQuoteTotals() {
+        AmortizationEngine.Quote quote = AmortizationEngine.quote(1000.0, 10.0, 10.0, 12);
+
+        assertEquals(100000, quote.principalGrosze());
+        assertEquals(10000, quote.interestGrosze());
+        assertEquals(10000, quote.commissionGrosze());
+        assertEquals(120000, quote.totalGrosze());
+        assertEquals(12, quote.installmentGrosze().length);
+        assertTrue(Arrays.stream(quote.installmentGrosze()).allMatch(installment -> installment == 10000));
+    }
+
+    @Test
+    void testRemainderGoesToFirstInstallment() {
+        long[] installments = new long[3];
+        AmortizationEngine.splitEqually(100001, installments);
+
+        assertArrayEquals(new long[] {33401, 33300, 33300}, installments);
+        assertEquals(100001, Arrays.stream(installments).sum());
+    }
+
+    @Test
+    void testQuoteMatchesLoanSchedule() {
+        Client client = new Client("Client", false, "password");
+        Account checking = new Account("CHK123", Account.AccountType.CHECKING, client);
+        Account loanAccount = new Account("LOAN123", Account.AccountType.LOAN, client);
+        Loan loan = new Loan(loanAccount, checking, 1234.56, 7.5, 2.0, 7, null);
+        AmortizationEngine.Quote quote = AmortizationEngine.quote(1234.56, 7.5, 2.0, 7);
+
+        loan.setTotalLoanAmout(1234.56 + loan.intrestAmount(1234.56, 7.5, 7) + loan.commisionAmout(1234.56, 2.0));
+        loan.setDateOfLoan(LocalDateTime.now());
+        loan.generateInstallments();
+
+        assertEquals(quote.totalGrosze(), loan.getTotalLoanAmountAsMoney().getGrosze());
+        assertArrayEquals(quote.installmentGrosze(), loan.getInstallments().stream().mapToLong(installment -> installment.getDueAmount().getGrosze()).toArray());
+    }
+
+    @Test
+    void testAnnuitySchedule() {
+        AmortizationEngine.Quote quote = AmortizationEngine.quote(AmortizationEngine.ScheduleKind.ANNUITY, 1200.0, 12.0, 0.0, 12);
+        long[] installments = quote.installmentGrosze();
+
+        assertEquals(7942, quote.interestGrosze());
+        assertEquals(127942, quote.totalGrosze());
+        assertEquals(quote.totalGrosze(), Arrays.stream(installments).sum());
+        assertTrue(Arrays.stream(installments, 0, 11).allMatch(installment -> installment == 10662));
+        assertEquals(10660, installments[11]);
+    }
+
+    @Test
+    void testDecreasingSchedule() {
+        long[] installments = new long[12];
+
+        long interest = AmortizationEngine.fillSchedule(AmortizationEngine.ScheduleKind.DECREASING, 110000, 10000, 12.0, installments);
+
+        assertEquals(7800, interest);
+        assertEquals(11200, installments[0]);
+        assertEquals(11100, installments[1]);
+        assertEquals(10100, installments[11]);
+        assertEquals(127800, Arrays.stream(installments).sum());
+    }
+
+    @Test
+    void testZeroRateAnnuityRepaysPrincipal() {
+        long[] installments = new long[3];
+
+        long interest = AmortizationEngine.fillSchedule(AmortizationEngine.ScheduleKind.ANNUITY, 100001, 0, 0.0, installments);
+
+        assertEquals(0, interest);
+        assertArrayEquals(new long[] {33333, 33333, 33335}, installments);
+    }
+
+    @Test
+    void testQuoteRejectsNonPositiveDuration() {
+        assertThrows(IllegalStateException.class, () -> AmortizationEngine.quote(1000.0, 10.0, 10.0, 0));
+    }
+}
@@ -2,6 +2,7 @@ package com.dmt.bankingapp.javaTests;
 
 
 import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.utils.Money;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
@@ -53,4 +54,24 @@ public class HistoryRecordTests {
         assertEquals(dateOfTransaction, history.dateOfTransaction());
         assertEquals(transactionID, history.transactionID());
     }
+
+    @Test
+    void testHistoryFromReadModelRow() {
+        // Arrange
+        LocalDateTime dateOfTransaction = LocalDateTime.now();
+
+        // Act
+        History expense = new History(Money.of(-210.0), "TestReceiver", "receiverAccount", dateOfTransaction, 7, Money.of(790.5));
+        History income = new History(Money.of(7.5), "TestGiver", "giverAccount", dateOfTransaction, 8, Money.of(798.0));
+
+        // Assert
+        assertEquals("Sending to: ", expense.typeOf());
+        assertEquals("-210.0 zł", expense.amount());
+        assertEquals("790.5 zł", expense.balanceAfter());
+        assertEquals("TestReceiver", expense.contributorName());
+        assertEquals(7, expense.transactionID());
+        assertEquals("Receiving from: ", income.typeOf());
+        assertEquals("+7.5 zł", income.amount());
+        assertEquals("giverAccount", income.contributorAccountNumber());
+    }
 }
@@ -0,0 +1,66 @@
+package com.dmt.bankingapp.javaTests;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.dmt.bankingapp.utils.Money;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "123.4567, 12346",
+        "0.004, 0",
+        "0.01, 1",
+        "10.505, 1051",
+        "-10.505, -1051",
+        "-0.123, -12",
+        "999.9999, 100000",
+        "0.1, 10"
+    })
+    void testOfDoubleRoundsToGrosze(double input, long expectedGrosze) {
+        assertEquals(expectedGrosze, Money.of(input).getGrosze());
+    }
+
+    @Test
+    void testOfBigDecimal() {
+        assertEquals(12346, Money.of(new BigDecimal("123.455")).getGrosze());
+        assertEquals(new BigDecimal("123.46"), Money.of(new BigDecimal("123.455")).toBigDecimal());
+    }
+
+    @Test
+    void testAdditionIsExact() {
+        Money sum = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            sum = sum.plus(Money.of(0.1));
+        }
+        assertEquals(Money.of(1.0), sum);
+        assertEquals(1.0, sum.toDouble());
+    }
+
+    @Test
+    void testArithmeticAndComparison() {
+        Money a = Money.of(100.50);
+        Money b = Money.of(0.75);
+
+        assertEquals(Money.ofGrosze(9975), a.minus(b));
+        assertEquals(Money.ofGrosze(-75), b.negate());
+        assertEquals(b, a.min(b));
+        assertTrue(a.isGreaterThan(b));
+        assertTrue(b.isLessThan(a));
+        assertTrue(b.negate().isNegative());
+        assertTrue(a.minus(a).isZero());
+        assertEquals(Money.ofGrosze(1005), a.multiply(0.1));
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("123.40", Money.of(123.4).toString());
+        assertEquals("-0.05", Money.ofGrosze(-5).toString());
+    }
+}
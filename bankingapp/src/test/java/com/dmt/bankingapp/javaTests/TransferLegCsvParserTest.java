@@ -0,0 +1,48 @@
+package com.dmt.bankingapp.javaTests;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.dmt.bankingapp.record.transactions.TransferLeg;
+import com.dmt.bankingapp.utils.TransferLegCsvParser;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransferLegCsvParserTest {
+
+    @Test
+    void testParseWithHeader() {
+        List<TransferLeg> legs = TransferLegCsvParser.parse("receiver,amount\nACC1,100.50\r\n\nACC2;20\n");
+
+        assertEquals(2, legs.size());
+        assertEquals(new TransferLeg("ACC1", 100.50), legs.get(0));
+        assertEquals(new TransferLeg("ACC2", 20.0), legs.get(1));
+    }
+
+    @Test
+    void testParseWithoutHeader() {
+        List<TransferLeg> legs = TransferLegCsvParser.parse("ACC1,1");
+
+        assertEquals(1, legs.size());
+        assertEquals("ACC1", legs.get(0).receiverAccountNumber());
+    }
+
+    @Test
+    void testParseInvalidAmount() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                TransferLegCsvParser.parse("ACC1,1\nACC2,abc"));
+
+        assertEquals("Line 2 contains invalid amount: abc", exception.getMessage());
+    }
+
+    @Test
+    void testParseMissingColumn() {
+        assertThrows(IllegalArgumentException.class, () -> TransferLegCsvParser.parse("ACC1"));
+    }
+
+    @Test
+    void testParseEmpty() {
+        assertTrue(TransferLegCsvParser.parse("").isEmpty());
+    }
+}
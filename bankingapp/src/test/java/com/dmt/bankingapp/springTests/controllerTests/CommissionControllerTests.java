@@ -20,6 +20,7 @@ import com.dmt.bankingapp.controller.CommissionController;
 import com.dmt.bankingapp.entity.Client;
 import com.dmt.bankingapp.entity.Commission;
 import com.dmt.bankingapp.repository.CommissionRepository;
+import com.dmt.bankingapp.service.CommissionRateCache;
 import com.dmt.bankingapp.service.implementation.DetailsOfLoggedClientImpl;
 
 public class CommissionControllerTests {
@@ -30,6 +31,9 @@ public class CommissionControllerTests {
     @Mock
     private DetailsOfLoggedClientImpl detailsOfLoggedClient;
 
+    @Mock
+    private CommissionRateCache commissionRateCache;
+
     @Mock
     private Model model;
 
@@ -63,6 +67,7 @@ public class CommissionControllerTests {
         // Assert
         assertEquals("adminTemplates/adminPanel", response);
         verify(commissionRepository, times(2)).save(any(Commission.class)); // Adjusted verification
+        verify(commissionRateCache).evict("LOAN_COMMISSION");
     }
 
     @Test
@@ -28,7 +28,7 @@ import com.dmt.bankingapp.repository.AccountRepository;
 import com.dmt.bankingapp.repository.ClientRepository;
 import com.dmt.bankingapp.repository.CommissionRepository;
 import com.dmt.bankingapp.repository.DepositRepository;
-import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.TransferService;
 import com.dmt.bankingapp.service.interfaceClass.DetailsOfLoggedClient;
 
 class DepositControllerTests {
@@ -40,7 +40,7 @@ class DepositControllerTests {
     @Mock
     private DepositRepository depositRepository;
     @Mock
-    private TransactionRepository transactionRepository;
+    private TransferService transferService;
     @Mock
     private CommissionRepository commissionRepository;
     @Mock
@@ -86,7 +86,32 @@ class DepositControllerTests {
         // Assert
         assertEquals("indexTemplates/hello", response);
         verify(depositRepository, times(1)).save(any(Deposit.class));
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(transferService, times(1)).transfer(checkingAccount, bankAccount, 500.0, Transaction.TransactionType.DEPOSIT);
+    }
+
+    @Test
+    void testAddNewDepositBalanceSpentConcurrently() {
+        // Arrange
+        checkingAccount.setAccountBalance(2000.0, false);
+
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn("ClientName");
+        when(clientRepository.findByClientName("ClientName")).thenReturn(client);
+        when(accountRepository.findByAccountNumber("BANK_DEPOSIT")).thenReturn(bankAccount);
+        when(depositRepository.getAllByClient(client)).thenReturn(new ArrayList<>());
+        Commission commission = new Commission();
+        commission.setCommissionRateInPercent(5);
+        when(commissionRepository.findByCommissionOf("DEPOSIT")).thenReturn(commission);
+        when(transferService.transfer(checkingAccount, bankAccount, 500.0, Transaction.TransactionType.DEPOSIT))
+                .thenThrow(new IllegalStateException("You cannot transfer more money than you have on the account!"));
+
+        // Act
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+            depositController.addNewDeposit(500.0, 12, "FIXED", request, mock(Model.class))
+        );
+
+        // Assert
+        assertEquals("You cannot transfer more money than you have on the account!", exception.getReason());
+        verify(depositRepository, never()).save(any(Deposit.class));
     }
 
     @Test
@@ -117,7 +142,7 @@ class DepositControllerTests {
         // Assert
         assertEquals("indexTemplates/hello", response);
         verify(depositRepository, times(1)).save(any(Deposit.class));
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(transferService, times(1)).transfer(bankAccount, checkingAccount, 1100.0, Transaction.TransactionType.DEPOSIT_PAYOUT);
     }
 
 
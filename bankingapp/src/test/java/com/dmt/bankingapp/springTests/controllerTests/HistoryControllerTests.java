@@ -1,10 +1,19 @@
 package com.dmt.bankingapp.springTests.controllerTests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,13 +24,22 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.dmt.bankingapp.controller.HistoryController;
+import com.dmt.bankingapp.entity.Account;
 import com.dmt.bankingapp.entity.Client;
 import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.record.HistoryCacheStats;
+import com.dmt.bankingapp.record.HistoryFilter;
+import com.dmt.bankingapp.repository.AccountRepository;
 import com.dmt.bankingapp.repository.ClientRepository;
+import com.dmt.bankingapp.service.AccountHistoryService;
+import com.dmt.bankingapp.service.HistoryCache;
+import com.dmt.bankingapp.service.HistoryExportService;
 import com.dmt.bankingapp.service.implementation.AccountsOfUserIntoHistoryListImpl;
 import com.dmt.bankingapp.service.implementation.DetailsOfLoggedClientImpl;
+import com.dmt.bankingapp.utils.Money;
 
 public class HistoryControllerTests {
 
@@ -34,6 +52,18 @@ public class HistoryControllerTests {
     @Mock
     private AccountsOfUserIntoHistoryListImpl accountsOfUserIntoHistoryList;
 
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private HistoryExportService historyExportService;
+
+    @Mock
+    private HistoryCache historyCache;
+
+    @Mock
+    private AccountHistoryService accountHistoryService;
+
     @InjectMocks
     private HistoryController historyController;
 
@@ -58,15 +88,48 @@ public class HistoryControllerTests {
         ResponseEntity<ArrayList<History>> expectedResponse = new ResponseEntity<>(historyList, HttpStatus.OK);
 
         when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(nonAdminClient);
-        when(accountsOfUserIntoHistoryList.getStoredHistoryByClient(nonAdminClient)).thenReturn(expectedResponse);
+        when(accountsOfUserIntoHistoryList.getStoredHistoryByClient(nonAdminClient, HistoryFilter.NONE)).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<ArrayList<History>> response = historyController.getHistoryOfIncomeAndExpense(request);
+        ResponseEntity<ArrayList<History>> response = historyController.getHistoryOfIncomeAndExpense(null, null, null, null, null, null, request);
 
         // Assert
         assertEquals(expectedResponse, response);
     }
 
+    @Test
+    void testGetHistoryOfIncomeAndExpenseFiltered() {
+        // Arrange
+        ResponseEntity<ArrayList<History>> expectedResponse = new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
+        HistoryFilter expectedFilter = new HistoryFilter(LocalDate.of(2024, 5, 1).atStartOfDay(), LocalDate.of(2024, 6, 1).atStartOfDay(),
+                HistoryFilter.Direction.EXPENSE, "12345", Money.of(10.0), null);
+
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(nonAdminClient);
+        when(accountsOfUserIntoHistoryList.getStoredHistoryByClient(nonAdminClient, expectedFilter)).thenReturn(expectedResponse);
+
+        // Act
+        ResponseEntity<ArrayList<History>> response = historyController.getHistoryOfIncomeAndExpense(
+                LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31), "expense", " 12345 ", 10.0, null, request);
+
+        // Assert
+        assertEquals(expectedResponse, response);
+    }
+
+    @Test
+    void testGetHistoryOfIncomeAndExpenseInvalidFilters() {
+        // Act
+        ResponseEntity<ArrayList<History>> wrongDirection = historyController.getHistoryOfIncomeAndExpense(null, null, "sideways", null, null, null, request);
+        ResponseEntity<ArrayList<History>> wrongDates = historyController.getHistoryOfIncomeAndExpense(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 5, 1), null, null, null, null, request);
+        ResponseEntity<ArrayList<History>> wrongAmounts = historyController.getHistoryOfIncomeAndExpense(null, null, null, null, 50.0, 10.0, request);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, wrongDirection.getStatusCode());
+        assertEquals("Unsupported direction sideways, use income or expense!", wrongDirection.getHeaders().getFirst("ErrorMessage"));
+        assertEquals(HttpStatus.BAD_REQUEST, wrongDates.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, wrongAmounts.getStatusCode());
+        verifyNoInteractions(accountsOfUserIntoHistoryList);
+    }
+
     @Test
     void testGetHistoryOfAccountByAccountNumberAdminOnlySuccess() {
         // Arrange
@@ -117,4 +180,110 @@ public class HistoryControllerTests {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertEquals("Client with id " + clientId + " does not exist!", headers.getFirst("ErrorMessage"));
     }
+
+    @Test
+    void testExportHistoryGzipped() throws Exception {
+        // Arrange
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(nonAdminClient);
+        when(accountRepository.findByClient(nonAdminClient)).thenReturn(List.of(new Account("number", Account.AccountType.CHECKING, nonAdminClient)));
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("line\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(historyExportService).export(eq(nonAdminClient), eq(HistoryExportService.Format.NDJSON), any(OutputStream.class));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = historyController.exportHistoryOfIncomeAndExpense("ndjson", request);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+        GZIPInputStream unzipped = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()));
+        assertEquals("line\n", new String(unzipped.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExportHistoryUnsupportedFormat() {
+        // Act
+        ResponseEntity<StreamingResponseBody> response = historyController.exportHistoryOfIncomeAndExpense("xml", request);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Unsupported format xml, use csv or ndjson!", response.getHeaders().getFirst("ErrorMessage"));
+        verifyNoInteractions(historyExportService);
+    }
+
+    @Test
+    void testExportHistoryWithoutAccounts() {
+        // Arrange
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(nonAdminClient);
+        when(accountRepository.findByClient(nonAdminClient)).thenReturn(List.of());
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = historyController.exportHistoryOfIncomeAndExpense("csv", request);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verifyNoInteractions(historyExportService);
+    }
+
+    @Test
+    void testGetHistoryCacheStatsAdmin() {
+        // Arrange
+        HistoryCacheStats stats = new HistoryCacheStats(1, 2, 1, 2.0 / 3, 0, 4);
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(adminClient);
+        when(historyCache.getStats()).thenReturn(stats);
+
+        // Act
+        ResponseEntity<HistoryCacheStats> response = historyController.getHistoryCacheStats(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(stats, response.getBody());
+    }
+
+    @Test
+    void testGetHistoryCacheStatsNotAdmin() {
+        // Arrange
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(nonAdminClient);
+
+        // Act
+        ResponseEntity<HistoryCacheStats> response = historyController.getHistoryCacheStats(request);
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(historyCache);
+    }
+
+    @Test
+    void testRebuildAccountHistoryAdmin() {
+        // Arrange
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(adminClient);
+        when(accountHistoryService.rebuild()).thenReturn(6);
+
+        // Act
+        ResponseEntity<String> response = historyController.rebuildAccountHistory(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Account history rebuilt, 6 entries written", response.getBody());
+        verify(historyCache, times(1)).clear();
+    }
+
+    @Test
+    void testRebuildAccountHistoryNotAdmin() {
+        // Arrange
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(nonAdminClient);
+
+        // Act
+        ResponseEntity<String> response = historyController.rebuildAccountHistory(request);
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(accountHistoryService);
+    }
 }
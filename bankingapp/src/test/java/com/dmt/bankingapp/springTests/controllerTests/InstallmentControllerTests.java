@@ -76,11 +76,10 @@ public class InstallmentControllerTests {
         unpaidInstallment.setInstallmentID(1);
         unpaidInstallment.setLoan(activeLoan);
         unpaidInstallment.setInstallmentAmount(500.0);
-        unpaidInstallment.setPaidAmount(0.0);
-        unpaidInstallment.setIsPaid(false);
         unpaidInstallment.setDueDate(LocalDateTime.now().plusDays(30));
 
         activeLoan.getInstallments().add(unpaidInstallment);
+        activeLoan.setNextUnpaidInstallment(unpaidInstallment);
         nonAdminClient.getLoansList().add(activeLoan);
     }
 
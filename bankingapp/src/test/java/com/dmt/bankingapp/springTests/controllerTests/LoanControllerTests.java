@@ -7,6 +7,7 @@ import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -22,8 +23,11 @@ import org.springframework.web.server.ResponseStatusException;
 import com.dmt.bankingapp.controller.LoanController;
 import com.dmt.bankingapp.entity.*;
 import com.dmt.bankingapp.repository.*;
-import com.dmt.bankingapp.service.AccountService;
+import com.dmt.bankingapp.record.loans.LoanQuoteRecord;
+import com.dmt.bankingapp.service.CommissionRateCache;
+import com.dmt.bankingapp.service.LoanOriginationService;
 import com.dmt.bankingapp.service.interfaceClass.DetailsOfLoggedClient;
+import com.dmt.bankingapp.utils.AmortizationEngine;
 
 public class LoanControllerTests {
 
@@ -31,13 +35,10 @@ public class LoanControllerTests {
     private LoanRepository loanRepository;
 
     @Mock
-    private AccountRepository accountRepository;
+    private LoanOriginationService loanOriginationService;
 
     @Mock
-    private TransactionRepository transactionRepository;
-
-    @Mock
-    private AccountService accountService;
+    private CommissionRateCache commissionRateCache;
 
     @Mock
     private ClientRepository clientRepository;
@@ -45,9 +46,6 @@ public class LoanControllerTests {
     @Mock
     private DetailsOfLoggedClient detailsOfLoggedClient;
 
-    @Mock
-    private CommissionRepository commissionRepository;
-
     @InjectMocks
     private LoanController loanController;
 
@@ -76,27 +74,76 @@ public class LoanControllerTests {
 
         when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn("ClientName");
         when(clientRepository.findByClientName("ClientName")).thenReturn(client);
-        when(accountRepository.findByAccountNumber("BANK_LOAN")).thenReturn(bankAccount);
-        when(accountService.addNewAccount(Account.AccountType.LOAN, client)).thenReturn("Account created successfully");
         Account loanAccount = new Account("LOAN123", Account.AccountType.LOAN, client);
-        when(accountService.getLatestAccount()).thenReturn(loanAccount);
-        Commission loanCommission = new Commission();
-        loanCommission.setCommissionRateInPercent(5.0);
-        when(commissionRepository.findByCommissionOf("LOAN_COMMISSION")).thenReturn(loanCommission);
-        Commission loanInterest = new Commission();
-        loanInterest.setCommissionRateInPercent(3.0);
-        when(commissionRepository.findByCommissionOf("LOAN_INTEREST")).thenReturn(loanInterest);
+        Loan loan = new Loan(loanAccount, checkingAccount, principalAmount, 3.0, 5.0, loanDuration, bankAccount);
+        when(loanOriginationService.originate(client, principalAmount, loanDuration, AmortizationEngine.ScheduleKind.EQUAL)).thenReturn(loan);
 
         // Act
-        String response = loanController.addNewLoan(principalAmount, loanDuration, request, model);
+        String response = loanController.addNewLoan(principalAmount, loanDuration, AmortizationEngine.ScheduleKind.EQUAL, request, model);
 
         // Assert
         assertEquals("indexTemplates/hello", response);
-        verify(loanRepository, times(1)).save(any(Loan.class));
-        verify(transactionRepository, times(3)).save(any(Transaction.class));
+        verify(loanOriginationService, times(1)).originate(client, principalAmount, loanDuration, AmortizationEngine.ScheduleKind.EQUAL);
         verify(model).addAttribute("response", "Loan and loan account created successfully");
     }
 
+    @Test
+    void testAddNewLoanBankAccountNotFound() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn("ClientName");
+        when(clientRepository.findByClientName("ClientName")).thenReturn(client);
+        when(loanOriginationService.originate(client, 10000.0, 12, AmortizationEngine.ScheduleKind.EQUAL)).thenThrow(new NoSuchElementException("Bank account has not been found"));
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            loanController.addNewLoan(10000.0, 12, AmortizationEngine.ScheduleKind.EQUAL, request, mock(Model.class));
+        });
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        assertEquals("Bank account has not been found", exception.getReason());
+    }
+
+    @Test
+    void testGetQuoteSuccess() {
+        // Arrange
+        when(commissionRateCache.getRates(anyCollection())).thenReturn(Map.of("LOAN_COMMISSION", 10.0, "LOAN_INTEREST", 10.0));
+
+        // Act
+        LoanQuoteRecord quote = loanController.getQuote(1000.0, 12, AmortizationEngine.ScheduleKind.EQUAL);
+
+        // Assert
+        assertEquals(100.0, quote.interestAmount());
+        assertEquals(100.0, quote.commissionAmount());
+        assertEquals(1200.0, quote.totalLoanAmount());
+        assertEquals(12, quote.installments().length);
+        assertEquals(100.0, quote.installments()[11]);
+        verifyNoInteractions(loanOriginationService);
+    }
+
+    @Test
+    void testGetQuoteInvalidDuration() {
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            loanController.getQuote(1000.0, 0, AmortizationEngine.ScheduleKind.EQUAL);
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(commissionRateCache);
+    }
+
+    @Test
+    void testGetQuoteRatesNotFound() {
+        // Arrange
+        when(commissionRateCache.getRates(anyCollection())).thenReturn(Map.of());
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            loanController.getQuote(1000.0, 12, AmortizationEngine.ScheduleKind.EQUAL);
+        });
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
     @Test
     void testGetAllLoansRequesterNotAdmin() {
         // Arrange
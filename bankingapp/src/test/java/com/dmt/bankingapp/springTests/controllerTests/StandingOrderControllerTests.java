@@ -0,0 +1,127 @@
+package com.dmt.bankingapp.springTests.controllerTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.dmt.bankingapp.controller.StandingOrderController;
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.StandingOrder;
+import com.dmt.bankingapp.record.standingOrders.StandingOrderRecord;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.ClientRepository;
+import com.dmt.bankingapp.service.AccountLookupService;
+import com.dmt.bankingapp.service.StandingOrderService;
+import com.dmt.bankingapp.service.interfaceClass.DetailsOfLoggedClient;
+
+public class StandingOrderControllerTests {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private DetailsOfLoggedClient detailsOfLoggedClient;
+
+    @Mock
+    private StandingOrderService standingOrderService;
+
+    @Mock
+    private AccountLookupService accountLookupService;
+
+    @InjectMocks
+    private StandingOrderController standingOrderController;
+
+    private MockHttpServletRequest request;
+    private Client client;
+    private Client otherClient;
+    private Account giver;
+    private Account receiver;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this); // Initialize mocks
+        // Lookups go to the accounts stubbed on the repository
+        when(accountLookupService.findByAccountNumber(anyString())).thenAnswer(invocation -> accountRepository.findByAccountNumber(invocation.getArgument(0)));
+        request = new MockHttpServletRequest();
+        client = new Client("User", false, "password");
+        client.setClientID(1);
+        otherClient = new Client("Other", false, "password");
+        otherClient.setClientID(2);
+        giver = new Account("testNumber1", Account.AccountType.CHECKING, client);
+        receiver = new Account("testNumber2", Account.AccountType.CHECKING, otherClient);
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(client.getClientName());
+        when(clientRepository.findByClientName(client.getClientName())).thenReturn(client);
+        when(accountRepository.findByAccountNumber("testNumber1")).thenReturn(giver);
+        when(accountRepository.findByAccountNumber("testNumber2")).thenReturn(receiver);
+    }
+
+    @Test
+    void testAddStandingOrderSuccess() {
+        // Arrange
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        StandingOrderRecord created = new StandingOrderRecord(7, "testNumber1", "testNumber2", 100.0, "MONTHLY",
+                startDate.atStartOfDay().plusMinutes(7), true, null, null);
+        when(standingOrderService.create(giver, receiver, 100.0, StandingOrder.Frequency.MONTHLY, startDate)).thenReturn(created);
+
+        // Act
+        StandingOrderRecord response = standingOrderController.addStandingOrder("testNumber1", "testNumber2", 100.0,
+                StandingOrder.Frequency.MONTHLY, startDate, request);
+
+        // Assert
+        assertEquals(created, response);
+    }
+
+    @Test
+    void testAddStandingOrderFromAccountOfOtherClient() {
+        // Act
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                standingOrderController.addStandingOrder("testNumber2", "testNumber1", 100.0,
+                        StandingOrder.Frequency.MONTHLY, LocalDate.now(), request));
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(standingOrderService, never()).create(any(), any(), anyDouble(), any(), any());
+    }
+
+    @Test
+    void testAddStandingOrderInThePast() {
+        // Act
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                standingOrderController.addStandingOrder("testNumber1", "testNumber2", 100.0,
+                        StandingOrder.Frequency.WEEKLY, LocalDate.now().minusDays(1), request));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("Standing order cannot start in the past", exception.getReason());
+    }
+
+    @Test
+    void testCancelStandingOrderNotFound() {
+        // Arrange
+        when(standingOrderService.cancel(9, client)).thenThrow(new NoSuchElementException("Standing order has not been found"));
+
+        // Act
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                standingOrderController.cancelStandingOrder(9, request));
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+}
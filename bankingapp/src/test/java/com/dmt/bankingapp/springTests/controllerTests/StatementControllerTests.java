@@ -0,0 +1,136 @@
+package com.dmt.bankingapp.springTests.controllerTests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.dmt.bankingapp.controller.StatementController;
+import com.dmt.bankingapp.entity.AccountStatement;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.record.statements.StatementRecord;
+import com.dmt.bankingapp.record.statements.StatementRunRecord;
+import com.dmt.bankingapp.repository.AccountStatementRepository;
+import com.dmt.bankingapp.service.StatementService;
+import com.dmt.bankingapp.service.implementation.DetailsOfLoggedClientImpl;
+import com.dmt.bankingapp.utils.Money;
+
+public class StatementControllerTests {
+
+    @Mock
+    private DetailsOfLoggedClientImpl detailsOfLoggedClient;
+
+    @Mock
+    private StatementService statementService;
+
+    @Mock
+    private AccountStatementRepository accountStatementRepository;
+
+    @InjectMocks
+    private StatementController statementController;
+
+    private MockHttpServletRequest request;
+    private Client adminClient;
+    private Client nonAdminClient;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this); // Initialize mocks
+        request = new MockHttpServletRequest();
+        adminClient = new Client("Admin", true, "password");
+        adminClient.setClientID(1);
+        nonAdminClient = new Client("User", false, "password");
+        nonAdminClient.setClientID(2);
+    }
+
+    @Test
+    void testGetStatementsOfMonthSuccess() {
+        // Arrange
+        AccountStatement statement = new AccountStatement(5, "testNumber1", 2, LocalDate.of(2024, 3, 1), Money.of(900.0));
+        statement.addMovement(Money.of(40.0), Money.of(940.0));
+        statement.addMovement(Money.of(-10.0), Money.of(930.0));
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(nonAdminClient);
+        when(accountStatementRepository.findByClientIDAndStatementMonthOrderByAccountNumber(2, LocalDate.of(2024, 3, 1))).thenReturn(List.of(statement));
+
+        // Act
+        ResponseEntity<List<StatementRecord>> response = statementController.getStatementsOfMonth(YearMonth.of(2024, 3), request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        StatementRecord record = response.getBody().get(0);
+        assertEquals("2024-03", record.month());
+        assertEquals(900.0, record.openingBalance());
+        assertEquals(930.0, record.closingBalance());
+        assertEquals(40.0, record.totalIncome());
+        assertEquals(10.0, record.totalExpense());
+        assertEquals(2, record.transactionCount());
+    }
+
+    @Test
+    void testGetStatementsOfMonthNotGenerated() {
+        // Arrange
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(nonAdminClient);
+        when(accountStatementRepository.findByClientIDAndStatementMonthOrderByAccountNumber(anyInt(), any())).thenReturn(List.of());
+
+        // Act
+        ResponseEntity<List<StatementRecord>> response = statementController.getStatementsOfMonth(YearMonth.of(2024, 3), request);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("No statements for 2024-03 have been generated yet!", response.getHeaders().getFirst("ErrorMessage"));
+    }
+
+    @Test
+    void testGenerateStatementsSuccess() {
+        // Arrange
+        StatementRunRecord runRecord = new StatementRunRecord("2024-03", "COMPLETED", 250, 3, 420);
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(adminClient);
+        when(statementService.generate(YearMonth.of(2024, 3))).thenReturn(runRecord);
+
+        // Act
+        ResponseEntity<StatementRunRecord> response = statementController.generateStatements(YearMonth.of(2024, 3), request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(runRecord, response.getBody());
+    }
+
+    @Test
+    void testGenerateStatementsNonAdmin() {
+        // Arrange
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(nonAdminClient);
+
+        // Act
+        ResponseEntity<StatementRunRecord> response = statementController.generateStatements(YearMonth.of(2024, 3), request);
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verify(statementService, never()).generate(any());
+    }
+
+    @Test
+    void testGenerateStatementsAlreadyRunning() {
+        // Arrange
+        when(detailsOfLoggedClient.getLoggedClientInstance(request)).thenReturn(adminClient);
+        when(statementService.generate(any())).thenThrow(new IllegalStateException("Statements are already being generated!"));
+
+        // Act
+        ResponseEntity<StatementRunRecord> response = statementController.generateStatements(YearMonth.of(2024, 3), request);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Statements are already being generated!", response.getHeaders().getFirst("ErrorMessage"));
+    }
+}
@@ -6,6 +6,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -16,7 +18,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.ui.Model;
 import org.springframework.web.server.ResponseStatusException;
@@ -25,10 +30,24 @@ import com.dmt.bankingapp.controller.TransactionController;
 import com.dmt.bankingapp.entity.Account;
 import com.dmt.bankingapp.entity.Client;
 import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.record.balances.BalanceAsOfRecord;
+import com.dmt.bankingapp.record.ledger.ReconciliationRecord;
+import com.dmt.bankingapp.record.transactions.AsyncTransferRecord;
+import com.dmt.bankingapp.record.transactions.BatchTransferResult;
+import com.dmt.bankingapp.record.transactions.TransactionRecord;
+import com.dmt.bankingapp.record.transactions.TransactionTypeReport;
+import com.dmt.bankingapp.record.transactions.TransactionTypeTotal;
+import com.dmt.bankingapp.record.transactions.TransferLeg;
 import com.dmt.bankingapp.repository.AccountRepository;
 import com.dmt.bankingapp.repository.ClientRepository;
 import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.AccountLookupService;
+import com.dmt.bankingapp.service.AsyncTransferService;
+import com.dmt.bankingapp.service.BalanceSnapshotService;
+import com.dmt.bankingapp.service.LedgerService;
+import com.dmt.bankingapp.service.TransferService;
 import com.dmt.bankingapp.service.interfaceClass.DetailsOfLoggedClient;
+import com.dmt.bankingapp.utils.Money;
 
 public class TransactionControllerTests {
 
@@ -44,6 +63,21 @@ public class TransactionControllerTests {
     @Mock
     private DetailsOfLoggedClient detailsOfLoggedClient;
 
+    @Mock
+    private TransferService transferService;
+
+    @Mock
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private AsyncTransferService asyncTransferService;
+
+    @Mock
+    private AccountLookupService accountLookupService;
+
     @InjectMocks
     private TransactionController transactionController;
 
@@ -56,6 +90,8 @@ public class TransactionControllerTests {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this); // Initialize mocks
+        // Lookups go to the accounts stubbed on the repository
+        when(accountLookupService.findByAccountNumber(anyString())).thenAnswer(invocation -> accountRepository.findByAccountNumber(invocation.getArgument(0)));
         request = new MockHttpServletRequest();
         adminClient = new Client("Admin", true, "password");
         adminClient.setClientID(1);
@@ -80,13 +116,10 @@ public class TransactionControllerTests {
         when(accountRepository.findByAccountNumber(checkingAccount.getAccountNumber())).thenReturn(checkingAccount);
         when(accountRepository.findByAccountNumber(receivingAccount.getAccountNumber())).thenReturn(receivingAccount);
         
-        // Create a sample transaction to be returned by the save method
+        // Create a sample transaction to be returned by the transfer service
         Transaction sampleTransaction = new Transaction(checkingAccount, receivingAccount, 100.0);
-        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
-            Transaction transaction = invocation.getArgument(0);
-            transaction.setTransactionID(1); // Simulate saving by setting an ID
-            return transaction;
-        });
+        sampleTransaction.setTransactionID(1); // Simulate saving by setting an ID
+        when(transferService.transfer(checkingAccount, receivingAccount, 100.0, nonAdminClient, null)).thenReturn(sampleTransaction);
 
         // Act
         String viewName = transactionController.addNewTransaction(checkingAccount.getAccountNumber(), receivingAccount.getAccountNumber(), 100.0, request, mockModel);
@@ -95,7 +128,175 @@ public class TransactionControllerTests {
         verify(mockModel, times(1)).addAttribute(eq("add"), eq("Transaction created successfully! Amount transferred: 100.0"));
         verify(mockModel, times(1)).addAttribute(eq("clientAccount"), eq(checkingAccount.getAccountNumber()));
         assertEquals("transactionTemplates/add", viewName);
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        verify(transferService, times(1)).transfer(checkingAccount, receivingAccount, 100.0, nonAdminClient, null);
+    }
+
+    @Test
+    void testAddNewTransactionWithIdempotencyKeyIsTransferred() {
+        // Arrange
+        Model mockModel = mock(Model.class);
+        request.addHeader("Idempotency-Key", "key-1");
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        when(accountRepository.findByAccountNumber(checkingAccount.getAccountNumber())).thenReturn(checkingAccount);
+        when(accountRepository.findByAccountNumber(receivingAccount.getAccountNumber())).thenReturn(receivingAccount);
+        when(transferService.findByIdempotencyKey(nonAdminClient, "key-1")).thenReturn(null);
+        Transaction sampleTransaction = new Transaction(checkingAccount, receivingAccount, 100.0);
+        when(transferService.transfer(checkingAccount, receivingAccount, 100.0, nonAdminClient, "key-1")).thenReturn(sampleTransaction);
+
+        // Act
+        String viewName = transactionController.addNewTransaction(checkingAccount.getAccountNumber(), receivingAccount.getAccountNumber(), 100.0, request, mockModel);
+
+        // Assert
+        assertEquals("transactionTemplates/add", viewName);
+        verify(transferService, times(1)).transfer(checkingAccount, receivingAccount, 100.0, nonAdminClient, "key-1");
+    }
+
+    @Test
+    void testAddNewTransactionRetryWithIdempotencyKeyReturnsOriginalResult() {
+        // Arrange
+        Model mockModel = mock(Model.class);
+        request.setParameter("idempotencyKey", "key-1");
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        Transaction originalTransaction = new Transaction(checkingAccount, receivingAccount, 100.0);
+        when(transferService.findByIdempotencyKey(nonAdminClient, "key-1")).thenReturn(originalTransaction);
+
+        // Act
+        String viewName = transactionController.addNewTransaction(checkingAccount.getAccountNumber(), receivingAccount.getAccountNumber(), 100.0, request, mockModel);
+
+        // Assert
+        assertEquals("transactionTemplates/add", viewName);
+        verify(mockModel, times(1)).addAttribute(eq("add"), eq("Transaction created successfully! Amount transferred: 100.0"));
+        verify(accountRepository, never()).findByAccountNumber(any());
+        verify(transferService, never()).transfer(any(), any(), anyDouble(), any(), any());
+    }
+
+    @Test
+    void testAddNewTransactionReusedIdempotencyKeyWithOtherParameters() {
+        // Arrange
+        request.addHeader("Idempotency-Key", "key-1");
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        Transaction originalTransaction = new Transaction(checkingAccount, receivingAccount, 100.0);
+        when(transferService.findByIdempotencyKey(nonAdminClient, "key-1")).thenReturn(originalTransaction);
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.addNewTransaction(checkingAccount.getAccountNumber(), receivingAccount.getAccountNumber(), 200.0, request, mock(Model.class));
+        });
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, exception.getStatusCode());
+        verify(transferService, never()).transfer(any(), any(), anyDouble(), any(), any());
+    }
+
+    @Test
+    void testAddNewTransactionRejectedAfterConcurrentRetryReturnsOriginalResult() {
+        // Arrange
+        Model mockModel = mock(Model.class);
+        request.addHeader("Idempotency-Key", "key-1");
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        when(accountRepository.findByAccountNumber(checkingAccount.getAccountNumber())).thenReturn(checkingAccount);
+        when(accountRepository.findByAccountNumber(receivingAccount.getAccountNumber())).thenReturn(receivingAccount);
+        Transaction originalTransaction = new Transaction(checkingAccount, receivingAccount, 100.0);
+        when(transferService.findByIdempotencyKey(nonAdminClient, "key-1")).thenReturn(null, originalTransaction);
+        when(transferService.transfer(checkingAccount, receivingAccount, 100.0, nonAdminClient, "key-1"))
+                .thenThrow(new IllegalStateException("You cannot transfer more money than you have on the account!"));
+
+        // Act
+        String viewName = transactionController.addNewTransaction(checkingAccount.getAccountNumber(), receivingAccount.getAccountNumber(), 100.0, request, mockModel);
+
+        // Assert
+        assertEquals("transactionTemplates/add", viewName);
+        verify(mockModel, times(1)).addAttribute(eq("add"), eq("Transaction created successfully! Amount transferred: 100.0"));
+    }
+
+    @Test
+    void testAddNewTransactionDeadlockIsReportedAsConflict() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        when(accountRepository.findByAccountNumber(checkingAccount.getAccountNumber())).thenReturn(checkingAccount);
+        when(accountRepository.findByAccountNumber(receivingAccount.getAccountNumber())).thenReturn(receivingAccount);
+        when(transferService.transfer(checkingAccount, receivingAccount, 100.0, nonAdminClient, null))
+                .thenThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"));
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.addNewTransaction(checkingAccount.getAccountNumber(), receivingAccount.getAccountNumber(), 100.0, request, mock(Model.class));
+        });
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+    }
+
+    @Test
+    void testAddNewTransactionWithTooLongIdempotencyKey() {
+        // Arrange
+        request.addHeader("Idempotency-Key", "k".repeat(101));
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.addNewTransaction(checkingAccount.getAccountNumber(), receivingAccount.getAccountNumber(), 100.0, request, mock(Model.class));
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    void testAddNewTransactionRejectedByTransferService() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        when(accountRepository.findByAccountNumber(checkingAccount.getAccountNumber())).thenReturn(checkingAccount);
+        when(accountRepository.findByAccountNumber(receivingAccount.getAccountNumber())).thenReturn(receivingAccount);
+        when(transferService.transfer(checkingAccount, receivingAccount, 1000.0, nonAdminClient, null))
+                .thenThrow(new IllegalStateException("You cannot transfer more money than you have on the account!"));
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.addNewTransaction(checkingAccount.getAccountNumber(), receivingAccount.getAccountNumber(), 1000.0, request, mock(Model.class));
+        });
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, exception.getStatusCode());
+        assertEquals("You cannot transfer more money than you have on the account!", exception.getReason());
+    }
+
+    @Test
+    void testAddBatchTransactionSuccess() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        when(accountRepository.findByAccountNumber(checkingAccount.getAccountNumber())).thenReturn(checkingAccount);
+        List<TransferLeg> legs = List.of(new TransferLeg(receivingAccount.getAccountNumber(), 100.0));
+        List<BatchTransferResult> expected = List.of(new BatchTransferResult(1, receivingAccount.getAccountNumber(), 100.0, true, 1, "OK"));
+        when(transferService.batchTransfer(checkingAccount, legs)).thenReturn(expected);
+
+        // Act
+        List<BatchTransferResult> results = transactionController.addBatchTransactionFromCsv(checkingAccount.getAccountNumber(), receivingAccount.getAccountNumber() + ",100.0", request);
+
+        // Assert
+        assertEquals(expected, results);
+        verify(transferService, times(1)).batchTransfer(checkingAccount, legs);
+    }
+
+    @Test
+    void testAddBatchTransactionFromNotOwnedAccount() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(adminClient.getClientName());
+        when(clientRepository.findByClientName(adminClient.getClientName())).thenReturn(adminClient);
+        when(accountRepository.findByAccountNumber(checkingAccount.getAccountNumber())).thenReturn(checkingAccount);
+        List<TransferLeg> legs = List.of(new TransferLeg(receivingAccount.getAccountNumber(), 100.0));
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.addBatchTransaction(checkingAccount.getAccountNumber(), legs, request);
+        });
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(transferService, never()).batchTransfer(any(), anyList());
     }
 
     @Test
@@ -139,7 +340,7 @@ public class TransactionControllerTests {
 
         // Act and Assert
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
-            transactionController.getByAccountId("checking1", request, mock(Model.class));
+            transactionController.getByAccountId("checking1", null, 50, request, mock(Model.class));
         });
 
         assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
@@ -155,7 +356,7 @@ public class TransactionControllerTests {
 
         // Act and Assert
         NoSuchElementException exception = assertThrows(NoSuchElementException.class, () -> {
-            transactionController.getByAccountId("checking1", request, mock(Model.class));
+            transactionController.getByAccountId("checking1", null, 50, request, mock(Model.class));
         });
 
         assertEquals("Account not found with account number: checking1", exception.getMessage());
@@ -166,16 +367,17 @@ public class TransactionControllerTests {
         // Arrange
         when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
         when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
-        when(transactionRepository.findByGiver(checkingAccount)).thenReturn(createSampleTransactions(checkingAccount, receivingAccount));
+        when(transactionRepository.findPageByGiver(checkingAccount, Integer.MAX_VALUE, Limit.of(50))).thenReturn(createSampleTransactions(checkingAccount, receivingAccount));
 
         Model model = mock(Model.class);
 
         // Act
-        String viewName = transactionController.getClientOutgoingTransactions(request, model);
+        String viewName = transactionController.getClientOutgoingTransactions(null, 50, request, model);
 
         // Assert
         assertEquals("transactionTemplates/outgoing", viewName);
         verify(model, times(1)).addAttribute(eq("outgoing"), any());
+        verify(model, times(1)).addAttribute("nextCursor", null);
     }
 
     @Test
@@ -183,29 +385,230 @@ public class TransactionControllerTests {
         // Arrange
         when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
         when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
-        when(transactionRepository.findByReceiver(checkingAccount)).thenReturn(createSampleTransactions(receivingAccount, checkingAccount));
+        when(transactionRepository.findPageByReceiver(checkingAccount, Integer.MAX_VALUE, Limit.of(50))).thenReturn(createSampleTransactions(receivingAccount, checkingAccount));
         
         Model model = mock(Model.class);
 
         // Act
-        String viewName = transactionController.getClientIncomingTransactions(request, model);
+        String viewName = transactionController.getClientIncomingTransactions(null, 50, request, model);
 
         // Assert
         assertEquals("transactionTemplates/incoming", viewName);
         verify(model, times(1)).addAttribute(eq("incoming"), any());
     }
 
-    private List<Transaction> createSampleTransactions(Account giver, Account receiver) {
-        giver.setAccountBalance(100, false);
-        Transaction transaction1 = new Transaction(giver, receiver, 100.0);
-        transaction1.setTimestamp(LocalDateTime.now());
-        transaction1.setTransactionID(1);
+    @Test
+    void testGetClientOutgoingTransactionsFullPageReturnsCursor() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        when(transactionRepository.findPageByGiver(checkingAccount, 10, Limit.of(2))).thenReturn(createSampleTransactions(checkingAccount, receivingAccount));
+
+        Model model = mock(Model.class);
+
+        // Act
+        transactionController.getClientOutgoingTransactions(10, 2, request, model);
+
+        // Assert
+        verify(model, times(1)).addAttribute("nextCursor", 1);
+    }
+
+    @Test
+    void testGetClientOutgoingTransactionsInvalidPageSize() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.getClientOutgoingTransactions(null, 1000, request, mock(Model.class));
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    void testGetBalanceAsOfAdmin() {
+        // Arrange
+        LocalDateTime at = LocalDateTime.now().minusDays(3);
+        BalanceAsOfRecord expected = new BalanceAsOfRecord("checking1", at, 420.0, at.toLocalDate().atStartOfDay(), 2);
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(adminClient.getClientName());
+        when(clientRepository.findByClientName(adminClient.getClientName())).thenReturn(adminClient);
+        when(balanceSnapshotService.balanceAsOf("checking1", at)).thenReturn(expected);
+
+        // Act
+        BalanceAsOfRecord result = transactionController.getBalanceAsOf("checking1", at, request);
+
+        // Assert
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void testGetBalanceAsOfNonAdmin() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.getBalanceAsOf("checking1", LocalDateTime.now().minusDays(1), request);
+        });
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(balanceSnapshotService, never()).balanceAsOf(any(), any());
+    }
+
+    @Test
+    void testGetBalanceAsOfUnknownAccount() {
+        // Arrange
+        LocalDateTime at = LocalDateTime.now().minusDays(1);
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(adminClient.getClientName());
+        when(clientRepository.findByClientName(adminClient.getClientName())).thenReturn(adminClient);
+        when(balanceSnapshotService.balanceAsOf("missing", at)).thenThrow(new NoSuchElementException("Account not found with account number: missing"));
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.getBalanceAsOf("missing", at, request);
+        });
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    @Test
+    void testGetTypeReportAdmin() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 4, 1);
+        TransactionTypeTotal total = mock(TransactionTypeTotal.class);
+        when(total.getTransactionCount()).thenReturn(3L);
+        when(total.getTotal()).thenReturn(new BigDecimal("1250.50"));
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(adminClient.getClientName());
+        when(clientRepository.findByClientName(adminClient.getClientName())).thenReturn(adminClient);
+        when(transactionRepository.sumByTypeBetween("LOAN_COMMISSION", from.atStartOfDay(), to.atStartOfDay())).thenReturn(total);
+
+        // Act
+        TransactionTypeReport report = transactionController.getTypeReport(Transaction.TransactionType.LOAN_COMMISSION, from, to, request);
+
+        // Assert
+        assertEquals(new TransactionTypeReport("LOAN_COMMISSION", from, to, 3, 1250.5), report);
+    }
+
+    @Test
+    void testGetTypeReportNonAdmin() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.getTypeReport(Transaction.TransactionType.DEPOSIT, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 1), request);
+        });
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(transactionRepository, never()).sumByTypeBetween(any(), any(), any());
+    }
+
+    @Test
+    void testReconcileLedgerAdmin() {
+        // Arrange
+        ReconciliationRecord expected = new ReconciliationRecord(3, 4, List.of(), false);
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(adminClient.getClientName());
+        when(clientRepository.findByClientName(adminClient.getClientName())).thenReturn(adminClient);
+        when(ledgerService.reconcile(false)).thenReturn(expected);
+
+        // Act
+        ReconciliationRecord result = transactionController.reconcileLedger(false, request);
+
+        // Assert
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void testReconcileLedgerNonAdmin() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.reconcileLedger(true, request);
+        });
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(ledgerService, never()).reconcile(anyBoolean());
+    }
+
+    @Test
+    void testAddAsyncTransactionAccepted() {
+        // Arrange
+        AsyncTransferRecord queued = new AsyncTransferRecord("abc", "QUEUED", "checking1", "receiving1", 100.0, null, null);
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        when(accountRepository.findByAccountNumber("checking1")).thenReturn(checkingAccount);
+        when(accountRepository.findByAccountNumber("receiving1")).thenReturn(receivingAccount);
+        when(asyncTransferService.submit(checkingAccount, receivingAccount, 100.0, nonAdminClient.getClientID())).thenReturn(queued);
+
+        // Act
+        ResponseEntity<AsyncTransferRecord> response = transactionController.addAsyncTransaction("checking1", "receiving1", 100.0, request);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/transaction/async/abc", response.getHeaders().getLocation().toString());
+        assertEquals(queued, response.getBody());
+    }
+
+    @Test
+    void testAddAsyncTransactionFromForeignAccount() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(adminClient.getClientName());
+        when(clientRepository.findByClientName(adminClient.getClientName())).thenReturn(adminClient);
+        when(accountRepository.findByAccountNumber("checking1")).thenReturn(checkingAccount);
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.addAsyncTransaction("checking1", "receiving1", 100.0, request);
+        });
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verify(asyncTransferService, never()).submit(any(), any(), anyDouble(), anyInt());
+    }
+
+    @Test
+    void testAddAsyncTransactionQueueFull() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        when(accountRepository.findByAccountNumber("checking1")).thenReturn(checkingAccount);
+        when(accountRepository.findByAccountNumber("receiving1")).thenReturn(receivingAccount);
+        when(asyncTransferService.submit(any(), any(), anyDouble(), anyInt())).thenThrow(new IllegalStateException("Too many transfers are waiting, please try again later"));
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.addAsyncTransaction("checking1", "receiving1", 100.0, request);
+        });
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+
+    @Test
+    void testGetAsyncTransactionNotFound() {
+        // Arrange
+        when(detailsOfLoggedClient.getNameFromClient(request)).thenReturn(nonAdminClient.getClientName());
+        when(clientRepository.findByClientName(nonAdminClient.getClientName())).thenReturn(nonAdminClient);
+        when(asyncTransferService.getStatus("unknown", nonAdminClient.getClientID())).thenReturn(null);
+
+        // Act and Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+            transactionController.getAsyncTransaction("unknown", request);
+        });
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
 
-        giver.setAccountBalance(200, false);
-        Transaction transaction2 = new Transaction(giver, receiver, 200.0);
-        transaction2.setTimestamp(LocalDateTime.now().minusDays(1));
-        transaction2.setTransactionID(2);
+    private List<TransactionRecord> createSampleTransactions(Account giver, Account receiver) {
+        TransactionRecord transaction1 = new TransactionRecord(2, LocalDateTime.now(), Money.of(200.0), giver.getAccountNumber(), receiver.getAccountNumber());
+        TransactionRecord transaction2 = new TransactionRecord(1, LocalDateTime.now().minusDays(1), Money.of(100.0), giver.getAccountNumber(), receiver.getAccountNumber());
 
         return Arrays.asList(transaction1, transaction2);
     }
-}
\ No newline at end of file
+}
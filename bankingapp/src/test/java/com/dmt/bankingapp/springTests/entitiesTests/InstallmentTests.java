@@ -5,6 +5,8 @@ import com.dmt.bankingapp.entity.Account.AccountType;
 import com.dmt.bankingapp.entity.Client;
 import com.dmt.bankingapp.entity.Installment;
 import com.dmt.bankingapp.entity.Loan;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.entity.Transaction.InstallmentPayment;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -127,29 +129,33 @@ public class InstallmentTests {
         Loan foundLoan = entityManager.find(Loan.class, loan.getLoanID());
         List<Installment> foundInstallments = foundLoan.getInstallments();
 
-        double testInstallmentAmount = foundInstallments.get(0).getInstallmentAmount();
         double overpayment = 120.50;
-
-        // Act - Simulate installment payments
+        double paymentAmount = overpayment;
         for (int i = 0; i < 3; i++) {
-            Installment installment = foundInstallments.get(i);
-            installment.setIsPaid(true);
-            installment.setPaidAmount(testInstallmentAmount);
-            entityManager.persist(installment);
+            paymentAmount += foundInstallments.get(i).getInstallmentAmount();
         }
-        Installment overpaidInstallment = foundInstallments.get(3);
-        overpaidInstallment.setPaidAmount(overpayment);
-        entityManager.persist(overpaidInstallment);
+        loanAccount.setLoan(foundLoan);
+        foundLoan.setIsActive(true);
+        checkingAccount.setAccountBalance(100000.0, false);
 
-        // Assert
+        // Act - Allocate a payment over the installments
+        Transaction payment = new Transaction(checkingAccount, loanAccount, paymentAmount);
+        List<InstallmentPayment> installmentPayments = payment.getInstallmentPayments();
+
+        // Assert - the payment is only allocated, the installments are changed once it is written
         assertNotNull(foundInstallments);
-        assertTrue(foundInstallments.get(0).getIsPaid());
-        assertTrue(foundInstallments.get(1).getIsPaid());
-        assertTrue(foundInstallments.get(2).getIsPaid());
-        assertFalse(foundInstallments.get(3).getIsPaid());
-        assertEquals(overpayment, foundInstallments.get(3).getPaidAmount(), 0.01);
-        assertFalse(foundInstallments.get(4).getIsPaid());
-        assertEquals(0, foundInstallments.get(4).getPaidAmount(), 0.01);
+        assertEquals(4, installmentPayments.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(foundInstallments.get(i), installmentPayments.get(i).installment());
+            assertTrue(installmentPayments.get(i).isPaid());
+            assertEquals(foundInstallments.get(i).getInstallmentAmountAsMoney(), installmentPayments.get(i).paidAmount());
+        }
+        assertEquals(foundInstallments.get(3), installmentPayments.get(3).installment());
+        assertFalse(installmentPayments.get(3).isPaid());
+        assertEquals(overpayment, installmentPayments.get(3).paidAmount().toDouble(), 0.01);
+        assertFalse(foundInstallments.get(0).getIsPaid());
+        assertEquals(0, foundInstallments.get(3).getPaidAmount(), 0.01);
+        assertEquals(foundInstallments.get(3), foundLoan.getNextUnpaidInstallment());
     }
 
     @Test
@@ -184,16 +190,19 @@ public class InstallmentTests {
         Loan foundLoan = entityManager.find(Loan.class, loan.getLoanID());
         List<Installment> foundInstallments = foundLoan.getInstallments();
 
-        // Act - Simulate full repayment
-        for (Installment installment : foundInstallments) {
-            installment.setIsPaid(true);
-            installment.setPaidAmount(installment.getInstallmentAmount());
-            entityManager.persist(installment);
-        }
+        double paymentAmount = foundInstallments.stream().mapToDouble(Installment::getInstallmentAmount).sum();
+        loanAccount.setLoan(foundLoan);
+        foundLoan.setIsActive(true);
+        checkingAccount.setAccountBalance(100000.0, false);
+
+        // Act - Allocate a full repayment
+        Transaction payment = new Transaction(checkingAccount, loanAccount, paymentAmount);
 
         // Assert
         assertEquals(loanDuration, foundInstallments.size());
-        boolean allInstallmentsPaid = foundInstallments.stream().allMatch(Installment::getIsPaid);
+        assertEquals(loanDuration, payment.getInstallmentPayments().size());
+        boolean allInstallmentsPaid = payment.getInstallmentPayments().stream().allMatch(InstallmentPayment::isPaid);
         assertTrue(allInstallmentsPaid);
+        assertFalse(foundLoan.getIsActive());
     }
 }
\ No newline at end of file
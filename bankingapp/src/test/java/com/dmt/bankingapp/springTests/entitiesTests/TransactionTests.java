@@ -60,6 +60,7 @@ public class TransactionTests {
 
         assertEquals(initialAmount - transactionAmount, foundGiverAccount.getAccountBalance());
         assertEquals(transactionAmount, foundReceiverAccount.getAccountBalance());
+        assertEquals(Transaction.TransactionType.TRANSFER, transaction.getTransactionType());
     }
 
     @Test
@@ -435,7 +436,46 @@ public class TransactionTests {
 
         // Assert
         assertEquals(testLoan.getLeftToPay(), left);
+        assertEquals(Transaction.TransactionType.INSTALLMENT_PAYMENT, testTransaction.getTransactionType());
     }
 
-    
+    @Test
+    public void testTransactionWithStripedBankAccount() {
+        // Arrange
+        Client bankClient = new Client("bankSTERS", true, "12345");
+        Client customer = new Client("customer", false, "09876");
+        entityManager.persist(bankClient);
+        entityManager.persist(customer);
+
+        Account bankAccount = new Account("bankAccNum", AccountType.BANK, bankClient);
+        Account checkingAccount = new Account("checkingAccNum", AccountType.CHECKING, customer);
+        double bankBalance = 1000.0;
+        bankAccount.setAccountBalance(bankBalance, false);
+        bankAccount.setSubBalanceStripes(4);
+        entityManager.persist(bankAccount);
+        entityManager.persist(checkingAccount);
+
+        // Act
+        new Transaction(bankAccount, checkingAccount, 300.0);
+
+        // Assert - the bank side is booked on a sub-balance when the transaction is saved
+        assertEquals(bankBalance, bankAccount.getAccountBalance());
+        assertEquals(300.0, checkingAccount.getAccountBalance());
+    }
+
+    @Test
+    public void testStripesOnlyForBankAccounts() {
+        // Arrange
+        Client customer = new Client("customer", false, "09876");
+        Account checkingAccount = new Account("checkingAccNum", AccountType.CHECKING, customer);
+
+        // Act
+        IllegalArgumentException exceptionThrown = assertThrows(IllegalArgumentException.class, () -> {
+            checkingAccount.setSubBalanceStripes(4);
+        });
+
+        // Assert
+        assertFalse(checkingAccount.isStriped());
+        assertThat(exceptionThrown).isNotNull();
+    }
 }
@@ -0,0 +1,108 @@
+package com.dmt.bankingapp.springTests.repositoryTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.AccountHistoryEntry;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.record.HistoryFilter;
+import com.dmt.bankingapp.repository.AccountHistoryRepository;
+import com.dmt.bankingapp.utils.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+public class AccountHistoryRepositoryTests {
+
+    @Autowired
+    private AccountHistoryRepository accountHistoryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Client owner;
+    private Account accountOne;
+    private Account accountTwo;
+    private Account accountThree;
+
+    private void prepareAccounts() {
+        owner = new Client("Owner",false, "password");
+        Client other = new Client("Other",false, "password");
+        entityManager.persist(owner);
+        entityManager.persist(other);
+
+        accountOne = new Account("testNumber1", Account.AccountType.CHECKING, owner);
+        accountTwo = new Account("testNumber2", Account.AccountType.CHECKING, other);
+        accountThree = new Account("testNumber3", Account.AccountType.CHECKING, other);
+        accountOne.setAccountBalance(5000.0, false);
+        accountTwo.setAccountBalance(5000.0, false);
+        entityManager.persist(accountOne);
+        entityManager.persist(accountTwo);
+        entityManager.persist(accountThree);
+    }
+
+    // Posts the transaction and writes the owner's side of it to the read model
+    private Transaction post(Account giver, Account receiver, double amount, LocalDateTime date) {
+        Transaction transaction = new Transaction(giver, receiver, amount);
+        transaction.setTimestamp(date);
+        entityManager.persist(transaction);
+        boolean expense = giver == accountOne;
+        Account counterparty = expense ? receiver : giver;
+        entityManager.persist(new AccountHistoryEntry(accountOne, owner, transaction.getTransactionID(), date,
+                expense ? Money.of(-amount) : Money.of(amount), counterparty.getAccountNumber(), counterparty.getClient().getClientName(),
+                accountOne.getAccountBalanceAsMoney()));
+        return transaction;
+    }
+
+    @Test
+    @Transactional
+    public void accountHistoryRepositoryTestFindHistoryOfClient(){
+        //arrange
+        prepareAccounts();
+        Transaction sent = post(accountOne, accountTwo, 20.0, LocalDateTime.of(2024, 5, 10, 12, 0));
+        Transaction received = post(accountTwo, accountOne, 5.0, LocalDateTime.of(2024, 5, 1, 12, 0));
+        //act
+        List<History> history = accountHistoryRepository.findHistoryOfClient(owner);
+        //assert
+        assertThat(history).extracting(History::transactionID).containsExactly(received.getTransactionID(), sent.getTransactionID());
+        assertEquals("Receiving from: ", history.get(0).typeOf());
+        assertEquals("+5.0 zł", history.get(0).amount());
+        assertEquals("Other", history.get(1).contributorName());
+        assertEquals("-20.0 zł", history.get(1).amount());
+        assertEquals("4980.0 zł", history.get(1).balanceAfter());
+    }
+
+    @Test
+    @Transactional
+    public void accountHistoryRepositoryTestFindHistoryOfClientFiltered(){
+        //arrange
+        prepareAccounts();
+        Transaction april = post(accountOne, accountTwo, 10.0, LocalDateTime.of(2024, 4, 30, 23, 59));
+        Transaction maySent = post(accountOne, accountTwo, 50.0, LocalDateTime.of(2024, 5, 10, 12, 0));
+        Transaction mayToOther = post(accountOne, accountThree, 70.0, LocalDateTime.of(2024, 5, 11, 12, 0));
+        Transaction mayReceived = post(accountTwo, accountOne, 5.0, LocalDateTime.of(2024, 5, 12, 12, 0));
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 6, 1, 0, 0);
+        //act
+        List<History> may = accountHistoryRepository.findHistoryOfClient(owner, new HistoryFilter(from, to, null, null, null, null));
+        List<History> mayExpenses = accountHistoryRepository.findHistoryOfClient(owner, new HistoryFilter(from, to, HistoryFilter.Direction.EXPENSE, null, null, null));
+        List<History> withCounterparty = accountHistoryRepository.findHistoryOfClient(owner, new HistoryFilter(null, null, null, "testNumber2", null, null));
+        List<History> byAmount = accountHistoryRepository.findHistoryOfClient(owner, new HistoryFilter(null, null, null, null, Money.of(10.0), Money.of(50.0)));
+        List<History> incomeByAmount = accountHistoryRepository.findHistoryOfClient(owner, new HistoryFilter(null, null, HistoryFilter.Direction.INCOME, null, Money.of(1.0), null));
+        //assert
+        assertThat(may).extracting(History::transactionID).containsExactly(maySent.getTransactionID(), mayToOther.getTransactionID(), mayReceived.getTransactionID());
+        assertThat(mayExpenses).extracting(History::transactionID).containsExactly(maySent.getTransactionID(), mayToOther.getTransactionID());
+        assertThat(withCounterparty).extracting(History::transactionID).containsExactly(april.getTransactionID(), maySent.getTransactionID(), mayReceived.getTransactionID());
+        assertThat(byAmount).extracting(History::transactionID).containsExactly(april.getTransactionID(), maySent.getTransactionID());
+        assertThat(incomeByAmount).extracting(History::transactionID).containsExactly(mayReceived.getTransactionID());
+    }
+}
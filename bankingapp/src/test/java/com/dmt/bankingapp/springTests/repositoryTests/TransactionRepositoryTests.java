@@ -3,13 +3,17 @@ package com.dmt.bankingapp.springTests.repositoryTests;
 import com.dmt.bankingapp.entity.Account;
 import com.dmt.bankingapp.entity.Client;
 import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.record.transactions.TransactionRecord;
+import com.dmt.bankingapp.record.transactions.TransactionTypeTotal;
 import com.dmt.bankingapp.repository.TransactionRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -148,4 +152,69 @@ public class TransactionRepositoryTests {
         assertThat(foundTransaction.isEmpty()).isFalse();
         assertEquals(foundTransaction.get(0).getReceiver().getClient(), clientTwo);
     }
+
+    @Test
+    @Transactional
+    public void transactionRepositoryTestFindPageByAccount(){
+        //arrange
+        Client clientOne = new Client("Giver",false, "password");
+        Client clientTwo = new Client("Receiver",false, "password");
+        entityManager.persist(clientOne);
+        entityManager.persist(clientTwo);
+
+        Account accountOne = new Account("testNumber1", Account.AccountType.CHECKING, clientOne);
+        Account accountTwo = new Account("testNumber2", Account.AccountType.CHECKING, clientTwo);
+        accountOne.setAccountBalance(5000.0, false);
+        entityManager.persist(accountOne);
+        entityManager.persist(accountTwo);
+        Transaction first = entityManager.persist(new Transaction(accountOne, accountTwo, 10.0));
+        Transaction second = entityManager.persist(new Transaction(accountTwo, accountOne, 5.0));
+        Transaction third = entityManager.persist(new Transaction(accountOne, accountTwo, 30.0));
+        //act
+        List<TransactionRecord> firstPage = transactionRepository.findPageByAccount(accountOne, Integer.MAX_VALUE, Limit.of(2));
+        List<TransactionRecord> secondPage = transactionRepository.findPageByAccount(accountOne, firstPage.get(1).transactionID(), Limit.of(2));
+        List<TransactionRecord> outgoingPage = transactionRepository.findPageByGiver(accountOne, Integer.MAX_VALUE, Limit.of(10));
+        //assert
+        assertThat(firstPage).extracting(TransactionRecord::transactionID).containsExactly(third.getTransactionID(), second.getTransactionID());
+        assertThat(secondPage).extracting(TransactionRecord::transactionID).containsExactly(first.getTransactionID());
+        assertThat(outgoingPage).extracting(TransactionRecord::transactionID).containsExactly(third.getTransactionID(), first.getTransactionID());
+        assertEquals(30.0, firstPage.get(0).amount());
+        assertEquals("testNumber1", firstPage.get(0).giverAccountNumber());
+        assertEquals("testNumber2", firstPage.get(0).receiverAccountNumber());
+    }
+
+    @Test
+    @Transactional
+    public void transactionRepositoryTestSumByTypeBetween(){
+        //arrange
+        Client bankClient = new Client("Bank",true, "password");
+        Client client = new Client("Client",false, "password");
+        entityManager.persist(bankClient);
+        entityManager.persist(client);
+
+        Account bank = new Account("testBank", Account.AccountType.BANK, bankClient);
+        Account loanAccount = new Account("testLoan", Account.AccountType.LOAN, client);
+        Account checking = new Account("testNumber1", Account.AccountType.CHECKING, client);
+        entityManager.persist(bank);
+        entityManager.persist(loanAccount);
+        entityManager.persist(checking);
+        entityManager.persist(new Transaction(loanAccount, checking, 1000.0, Transaction.TransactionType.LOAN_DISBURSEMENT));
+        Transaction old = new Transaction(loanAccount, bank, 7.0, Transaction.TransactionType.LOAN_COMMISSION);
+        old.setTimestamp(LocalDateTime.now().minusYears(1));
+        entityManager.persist(old);
+        entityManager.persist(new Transaction(loanAccount, bank, 10.25, Transaction.TransactionType.LOAN_COMMISSION));
+        entityManager.persist(new Transaction(loanAccount, bank, 4.5, Transaction.TransactionType.LOAN_COMMISSION));
+        entityManager.persist(new Transaction(loanAccount, bank, 30.0, Transaction.TransactionType.LOAN_INTEREST));
+        entityManager.flush();
+        //act
+        TransactionTypeTotal total = transactionRepository.sumByTypeBetween(Transaction.TransactionType.LOAN_COMMISSION.name(),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+        TransactionTypeTotal none = transactionRepository.sumByTypeBetween(Transaction.TransactionType.DEPOSIT.name(),
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+        //assert
+        assertEquals(2, total.getTransactionCount());
+        assertEquals(0, new BigDecimal("14.75").compareTo(total.getTotal()));
+        assertEquals(0, none.getTransactionCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(none.getTotal()));
+    }
 }
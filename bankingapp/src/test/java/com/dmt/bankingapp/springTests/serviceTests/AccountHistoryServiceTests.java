@@ -0,0 +1,88 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.AccountHistoryEntry;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.repository.AccountHistoryRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.AccountHistoryService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+public class AccountHistoryServiceTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AccountHistoryService accountHistoryService;
+
+    @Autowired
+    private AccountHistoryRepository accountHistoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Client clientOne;
+    private Client clientTwo;
+
+    private void postTransactions() {
+        clientOne = new Client("TestClientOne", false, "password");
+        clientTwo = new Client("TestClientTwo", false, "password");
+        entityManager.persist(clientOne);
+        entityManager.persist(clientTwo);
+
+        Account accountOne = new Account("testNumber1", Account.AccountType.CHECKING, clientOne);
+        Account accountTwo = new Account("testNumber2", Account.AccountType.CHECKING, clientTwo);
+        accountOne.setAccountBalance(1000.0, false);
+        entityManager.persist(accountOne);
+        entityManager.persist(accountTwo);
+
+        transactionRepository.save(new Transaction(accountOne, accountTwo, 100.0));
+        transactionRepository.save(new Transaction(accountTwo, accountOne, 40.0));
+        transactionRepository.save(new Transaction(accountOne, accountTwo, 0.5));
+    }
+
+    @Test
+    public void postedTransactionWritesBothSidesTest(){
+        //arrange
+        postTransactions();
+        //act
+        List<History> historyOne = accountHistoryRepository.findHistoryOfClient(clientOne);
+        List<History> historyTwo = accountHistoryRepository.findHistoryOfClient(clientTwo);
+        //assert
+        assertThat(historyOne).extracting(History::amount).containsExactly("-100.0 zł", "+40.0 zł", "-0.5 zł");
+        assertThat(historyOne).extracting(History::balanceAfter).containsExactly("900.0 zł", "940.0 zł", "939.5 zł");
+        assertThat(historyTwo).extracting(History::amount).containsExactly("+100.0 zł", "-40.0 zł", "+0.5 zł");
+        assertThat(historyTwo).extracting(History::balanceAfter).containsExactly("100.0 zł", "60.0 zł", "60.5 zł");
+        assertEquals("TestClientTwo", historyOne.get(0).contributorName());
+    }
+
+    @Test
+    public void rebuildRecreatesRunningBalancesTest(){
+        //arrange
+        postTransactions();
+        entityManager.flush();
+        List<History> posted = accountHistoryRepository.findHistoryOfClient(clientOne);
+        //act
+        int written = accountHistoryService.rebuild();
+        //assert
+        List<AccountHistoryEntry> entries = accountHistoryRepository.findAll();
+        assertEquals(6, entries.size());
+        assertEquals(6, written);
+        assertEquals(posted, accountHistoryRepository.findHistoryOfClient(clientOne));
+    }
+}
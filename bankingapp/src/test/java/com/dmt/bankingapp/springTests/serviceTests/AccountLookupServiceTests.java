@@ -0,0 +1,86 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.service.AccountLookupService;
+import com.dmt.bankingapp.utils.BloomFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+public class AccountLookupServiceTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AccountLookupService accountLookupService;
+
+    private Account createAccount(String accountNumber) {
+        Client client = new Client("TestClient", false, "password");
+        entityManager.persist(client);
+        Account account = new Account(accountNumber, Account.AccountType.CHECKING, client);
+        entityManager.persist(account);
+        return account;
+    }
+
+    @Test
+    public void insertedAccountIsFoundTest(){
+        //arrange
+        Account account = createAccount("testLookup1");
+        //act
+        Account found = accountLookupService.findByAccountNumber("testLookup1");
+        Account foundAgain = accountLookupService.findByAccountNumber("testLookup1");
+        //assert
+        assertTrue(accountLookupService.mightExist("testLookup1"));
+        assertSame(account, found);
+        assertSame(account, foundAgain);
+        assertFalse(accountLookupService.isAccountNumberFree("testLookup1"));
+    }
+
+    @Test
+    public void unknownAccountIsRejectedTest(){
+        //arrange
+        createAccount("testLookup2");
+        //act
+        Account found = accountLookupService.findByAccountNumber("2024DMT3.0_0000000000");
+        //assert
+        assertFalse(accountLookupService.mightExist("2024DMT3.0_0000000000"));
+        assertNull(found);
+        assertTrue(accountLookupService.isAccountNumberFree("2024DMT3.0_0000000000"));
+    }
+
+    @Test
+    public void bloomFilterHasNoFalseNegativesTest(){
+        //arrange
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        //act
+        for (int i = 0; i < 1000; i++) {
+            filter.put("2024DMT3.0_" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 1000; i < 11000; i++) {
+            if (filter.mightContain("2024DMT3.0_" + i)) {
+                falsePositives++;
+            }
+        }
+        //assert
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("2024DMT3.0_" + i));
+        }
+        assertEquals(7, filter.getHashCount());
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
@@ -3,12 +3,14 @@ package com.dmt.bankingapp.springTests.serviceTests;
 import com.dmt.bankingapp.entity.Account;
 import com.dmt.bankingapp.entity.Client;
 import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.service.AccountLookupService;
 import com.dmt.bankingapp.service.AccountService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,6 +18,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class AccountServiceTests {
@@ -23,6 +26,9 @@ class AccountServiceTests {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountLookupService accountLookupService;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -45,6 +51,38 @@ class AccountServiceTests {
         verify(accountRepository, times(0)).save(any(Account.class));
     }
 
+    @Test
+    void testAddNewAccountSkipsTakenNumbers() {
+        // Arrange
+        when(accountLookupService.isAccountNumberFree(anyString())).thenReturn(false, true);
+
+        // Act
+        String response = accountService.addNewAccount(Account.AccountType.CHECKING, client);
+
+        // Assert
+        assertEquals("Account created successfully", response);
+        verify(accountLookupService, times(2)).isAccountNumberFree(anyString());
+        verify(accountRepository, times(1)).save(any(Account.class));
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+    }
+
+    @Test
+    void testAddNewAccountRetriesNumberTakenOnAnotherNode() {
+        // Arrange
+        when(accountLookupService.isAccountNumberFree(anyString())).thenReturn(true);
+        when(accountRepository.save(any(Account.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        String response = accountService.addNewAccount(Account.AccountType.CHECKING, client);
+
+        // Assert
+        assertEquals("Account created successfully", response);
+        verify(accountLookupService, times(2)).isAccountNumberFree(anyString());
+        verify(accountRepository, times(2)).save(any(Account.class));
+    }
+
     @Test
     void testGetLatestAccount() {
         // Arrange
@@ -6,6 +6,7 @@ import com.dmt.bankingapp.entity.Transaction;
 import com.dmt.bankingapp.record.History;
 import com.dmt.bankingapp.repository.AccountRepository;
 import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.HistoryCache;
 import com.dmt.bankingapp.service.implementation.AccountsOfUserIntoHistoryListImpl;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -16,7 +17,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -30,6 +33,13 @@ public class AccountsOfUserIntoHistoryListImplTest {
 
     @Autowired
     private AccountsOfUserIntoHistoryListImpl accountsOfUserIntoHistoryList;
+
+    @Autowired
+    private HistoryCache historyCache;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
     @Test
     public void getStoredHistoryByClientTest(){
         //arrange
@@ -46,7 +56,7 @@ public class AccountsOfUserIntoHistoryListImplTest {
         entityManager.persist(accountTwo);
 
         Transaction transaction = new Transaction(accountOne, accountTwo, 20.0);
-        entityManager.persist(transaction);
+        transactionRepository.save(transaction);
 
         //act
         ResponseEntity<ArrayList<History>> response = accountsOfUserIntoHistoryList.getStoredHistoryByClient(clientOne);
@@ -63,6 +73,96 @@ public class AccountsOfUserIntoHistoryListImplTest {
         assertEquals(body.transactionID(), transaction.getTransactionID());
     }
 
+    @Test
+    public void getStoredHistoryByClientAllAccountsTest(){
+        //arrange
+        Client clientOne = new Client("TestClientOne", false, "password");
+        Client clientTwo = new Client("TestClientTwo", false, "password");
+        entityManager.persist(clientOne);
+        entityManager.persist(clientTwo);
+
+        Account checking = new Account("testNumber1", Account.AccountType.CHECKING, clientOne);
+        Account deposit = new Account("testNumber2", Account.AccountType.DEPOSIT, clientOne);
+        Account third = new Account("testNumber3", Account.AccountType.CHECKING, clientOne);
+        Account other = new Account("testNumber4", Account.AccountType.CHECKING, clientTwo);
+        checking.setAccountBalance(5000.0, false);
+        other.setAccountBalance(5000.0, false);
+        entityManager.persist(checking);
+        entityManager.persist(deposit);
+        entityManager.persist(third);
+        entityManager.persist(other);
+
+        Transaction ownTransfer = new Transaction(checking, deposit, 20.0);
+        ownTransfer.setTimestamp(LocalDateTime.now().minusDays(2));
+        transactionRepository.save(ownTransfer);
+        Transaction incoming = new Transaction(other, third, 30.0);
+        incoming.setTimestamp(LocalDateTime.now().minusDays(1));
+        transactionRepository.save(incoming);
+
+        //act
+        ResponseEntity<ArrayList<History>> response = accountsOfUserIntoHistoryList.getStoredHistoryByClient(clientOne);
+        //assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ArrayList<History> history = response.getBody();
+        assertEquals(3, history.size());
+        assertEquals("Sending to: ", history.get(0).typeOf());
+        assertEquals("-20.0 zł", history.get(0).amount());
+        assertEquals("Receiving from: ", history.get(1).typeOf());
+        assertEquals("+20.0 zł", history.get(1).amount());
+        assertEquals("Receiving from: ", history.get(2).typeOf());
+        assertEquals(other.getAccountNumber(), history.get(2).contributorAccountNumber());
+        assertEquals("TestClientTwo", history.get(2).contributorName());
+    }
+
+    @Test
+    public void getStoredHistoryByClientCachedTest(){
+        //arrange
+        Client clientOne = new Client("TestClientOne", false, "password");
+        Client clientTwo = new Client("TestClientTwo", false, "password");
+        entityManager.persist(clientOne);
+        entityManager.persist(clientTwo);
+
+        Account accountOne = new Account("testNumber1", Account.AccountType.CHECKING, clientOne);
+        Account accountTwo = new Account("testNumber2", Account.AccountType.CHECKING, clientTwo);
+        accountOne.setAccountBalance(5000.0, false);
+        entityManager.persist(accountOne);
+        entityManager.persist(accountTwo);
+        transactionRepository.save(new Transaction(accountOne, accountTwo, 20.0));
+        accountsOfUserIntoHistoryList.getStoredHistoryByClient(clientOne);
+        long hits = historyCache.getStats().hitCount();
+
+        //act
+        ResponseEntity<ArrayList<History>> cached = accountsOfUserIntoHistoryList.getStoredHistoryByClient(clientOne);
+        Transaction next = new Transaction(accountOne, accountTwo, 30.0);
+        transactionRepository.save(next);
+        historyCache.evict(clientOne.getClientID());
+        ResponseEntity<ArrayList<History>> reloaded = accountsOfUserIntoHistoryList.getStoredHistoryByClient(clientOne);
+        //assert
+        assertEquals(hits + 1, historyCache.getStats().hitCount());
+        assertEquals(1, cached.getBody().size());
+        assertEquals(2, reloaded.getBody().size());
+    }
+
+    @Test
+    public void historyLoadedBeforeEvictionIsNotCachedTest(){
+        //arrange
+        int clientID = 424242;
+        historyCache.evict(clientID);
+        long generation = historyCache.generation(clientID);
+        List<History> loaded = List.of(new History("Sending to: ", "TestClientTwo", "testNumber2", "-20.0 zł", LocalDateTime.now(), 1));
+
+        //act
+        historyCache.evict(clientID);
+        historyCache.put(clientID, generation, loaded);
+        historyCache.put(clientID, historyCache.generation(clientID), loaded);
+        List<History> cached = historyCache.get(clientID);
+        historyCache.evict(clientID);
+        historyCache.put(clientID, generation, loaded);
+        //assert
+        assertEquals(loaded, cached);
+        assertThat(historyCache.get(clientID)).isNull();
+    }
+
     @Test
     public void getStoredHistoryByClientErrorTest(){
         //arrange
@@ -0,0 +1,157 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.record.transactions.AsyncTransferRecord;
+import com.dmt.bankingapp.record.transactions.BatchTransferResult;
+import com.dmt.bankingapp.record.transactions.QueuedTransfer;
+import com.dmt.bankingapp.service.AsyncTransferService;
+import com.dmt.bankingapp.service.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AsyncTransferServiceTests {
+
+    @Mock
+    private TransferService transferService;
+
+    @InjectMocks
+    private AsyncTransferService asyncTransferService;
+
+    private Account giver;
+    private Account receiver;
+
+    // Transfers handed to TransferService, in the order they were posted
+    private final List<String> posted = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        giver = new Account("giver1", Account.AccountType.CHECKING, new Client("Giver", false, "password"));
+        giver.setAccountID(2);
+        receiver = new Account("receiver1", Account.AccountType.CHECKING, new Client("Receiver", false, "password"));
+        receiver.setAccountID(1);
+
+        when(transferService.transferInOrder(anyList())).thenAnswer(invocation -> {
+            List<QueuedTransfer> transfers = invocation.getArgument(0);
+            List<BatchTransferResult> results = new ArrayList<>();
+            for (int i = 0; i < transfers.size(); i++) {
+                QueuedTransfer transfer = transfers.get(i);
+                posted.add(transfer.transferID());
+                boolean success = transfer.amount() < 1000;
+                results.add(new BatchTransferResult(i + 1, transfer.receiverAccountNumber(), transfer.amount(), success,
+                        success ? posted.size() : null, success ? "OK" : "You cannot transfer more money than you have on the account!"));
+            }
+            return results;
+        });
+        ReflectionTestUtils.setField(asyncTransferService, "partitionCount", 2);
+        asyncTransferService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncTransferService.stop();
+    }
+
+    @Test
+    void testTransfersOfOneGiverArePostedInOrder() throws Exception {
+        // Arrange
+        List<String> accepted = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            accepted.add(asyncTransferService.submit(giver, receiver, 10.0, 7).transferID());
+        }
+        AsyncTransferRecord last = asyncTransferService.whenDone(accepted.get(49), 7).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("POSTED", last.status());
+        assertEquals(accepted, posted);
+    }
+
+    @Test
+    void testFailedTransferReportsReason() throws Exception {
+        // Act
+        AsyncTransferRecord queued = asyncTransferService.submit(giver, receiver, 5000.0, 7);
+        AsyncTransferRecord done = asyncTransferService.whenDone(queued.transferID(), 7).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("FAILED", done.status());
+        assertNull(done.transactionID());
+        assertEquals("You cannot transfer more money than you have on the account!", done.message());
+        assertEquals(done, asyncTransferService.getStatus(queued.transferID(), 7));
+    }
+
+    @Test
+    void testFailedBatchIsPostedOneByOne() throws Exception {
+        // Arrange
+        doThrow(new IllegalStateException("Deadlock found when trying to get lock"))
+                .when(transferService).transferInOrder(argThat(list -> list.size() > 1));
+
+        // Act
+        List<String> accepted = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            accepted.add(asyncTransferService.submit(giver, receiver, 10.0, 7).transferID());
+        }
+        for (String transferID : accepted) {
+            asyncTransferService.whenDone(transferID, 7).get(5, TimeUnit.SECONDS);
+        }
+
+        // Assert
+        for (String transferID : accepted) {
+            assertEquals("POSTED", asyncTransferService.getStatus(transferID, 7).status());
+        }
+    }
+
+    @Test
+    void testStopWaitsForBatchInProgressAndRefusesNewTransfers() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            QueuedTransfer transfer = invocation.<List<QueuedTransfer>>getArgument(0).get(0);
+            return List.of(new BatchTransferResult(1, transfer.receiverAccountNumber(), transfer.amount(), true, 1, "OK"));
+        }).when(transferService).transferInOrder(anyList());
+        AsyncTransferRecord queued = asyncTransferService.submit(giver, receiver, 10.0, 7);
+        started.await(5, TimeUnit.SECONDS);
+
+        // Act
+        Thread stopping = new Thread(asyncTransferService::stop);
+        stopping.start();
+        release.countDown();
+        stopping.join(5000);
+
+        // Assert
+        assertEquals("POSTED", asyncTransferService.getStatus(queued.transferID(), 7).status());
+        assertThrows(IllegalStateException.class, () -> asyncTransferService.submit(giver, receiver, 10.0, 7));
+    }
+
+    @Test
+    void testStatusOfOtherClientIsNotFound() {
+        // Act
+        AsyncTransferRecord queued = asyncTransferService.submit(giver, receiver, 10.0, 7);
+
+        // Assert
+        assertNull(asyncTransferService.getStatus(queued.transferID(), 8));
+        assertNull(asyncTransferService.whenDone(queued.transferID(), 8));
+    }
+}
@@ -0,0 +1,123 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.record.balances.BalanceAsOfRecord;
+import com.dmt.bankingapp.repository.AccountBalanceSnapshotRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.BalanceSnapshotService;
+import com.dmt.bankingapp.utils.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+public class BalanceSnapshotServiceTests {
+
+    private static final LocalDateTime MARCH_2 = LocalDateTime.of(2024, 3, 2, 0, 0);
+    private static final LocalDateTime MARCH_3 = LocalDateTime.of(2024, 3, 3, 0, 0);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private BalanceSnapshotService balanceSnapshotService;
+
+    @Autowired
+    private AccountBalanceSnapshotRepository accountBalanceSnapshotRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Account accountOne;
+
+    private void post(Account giver, Account receiver, double amount, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction(giver, receiver, amount);
+        transaction.setTimestamp(timestamp);
+        transactionRepository.save(transaction);
+    }
+
+    // Balances of accountOne: 1000 until March 1 10:00, 900 until March 2 10:00, 940 until March 3 10:00, 930 after
+    private void postTransactions() {
+        Client clientOne = new Client("TestClientOne", false, "password");
+        Client clientTwo = new Client("TestClientTwo", false, "password");
+        entityManager.persist(clientOne);
+        entityManager.persist(clientTwo);
+
+        accountOne = new Account("testNumber1", Account.AccountType.CHECKING, clientOne);
+        Account accountTwo = new Account("testNumber2", Account.AccountType.CHECKING, clientTwo);
+        accountOne.setAccountBalance(1000.0, false);
+        entityManager.persist(accountOne);
+        entityManager.persist(accountTwo);
+
+        post(accountOne, accountTwo, 100.0, LocalDateTime.of(2024, 3, 1, 10, 0));
+        post(accountTwo, accountOne, 40.0, LocalDateTime.of(2024, 3, 2, 10, 0));
+        post(accountOne, accountTwo, 10.0, LocalDateTime.of(2024, 3, 3, 10, 0));
+    }
+
+    @Test
+    public void takeSnapshotBalancesAtMomentTest(){
+        //arrange
+        postTransactions();
+        //act
+        int written = balanceSnapshotService.takeSnapshot(MARCH_2);
+        int writtenAgain = balanceSnapshotService.takeSnapshot(MARCH_2);
+        //assert
+        assertEquals(written, accountBalanceSnapshotRepository.count());
+        assertEquals(0, writtenAgain);
+        assertEquals(Money.of(900.0), accountBalanceSnapshotRepository
+                .findFirstByAccountIDAndSnapshotAtLessThanEqualOrderBySnapshotAtDesc(accountOne.getAccountID(), MARCH_2).get().getBalance());
+    }
+
+    @Test
+    public void balanceAsOfReplaysFromNearestSnapshotTest(){
+        //arrange
+        postTransactions();
+        balanceSnapshotService.takeSnapshot(MARCH_2);
+        balanceSnapshotService.takeSnapshot(MARCH_3);
+        //act
+        BalanceAsOfRecord afternoon = balanceSnapshotService.balanceAsOf("testNumber1", LocalDateTime.of(2024, 3, 2, 15, 0));
+        BalanceAsOfRecord morning = balanceSnapshotService.balanceAsOf("testNumber1", LocalDateTime.of(2024, 3, 3, 9, 0));
+        //assert
+        assertEquals(940.0, afternoon.balance());
+        assertEquals(MARCH_2, afternoon.snapshotAt());
+        assertEquals(1, afternoon.movementsReplayed());
+        assertEquals(940.0, morning.balance());
+        assertEquals(MARCH_3, morning.snapshotAt());
+        assertEquals(0, morning.movementsReplayed());
+    }
+
+    @Test
+    public void balanceAsOfBeforeFirstSnapshotTest(){
+        //arrange
+        postTransactions();
+        //act
+        BalanceAsOfRecord withoutSnapshots = balanceSnapshotService.balanceAsOf("testNumber1", LocalDateTime.of(2024, 3, 1, 12, 0));
+        balanceSnapshotService.takeSnapshot(MARCH_3);
+        BalanceAsOfRecord beforeSnapshot = balanceSnapshotService.balanceAsOf("testNumber1", LocalDateTime.of(2024, 2, 28, 12, 0));
+        //assert
+        assertEquals(900.0, withoutSnapshots.balance());
+        assertNull(withoutSnapshots.snapshotAt());
+        assertEquals(1000.0, beforeSnapshot.balance());
+        assertEquals(MARCH_3, beforeSnapshot.snapshotAt());
+        assertEquals(2, beforeSnapshot.movementsReplayed());
+    }
+
+    @Test
+    public void balanceAsOfUnknownAccountTest(){
+        //act and assert
+        assertThrows(NoSuchElementException.class, () -> balanceSnapshotService.balanceAsOf("missing", LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,143 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.BankSubBalance;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.record.History;
+import com.dmt.bankingapp.repository.AccountHistoryRepository;
+import com.dmt.bankingapp.repository.BankSubBalanceRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.AccountHistoryService;
+import com.dmt.bankingapp.service.BankSubBalanceService;
+import com.dmt.bankingapp.utils.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+public class BankSubBalanceServiceTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private BankSubBalanceService bankSubBalanceService;
+
+    @Autowired
+    private BankSubBalanceRepository bankSubBalanceRepository;
+
+    @Autowired
+    private AccountHistoryRepository accountHistoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountHistoryService accountHistoryService;
+
+    private Client bankOwner;
+    private Account bank;
+    private Account accountOne;
+    private Account accountTwo;
+
+    // Striped bank account with 1000 on its own row, paying out to two checking accounts of other clients
+    private void postTransfers() {
+        bankOwner = new Client("TestBankOwner", true, "password");
+        Client clientOne = new Client("TestClientOne", false, "password");
+        Client clientTwo = new Client("TestClientTwo", false, "password");
+        entityManager.persist(bankOwner);
+        entityManager.persist(clientOne);
+        entityManager.persist(clientTwo);
+
+        bank = new Account("testBank", Account.AccountType.BANK, bankOwner);
+        bank.setAccountBalance(1000.0, false);
+        bank.setSubBalanceStripes(4);
+        accountOne = new Account("testNumber1", Account.AccountType.CHECKING, clientOne);
+        accountTwo = new Account("testNumber2", Account.AccountType.CHECKING, clientTwo);
+        entityManager.persist(bank);
+        entityManager.persist(accountOne);
+        entityManager.persist(accountTwo);
+        bankSubBalanceService.createMissingStripes();
+
+        transactionRepository.save(new Transaction(bank, accountOne, 100.0));
+        transactionRepository.save(new Transaction(bank, accountTwo, 40.0));
+        transactionRepository.save(new Transaction(accountOne, bank, 10.0));
+    }
+
+    @Test
+    public void transfersChangeStripesInsteadOfAccountTest(){
+        //arrange
+        postTransfers();
+        //act
+        entityManager.flush();
+        entityManager.clear();
+        Account stored = entityManager.find(Account.class, bank.getAccountID());
+        List<BankSubBalance> stripes = bankSubBalanceRepository.findByAccountIDOrderByStripe(bank.getAccountID());
+        //assert
+        assertEquals(1000.0, stored.getAccountBalance());
+        assertEquals(4, stripes.size());
+        assertEquals(Money.of(870.0), bankSubBalanceService.balanceOf(stored));
+        assertEquals(Money.of(-90.0), stripes.get(BankSubBalanceService.stripeOf(stored, accountOne)).getBalance());
+        assertEquals(Money.of(-40.0), stripes.get(BankSubBalanceService.stripeOf(stored, accountTwo)).getBalance());
+        assertEquals(Money.of(90.0), entityManager.find(Account.class, accountOne.getAccountID()).getAccountBalanceAsMoney());
+    }
+
+    @Test
+    public void historyShowsAggregatedBalanceTest(){
+        //arrange
+        postTransfers();
+        //act
+        List<History> history = accountHistoryRepository.findHistoryOfClient(bankOwner);
+        //assert
+        assertThat(history).extracting(History::balanceAfter).containsExactly("900.0 zł", "860.0 zł", "870.0 zł");
+    }
+
+    @Test
+    public void historyAfterConsolidationContinuesFromTotalTest(){
+        //arrange
+        postTransfers();
+        bankSubBalanceService.consolidate();
+        //act
+        transactionRepository.save(new Transaction(bank, accountTwo, 5.0));
+        List<History> history = accountHistoryRepository.findHistoryOfClient(bankOwner);
+        //assert
+        assertThat(history).extracting(History::balanceAfter).containsExactly("900.0 zł", "860.0 zł", "870.0 zł", "865.0 zł");
+    }
+
+    @Test
+    public void rebuildStartsFromAggregatedBalanceTest(){
+        //arrange
+        postTransfers();
+        entityManager.flush();
+        //act
+        accountHistoryService.rebuild();
+        List<History> history = accountHistoryRepository.findHistoryOfClient(bankOwner);
+        //assert
+        assertThat(history).extracting(History::balanceAfter).containsExactly("900.0 zł", "860.0 zł", "870.0 zł");
+    }
+
+    @Test
+    public void consolidateMovesStripesIntoAccountTest(){
+        //arrange
+        postTransfers();
+        //act
+        bankSubBalanceService.consolidate();
+        entityManager.flush();
+        entityManager.clear();
+        Account stored = entityManager.find(Account.class, bank.getAccountID());
+        //assert
+        assertEquals(870.0, stored.getAccountBalance());
+        assertThat(bankSubBalanceRepository.findBalancesOfAccount(bank.getAccountID())).containsOnly(Money.ZERO);
+        assertEquals(Money.of(870.0), bankSubBalanceService.balanceOf(stored));
+    }
+}
@@ -0,0 +1,86 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.HistoryExportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+public class HistoryExportServiceTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private HistoryExportService historyExportService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Client prepareHistory() {
+        Client clientOne = new Client("TestClientOne", false, "password");
+        Client clientTwo = new Client("Test, Client \"Two\"", false, "password");
+        entityManager.persist(clientOne);
+        entityManager.persist(clientTwo);
+
+        Account accountOne = new Account("testNumber1", Account.AccountType.CHECKING, clientOne);
+        Account accountTwo = new Account("testNumber2", Account.AccountType.CHECKING, clientTwo);
+        accountOne.setAccountBalance(5000.0, false);
+        accountTwo.setAccountBalance(5000.0, false);
+        entityManager.persist(accountOne);
+        entityManager.persist(accountTwo);
+
+        Transaction sent = new Transaction(accountOne, accountTwo, 20.0);
+        sent.setTimestamp(LocalDateTime.of(2024, 5, 1, 10, 0));
+        transactionRepository.save(sent);
+        Transaction received = new Transaction(accountTwo, accountOne, 7.5);
+        received.setTimestamp(LocalDateTime.of(2024, 5, 2, 10, 0));
+        transactionRepository.save(received);
+        return clientOne;
+    }
+
+    @Test
+    public void exportCsvTest() throws IOException {
+        //arrange
+        Client client = prepareHistory();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        //act
+        historyExportService.export(client, HistoryExportService.Format.CSV, outputStream);
+        //assert
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(HistoryExportService.CSV_HEADER, lines[0]);
+        assertTrue(lines[1].endsWith(",2024-05-01T10:00,Sending to:,\"Test, Client \"\"Two\"\"\",testNumber2,-20.0 zł,4980.0 zł"));
+        assertTrue(lines[2].endsWith(",2024-05-02T10:00,Receiving from:,\"Test, Client \"\"Two\"\"\",testNumber2,+7.5 zł,4987.5 zł"));
+    }
+
+    @Test
+    public void exportNdjsonTest() throws IOException {
+        //arrange
+        Client client = prepareHistory();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        //act
+        historyExportService.export(client, HistoryExportService.Format.NDJSON, outputStream);
+        //assert
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"typeOf\":\"Sending to: \""));
+        assertTrue(lines[1].contains("\"amount\":\"+7.5 zł\""));
+    }
+}
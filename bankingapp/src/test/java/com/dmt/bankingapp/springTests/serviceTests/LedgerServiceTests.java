@@ -0,0 +1,107 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.LedgerEntry;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.repository.LedgerEntryRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.LedgerChunkReconciler;
+import com.dmt.bankingapp.utils.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+public class LedgerServiceTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private LedgerChunkReconciler ledgerChunkReconciler;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Account bank;
+    private Account accountOne;
+    private Account accountTwo;
+
+    // Every account starts at 0 and gets its money through transactions, so the ledger explains all balances
+    private void postTransactions() {
+        Client clientOne = new Client("TestClientOne", false, "password");
+        Client clientTwo = new Client("TestClientTwo", false, "password");
+        entityManager.persist(clientOne);
+        entityManager.persist(clientTwo);
+
+        bank = new Account("testBank", Account.AccountType.BANK, clientOne);
+        accountOne = new Account("testNumber1", Account.AccountType.CHECKING, clientOne);
+        accountTwo = new Account("testNumber2", Account.AccountType.CHECKING, clientTwo);
+        entityManager.persist(bank);
+        entityManager.persist(accountOne);
+        entityManager.persist(accountTwo);
+
+        transactionRepository.save(new Transaction(bank, accountOne, 100.0));
+        transactionRepository.save(new Transaction(accountOne, accountTwo, 30.0));
+    }
+
+    @Test
+    public void postedTransactionWritesDebitAndCreditTest(){
+        //arrange
+        postTransactions();
+        //act
+        Transaction transaction = transactionRepository.save(new Transaction(accountTwo, accountOne, 12.5));
+        List<LedgerEntry> entries = ledgerEntryRepository.findByTransactionIDOrderByLedgerEntryID(transaction.getTransactionID());
+        //assert
+        assertEquals(2, entries.size());
+        assertEquals(LedgerEntry.Side.DEBIT, entries.get(0).getSide());
+        assertEquals(accountTwo.getAccountID(), entries.get(0).getAccountID());
+        assertEquals(LedgerEntry.Side.CREDIT, entries.get(1).getSide());
+        assertEquals(accountOne.getAccountID(), entries.get(1).getAccountID());
+        assertEquals(Money.of(12.5), entries.get(0).getAmount());
+        assertEquals(Money.ZERO, entries.get(0).getSignedAmount().plus(entries.get(1).getSignedAmount()));
+        assertThat(entries.get(1).getLedgerEntryID()).isGreaterThan(entries.get(0).getLedgerEntryID());
+    }
+
+    @Test
+    public void reconcileChunkMatchesLedgerTest(){
+        //arrange
+        postTransactions();
+        //act
+        LedgerChunkReconciler.ChunkResult result = ledgerChunkReconciler.reconcileChunk(bank.getAccountID(), accountTwo.getAccountID(), false);
+        //assert
+        assertEquals(3, result.accountsChecked());
+        assertEquals(4, result.entriesRead());
+        assertThat(result.mismatches()).isEmpty();
+    }
+
+    @Test
+    public void reconcileChunkRepairsCachedBalanceTest(){
+        //arrange
+        postTransactions();
+        accountOne.setAccountBalance(5.0, false);
+        entityManager.flush();
+        //act
+        LedgerChunkReconciler.ChunkResult result = ledgerChunkReconciler.reconcileChunk(bank.getAccountID(), accountTwo.getAccountID(), true);
+        entityManager.clear();
+        //assert
+        assertEquals(1, result.mismatches().size());
+        assertEquals("testNumber1", result.mismatches().get(0).accountNumber());
+        assertEquals(75.0, result.mismatches().get(0).cachedBalance());
+        assertEquals(70.0, result.mismatches().get(0).ledgerBalance());
+        assertEquals(70.0, entityManager.find(Account.class, accountOne.getAccountID()).getAccountBalance());
+    }
+}
@@ -0,0 +1,114 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Installment;
+import com.dmt.bankingapp.entity.Loan;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.LoanOriginationService;
+import com.dmt.bankingapp.utils.AmortizationEngine;
+import com.dmt.bankingapp.utils.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+public class LoanOriginationServiceTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private LoanOriginationService loanOriginationService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private Client client;
+    private Account checkingAccount;
+
+    private void createClient() {
+        client = new Client("TestLoanTaker", false, "password");
+        entityManager.persist(client);
+        checkingAccount = new Account("testNumber1", Account.AccountType.CHECKING, client);
+        entityManager.persist(checkingAccount);
+        client.setCheckingAccount(checkingAccount);
+    }
+
+    @Test
+    public void originateCreatesLoanWithScheduleTest(){
+        //arrange
+        createClient();
+        //act
+        Loan loan = loanOriginationService.originate(client, 12000.0, 360, AmortizationEngine.ScheduleKind.EQUAL);
+        entityManager.flush();
+        //assert
+        Account loanAccount = loan.getLoanAccount();
+        List<Installment> installments = loan.getInstallments();
+        assertTrue(loan.getIsActive());
+        assertSame(loan, loanAccount.getLoan());
+        assertEquals(Account.AccountType.LOAN, loanAccount.getAccountType());
+        assertEquals(12000.0, checkingAccount.getAccountBalance());
+        assertEquals(360, installments.size());
+        assertThat(installments).allMatch(installment -> installment.getInstallmentID() > 0);
+        Money scheduled = Money.ZERO;
+        for (Installment installment : installments) {
+            scheduled = scheduled.plus(installment.getInstallmentAmountAsMoney());
+        }
+        assertEquals(loan.getTotalLoanAmountAsMoney(), scheduled);
+        assertThat(transactionRepository.findByGiver(loanAccount)).extracting(Transaction::getTransactionType)
+                .containsExactlyInAnyOrder(Transaction.TransactionType.LOAN_DISBURSEMENT, Transaction.TransactionType.LOAN_INTEREST,
+                        Transaction.TransactionType.LOAN_COMMISSION);
+    }
+
+    @Test
+    public void originateAnnuityLoanTest(){
+        //arrange
+        createClient();
+        //act
+        Loan loan = loanOriginationService.originate(client, 12000.0, 24, AmortizationEngine.ScheduleKind.ANNUITY);
+        entityManager.flush();
+        entityManager.clear();
+        //assert
+        Loan stored = entityManager.find(Loan.class, loan.getLoanID());
+        assertEquals(AmortizationEngine.ScheduleKind.ANNUITY, stored.getScheduleKind());
+        Money scheduled = Money.ZERO;
+        for (Installment installment : stored.getInstallments()) {
+            scheduled = scheduled.plus(installment.getInstallmentAmountAsMoney());
+        }
+        assertEquals(stored.getTotalLoanAmountAsMoney(), scheduled);
+        assertEquals(stored.getTotalLoanAmountAsMoney(), stored.getLeftToPayAsMoney());
+    }
+
+    @Test
+    public void invalidLoanWritesNothingTest(){
+        //arrange
+        createClient();
+        long accountsBefore = accountRepository.count();
+        //act
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            loanOriginationService.originate(client, 12000.0, 0, AmortizationEngine.ScheduleKind.EQUAL);
+        });
+        //assert
+        assertEquals("Loan duration has to be at least 1 month!", exception.getMessage());
+        assertEquals(accountsBefore, accountRepository.count());
+        assertEquals(0.0, checkingAccount.getAccountBalance());
+    }
+}
@@ -0,0 +1,124 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Installment;
+import com.dmt.bankingapp.entity.Loan;
+import com.dmt.bankingapp.service.LoanOriginationService;
+import com.dmt.bankingapp.service.LoanPaymentService;
+import com.dmt.bankingapp.service.TransferService;
+import com.dmt.bankingapp.utils.AmortizationEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+public class LoanPaymentServiceTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private LoanOriginationService loanOriginationService;
+
+    @Autowired
+    private LoanPaymentService loanPaymentService;
+
+    @Autowired
+    private TransferService transferService;
+
+    private Account checkingAccount;
+
+    private Loan createLoan(int loanDuration) {
+        Client client = new Client("TestLoanTaker", false, "password");
+        entityManager.persist(client);
+        checkingAccount = new Account("testNumber1", Account.AccountType.CHECKING, client);
+        entityManager.persist(checkingAccount);
+        client.setCheckingAccount(checkingAccount);
+        Loan loan = loanOriginationService.originate(client, 12000.0, loanDuration, AmortizationEngine.ScheduleKind.EQUAL);
+        entityManager.flush();
+        return loan;
+    }
+
+    @Test
+    public void loadsOnlyInstallmentsReachedByPaymentTest(){
+        //arrange
+        Loan loan = createLoan(360);
+        List<Installment> installments = loan.getInstallments();
+        //act
+        loanPaymentService.loadInstallmentsReachedBy(loan.getLoanAccount(), installments.get(0).getInstallmentAmount());
+        //assert
+        List<Installment> loaded = loan.getUnpaidInstallments();
+        assertEquals(2, loaded.size());
+        assertSame(installments.get(0), loaded.get(0));
+        assertSame(installments.get(1), loaded.get(1));
+    }
+
+    @Test
+    public void paymentMovesNextUnpaidInstallmentTest(){
+        //arrange
+        Loan loan = createLoan(360);
+        List<Installment> installments = loan.getInstallments();
+        assertSame(installments.get(0), loan.getNextUnpaidInstallment());
+        //act
+        transferService.transfer(checkingAccount, loan.getLoanAccount(), installments.get(0).getInstallmentAmount());
+        //assert
+        assertTrue(installments.get(0).getIsPaid());
+        assertFalse(installments.get(1).getIsPaid());
+        assertSame(installments.get(1), loan.getNextUnpaidInstallment());
+        assertEquals(installments.get(1).getDueDate(), loan.getNextDueDate());
+        assertTrue(loan.getIsActive());
+    }
+
+    @Test
+    public void paymentOfWholeLoanClearsNextUnpaidInstallmentTest(){
+        //arrange
+        Loan loan = createLoan(3);
+        checkingAccount.setAccountBalance(5000.0, false);
+        entityManager.flush();
+        //act
+        transferService.transfer(checkingAccount, loan.getLoanAccount(), loan.getLeftToPay() + 100.0);
+        //assert
+        assertNull(loan.getNextUnpaidInstallment());
+        assertNull(loan.getNextDueDate());
+        assertFalse(loan.getIsActive());
+        assertTrue(loan.getLeftToPayAsMoney().isZero());
+        assertTrue(loan.getInstallments().stream().allMatch(Installment::getIsPaid));
+    }
+
+    @Test
+    public void paymentWritesPaidInstallmentsTest(){
+        //arrange
+        Loan loan = createLoan(360);
+        List<Installment> installments = loan.getInstallments();
+        double amount = installments.get(0).getInstallmentAmount() + installments.get(1).getInstallmentAmount() + 10.0;
+        //act
+        transferService.transfer(checkingAccount, loan.getLoanAccount(), amount);
+        entityManager.flush();
+        entityManager.clear();
+        //assert
+        Installment first = entityManager.find(Installment.class, installments.get(0).getInstallmentID());
+        Installment third = entityManager.find(Installment.class, installments.get(2).getInstallmentID());
+        Installment fourth = entityManager.find(Installment.class, installments.get(3).getInstallmentID());
+        Loan stored = entityManager.find(Loan.class, loan.getLoanID());
+        assertTrue(first.getIsPaid());
+        assertEquals(first.getInstallmentAmountAsMoney(), first.getPaidAmountAsMoney());
+        assertFalse(third.getIsPaid());
+        assertEquals(10.0, third.getPaidAmount());
+        assertTrue(fourth.getPaidAmountAsMoney().isZero());
+        assertEquals(third.getInstallmentID(), stored.getNextUnpaidInstallment().getInstallmentID());
+        assertEquals(loan.getLeftToPayAsMoney(), stored.getLeftToPayAsMoney());
+    }
+}
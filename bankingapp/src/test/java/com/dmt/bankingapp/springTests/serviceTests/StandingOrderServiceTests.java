@@ -0,0 +1,146 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.StandingOrder;
+import com.dmt.bankingapp.record.standingOrders.StandingOrderExecutionRecord;
+import com.dmt.bankingapp.record.standingOrders.StandingOrderRecord;
+import com.dmt.bankingapp.repository.StandingOrderRepository;
+import com.dmt.bankingapp.service.StandingOrderBatchExecutor;
+import com.dmt.bankingapp.service.StandingOrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+public class StandingOrderServiceTests {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private StandingOrderService standingOrderService;
+
+    @Autowired
+    private StandingOrderBatchExecutor standingOrderBatchExecutor;
+
+    @Autowired
+    private StandingOrderRepository standingOrderRepository;
+
+    private Client clientOne;
+    private Account accountOne;
+    private Account accountTwo;
+
+    private void createAccounts() {
+        clientOne = new Client("TestClientOne", false, "password");
+        Client clientTwo = new Client("TestClientTwo", false, "password");
+        entityManager.persist(clientOne);
+        entityManager.persist(clientTwo);
+
+        accountOne = new Account("testNumber1", Account.AccountType.CHECKING, clientOne);
+        accountTwo = new Account("testNumber2", Account.AccountType.CHECKING, clientTwo);
+        accountOne.setAccountBalance(500.0, false);
+        entityManager.persist(accountOne);
+        entityManager.persist(accountTwo);
+    }
+
+    @Test
+    public void createSpreadsFirstRunOverTheDayTest(){
+        //arrange
+        createAccounts();
+        LocalDate startDate = LocalDate.now().plusDays(3);
+        //act
+        StandingOrderRecord order = standingOrderService.create(accountOne, accountTwo, 100.0, StandingOrder.Frequency.MONTHLY, startDate);
+        //assert
+        assertTrue(order.isActive());
+        assertEquals(startDate.atStartOfDay().plusMinutes(order.standingOrderID() % StandingOrder.EXECUTION_WINDOW_MINUTES), order.nextRunAt());
+        assertEquals(1, standingOrderService.getOrdersOfClient(clientOne).size());
+    }
+
+    @Test
+    public void executeBatchPostsTransferAndSchedulesNextRunTest(){
+        //arrange
+        createAccounts();
+        LocalDate startDate = LocalDate.now();
+        StandingOrderRecord created = standingOrderService.create(accountOne, accountTwo, 100.0, StandingOrder.Frequency.MONTHLY, startDate);
+        LocalDateTime now = startDate.atTime(23, 59);
+        //act
+        int executed = standingOrderBatchExecutor.executeBatch(now, StandingOrderService.BATCH_SIZE);
+        int executedAgain = standingOrderBatchExecutor.executeBatch(now, StandingOrderService.BATCH_SIZE);
+        //assert
+        StandingOrder order = standingOrderRepository.findById(created.standingOrderID()).get();
+        List<StandingOrderExecutionRecord> executions = standingOrderService.getExecutions(order.getStandingOrderID(), clientOne);
+        assertEquals(1, executed);
+        assertEquals(0, executedAgain);
+        assertEquals(400.0, accountOne.getAccountBalance());
+        assertEquals(100.0, accountTwo.getAccountBalance());
+        assertEquals(1, order.getRunCount());
+        assertEquals(startDate.plusMonths(1), order.getNextRunAt().toLocalDate());
+        assertEquals(1, executions.size());
+        assertTrue(executions.get(0).succeeded());
+        assertEquals("OK", order.getLastResult());
+    }
+
+    @Test
+    public void failedRunsCancelOrderTest(){
+        //arrange
+        createAccounts();
+        StandingOrderRecord created = standingOrderService.create(accountOne, accountTwo, 800.0, StandingOrder.Frequency.DAILY, LocalDate.now());
+        //act
+        for (int i = 0; i < StandingOrder.MAX_FAILED_RUNS + 1; i++) {
+            standingOrderBatchExecutor.executeBatch(LocalDate.now().plusDays(i).atTime(23, 59), StandingOrderService.BATCH_SIZE);
+        }
+        //assert
+        StandingOrder order = standingOrderRepository.findById(created.standingOrderID()).get();
+        List<StandingOrderExecutionRecord> executions = standingOrderService.getExecutions(order.getStandingOrderID(), clientOne);
+        assertFalse(order.getIsActive());
+        assertEquals(StandingOrder.MAX_FAILED_RUNS, executions.size());
+        assertFalse(executions.get(0).succeeded());
+        assertNull(executions.get(0).transactionID());
+        assertEquals("You cannot transfer more money than you have on the account!", executions.get(0).message());
+        assertEquals(500.0, accountOne.getAccountBalance());
+    }
+
+    @Test
+    public void lateRunSkipsMissedPeriodsTest(){
+        //arrange
+        createAccounts();
+        LocalDate startDate = LocalDate.now();
+        StandingOrderRecord created = standingOrderService.create(accountOne, accountTwo, 10.0, StandingOrder.Frequency.DAILY, startDate);
+        LocalDateTime now = startDate.plusDays(10).atTime(23, 59);
+        //act
+        int executed = standingOrderBatchExecutor.executeBatch(now, StandingOrderService.BATCH_SIZE);
+        int executedAgain = standingOrderBatchExecutor.executeBatch(now, StandingOrderService.BATCH_SIZE);
+        //assert
+        StandingOrder order = standingOrderRepository.findById(created.standingOrderID()).get();
+        assertEquals(1, executed);
+        assertEquals(0, executedAgain);
+        assertEquals(490.0, accountOne.getAccountBalance());
+        assertEquals(startDate.plusDays(11), order.getNextRunAt().toLocalDate());
+    }
+
+    @Test
+    public void monthlyRunsKeepDayOfMonthTest(){
+        //arrange
+        LocalDate startDate = LocalDate.of(2024, 1, 31);
+        //act
+        LocalDate february = StandingOrder.Frequency.MONTHLY.dateOfRun(startDate, 1);
+        LocalDate march = StandingOrder.Frequency.MONTHLY.dateOfRun(startDate, 2);
+        //assert
+        assertEquals(LocalDate.of(2024, 2, 29), february);
+        assertEquals(LocalDate.of(2024, 3, 31), march);
+    }
+}
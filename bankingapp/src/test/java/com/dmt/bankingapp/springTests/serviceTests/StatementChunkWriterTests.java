@@ -0,0 +1,153 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.AccountStatement;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.repository.AccountStatementRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.BankSubBalanceService;
+import com.dmt.bankingapp.service.StatementChunkWriter;
+import com.dmt.bankingapp.utils.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+public class StatementChunkWriterTests {
+
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 1);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private StatementChunkWriter statementChunkWriter;
+
+    @Autowired
+    private AccountStatementRepository accountStatementRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private BankSubBalanceService bankSubBalanceService;
+
+    private Client clientOne;
+    private Client clientTwo;
+    private Account accountOne;
+
+    private void post(Account giver, Account receiver, double amount, LocalDateTime timestamp) {
+        Transaction transaction = new Transaction(giver, receiver, amount);
+        transaction.setTimestamp(timestamp);
+        transactionRepository.save(transaction);
+    }
+
+    private void postTransactions() {
+        clientOne = new Client("TestClientOne", false, "password");
+        clientTwo = new Client("TestClientTwo", false, "password");
+        entityManager.persist(clientOne);
+        entityManager.persist(clientTwo);
+
+        accountOne = new Account("testNumber1", Account.AccountType.CHECKING, clientOne);
+        Account accountTwo = new Account("testNumber2", Account.AccountType.CHECKING, clientTwo);
+        Account idle = new Account("testNumber3", Account.AccountType.DEPOSIT, clientOne);
+        accountOne.setAccountBalance(1000.0, false);
+        idle.setAccountBalance(250.0, false);
+        entityManager.persist(accountOne);
+        entityManager.persist(accountTwo);
+        entityManager.persist(idle);
+
+        post(accountOne, accountTwo, 100.0, LocalDateTime.of(2024, 2, 20, 12, 0));
+        post(accountTwo, accountOne, 40.0, LocalDateTime.of(2024, 3, 5, 12, 0));
+        post(accountOne, accountTwo, 10.0, LocalDateTime.of(2024, 3, 20, 12, 0));
+        post(accountOne, accountTwo, 30.0, LocalDateTime.of(2024, 4, 2, 12, 0));
+    }
+
+    @Test
+    public void writeChunkOpeningAndClosingBalancesTest(){
+        //arrange
+        postTransactions();
+        //act
+        int written = statementChunkWriter.writeChunk(MARCH, clientOne.getClientID(), clientTwo.getClientID());
+        //assert
+        assertEquals(3, written);
+        List<AccountStatement> statementsOne = accountStatementRepository.findByClientIDAndStatementMonthOrderByAccountNumber(clientOne.getClientID(), MARCH);
+        assertThat(statementsOne).extracting(AccountStatement::getAccountNumber).containsExactly("testNumber1", "testNumber3");
+
+        AccountStatement active = statementsOne.get(0);
+        assertEquals(Money.of(900.0), active.getOpeningBalance());
+        assertEquals(Money.of(930.0), active.getClosingBalance());
+        assertEquals(Money.of(40.0), active.getTotalIncome());
+        assertEquals(Money.of(10.0), active.getTotalExpense());
+        assertEquals(2, active.getTransactionCount());
+
+        AccountStatement idle = statementsOne.get(1);
+        assertEquals(Money.of(250.0), idle.getOpeningBalance());
+        assertEquals(Money.of(250.0), idle.getClosingBalance());
+        assertEquals(0, idle.getTransactionCount());
+
+        AccountStatement other = accountStatementRepository.findByClientIDAndStatementMonthOrderByAccountNumber(clientTwo.getClientID(), MARCH).get(0);
+        assertEquals(Money.of(100.0), other.getOpeningBalance());
+        assertEquals(Money.of(70.0), other.getClosingBalance());
+        assertEquals(Money.of(10.0), other.getTotalIncome());
+        assertEquals(Money.of(40.0), other.getTotalExpense());
+    }
+
+    @Test
+    public void writeChunkOnlyLaterMovementsTest(){
+        //arrange
+        postTransactions();
+        LocalDate january = LocalDate.of(2024, 1, 1);
+        //act
+        statementChunkWriter.writeChunk(january, clientOne.getClientID(), clientOne.getClientID());
+        //assert
+        AccountStatement statement = accountStatementRepository.findByClientIDAndStatementMonthOrderByAccountNumber(clientOne.getClientID(), january).get(0);
+        assertEquals(Money.of(1000.0), statement.getOpeningBalance());
+        assertEquals(Money.of(1000.0), statement.getClosingBalance());
+        assertEquals(0, statement.getTransactionCount());
+    }
+
+    @Test
+    public void writeChunkStripedAccountWithOnlyLaterMovementsTest(){
+        //arrange
+        postTransactions();
+        Account bank = new Account("testBank", Account.AccountType.BANK, clientTwo);
+        bank.setAccountBalance(1000.0, false);
+        bank.setSubBalanceStripes(4);
+        entityManager.persist(bank);
+        bankSubBalanceService.createMissingStripes();
+        post(bank, accountOne, 100.0, LocalDateTime.of(2024, 4, 10, 12, 0));
+        //act
+        statementChunkWriter.writeChunk(MARCH, clientTwo.getClientID(), clientTwo.getClientID());
+        //assert
+        AccountStatement statement = accountStatementRepository.findByClientIDAndStatementMonthOrderByAccountNumber(clientTwo.getClientID(), MARCH).get(0);
+        assertEquals("testBank", statement.getAccountNumber());
+        assertEquals(Money.of(1000.0), statement.getOpeningBalance());
+        assertEquals(Money.of(1000.0), statement.getClosingBalance());
+        assertEquals(0, statement.getTransactionCount());
+    }
+
+    @Test
+    public void writeChunkAgainReplacesStatementsTest(){
+        //arrange
+        postTransactions();
+        statementChunkWriter.writeChunk(MARCH, clientOne.getClientID(), clientTwo.getClientID());
+        //act
+        statementChunkWriter.writeChunk(MARCH, clientOne.getClientID(), clientTwo.getClientID());
+        //assert
+        assertEquals(2, accountStatementRepository.findByClientIDAndStatementMonthOrderByAccountNumber(clientOne.getClientID(), MARCH).size());
+        assertEquals(1, accountStatementRepository.findByClientIDAndStatementMonthOrderByAccountNumber(clientTwo.getClientID(), MARCH).size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.record.transactions.TransferLeg;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.ClientRepository;
+import com.dmt.bankingapp.service.TransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Not @Transactional - every transfer commits on its own thread, so the row locks really overlap. The
+// committed rows would leak into other test classes, hence the context (and its database) is dropped
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class TransferServiceLockingTests {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private Account createAccount(String accountNumber, Client client) {
+        Account account = new Account(accountNumber, Account.AccountType.CHECKING, client);
+        account.setAccountBalance(1000.0, false);
+        return accountRepository.save(account);
+    }
+
+    @Test
+    public void batchesAndSingleTransfersOverSameAccountsDoNotDeadlockTest() throws Exception {
+        //arrange
+        Client client = clientRepository.save(new Client("TestLockingClient", false, "password"));
+        Account first = createAccount("testLock1", client);
+        Account second = createAccount("testLock2", client);
+        Account third = createAccount("testLock3", client);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        //act
+        List<Future<?>> running = new ArrayList<>();
+        running.add(executor.submit(() -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                transferService.batchTransfer(first, List.of(new TransferLeg("testLock3", 1.0), new TransferLeg("testLock2", 1.0)));
+            }
+        }));
+        running.add(executor.submit(() -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                transferService.batchTransfer(third, List.of(new TransferLeg("testLock2", 1.0), new TransferLeg("testLock1", 1.0)));
+            }
+        }));
+        running.add(executor.submit(() -> {
+            for (int i = 0; i < ROUNDS; i++) {
+                transferService.transfer(second, first, 1.0);
+            }
+        }));
+        for (Future<?> transfers : running) {
+            transfers.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        //assert
+        assertEquals(1000.0, accountRepository.findById(first.getAccountID()).get().getAccountBalance());
+        assertEquals(1000.0 + ROUNDS, accountRepository.findById(second.getAccountID()).get().getAccountBalance());
+        assertEquals(1000.0 - ROUNDS, accountRepository.findById(third.getAccountID()).get().getAccountBalance());
+    }
+}
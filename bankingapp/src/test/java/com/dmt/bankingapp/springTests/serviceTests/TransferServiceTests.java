@@ -0,0 +1,247 @@
+package com.dmt.bankingapp.springTests.serviceTests;
+
+import com.dmt.bankingapp.entity.Account;
+import com.dmt.bankingapp.entity.Client;
+import com.dmt.bankingapp.entity.IdempotencyKey;
+import com.dmt.bankingapp.entity.Transaction;
+import com.dmt.bankingapp.record.transactions.BatchTransferResult;
+import com.dmt.bankingapp.record.transactions.QueuedTransfer;
+import com.dmt.bankingapp.record.transactions.TransferLeg;
+import com.dmt.bankingapp.repository.AccountRepository;
+import com.dmt.bankingapp.repository.IdempotencyKeyRepository;
+import com.dmt.bankingapp.repository.TransactionRepository;
+import com.dmt.bankingapp.service.LoanPaymentService;
+import com.dmt.bankingapp.service.TransferService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.stat.SessionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransferServiceTests {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private LoanPaymentService loanPaymentService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private TransferService transferService;
+
+    private Account giver;
+    private Account receiver;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        Client giverClient = new Client("Giver", false, "password");
+        Client receiverClient = new Client("Receiver", false, "password");
+        giver = new Account("giver1", Account.AccountType.CHECKING, giverClient);
+        giver.setAccountID(2);
+        giver.setAccountBalance(500.0, false);
+        receiver = new Account("receiver1", Account.AccountType.CHECKING, receiverClient);
+        receiver.setAccountID(1);
+
+        when(accountRepository.lockByAccountID(1)).thenReturn(receiver);
+        when(accountRepository.lockByAccountID(2)).thenReturn(giver);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testTransferLocksAccountsInAscendingIdOrder() {
+        // Act
+        transferService.transfer(giver, receiver, 100.0);
+
+        // Assert
+        InOrder inOrder = inOrder(accountRepository);
+        inOrder.verify(accountRepository).lockByAccountID(1);
+        inOrder.verify(accountRepository).lockByAccountID(2);
+        verify(entityManager, times(1)).refresh(giver);
+        verify(entityManager, times(1)).refresh(receiver);
+    }
+
+    @Test
+    void testTransferMovesMoneyBetweenLockedAccounts() {
+        // Act
+        Transaction transaction = transferService.transfer(giver, receiver, 100.0);
+
+        // Assert
+        assertEquals(100.0, transaction.getAmount());
+        assertEquals(400.0, giver.getAccountBalance());
+        assertEquals(100.0, receiver.getAccountBalance());
+        verify(transactionRepository, times(1)).save(transaction);
+    }
+
+    @Test
+    void testTransferAboveBalanceIsNotSaved() {
+        // Act and Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                transferService.transfer(giver, receiver, 1000.0));
+
+        assertEquals("You cannot transfer more money than you have on the account!", exception.getMessage());
+        assertEquals(500.0, giver.getAccountBalance());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void testTransferToMissingAccount() {
+        // Arrange
+        when(accountRepository.lockByAccountID(1)).thenReturn(null);
+
+        // Act and Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                transferService.transfer(giver, receiver, 100.0));
+
+        assertEquals("Account receiver1 does not exist!", exception.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    void testTransferStoresIdempotencyKey() {
+        // Act
+        Transaction transaction = transferService.transfer(giver, receiver, 100.0, giver.getClient(), "key-1");
+
+        // Assert
+        ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+        verify(idempotencyKeyRepository, times(1)).saveAndFlush(captor.capture());
+        assertEquals("key-1", captor.getValue().getIdempotencyKey());
+        assertEquals(giver.getClient(), captor.getValue().getClient());
+        assertEquals(transaction, captor.getValue().getTransaction());
+    }
+
+    @Test
+    void testTransferWithoutIdempotencyKeyStoresNothing() {
+        // Act
+        transferService.transfer(giver, receiver, 100.0);
+
+        // Assert
+        verify(idempotencyKeyRepository, never()).saveAndFlush(any(IdempotencyKey.class));
+    }
+
+    @Test
+    void testFindByUnknownIdempotencyKey() {
+        // Arrange
+        when(idempotencyKeyRepository.findByClientAndIdempotencyKey(giver.getClient(), "unknown")).thenReturn(null);
+
+        // Act and Assert
+        assertNull(transferService.findByIdempotencyKey(giver.getClient(), "unknown"));
+    }
+
+    private void mockBatchLocking() {
+        Session session = mock(Session.class);
+        SessionStatistics statistics = mock(SessionStatistics.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getStatistics()).thenReturn(statistics);
+        doReturn(Collections.emptySet()).when(statistics).getEntityKeys();
+        when(accountRepository.findAccountIDsByAccountNumberIn(anyCollection())).thenReturn(List.of(2, 1));
+        when(accountRepository.lockByAccountIDIn(anyCollection())).thenReturn(List.of(receiver, giver));
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testBatchTransferReportsEveryLeg() {
+        // Arrange
+        mockBatchLocking();
+        List<TransferLeg> legs = List.of(
+                new TransferLeg("receiver1", 100.0),
+                new TransferLeg("unknown", 50.0),
+                new TransferLeg("receiver1", 0.0));
+
+        // Act
+        List<BatchTransferResult> results = transferService.batchTransfer(giver, legs);
+
+        // Assert
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).success());
+        assertFalse(results.get(1).success());
+        assertEquals("Receiver's account has not been found", results.get(1).message());
+        assertFalse(results.get(2).success());
+        assertEquals("You cannot transfer 0!", results.get(2).message());
+        assertEquals(400.0, giver.getAccountBalance());
+        assertEquals(100.0, receiver.getAccountBalance());
+        verify(transactionRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testBatchTransferLocksAccountsByAccountID() {
+        // Arrange
+        mockBatchLocking();
+
+        // Act
+        transferService.batchTransfer(giver, List.of(new TransferLeg("receiver1", 100.0)));
+
+        // Assert
+        verify(accountRepository, times(1)).lockByAccountIDIn(List.of(2, 1));
+    }
+
+    @Test
+    void testBatchTransferAboveBalanceIsRejectedAsAWhole() {
+        // Arrange
+        mockBatchLocking();
+        List<TransferLeg> legs = List.of(
+                new TransferLeg("receiver1", 300.0),
+                new TransferLeg("receiver1", 300.0));
+
+        // Act and Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                transferService.batchTransfer(giver, legs));
+
+        assertEquals("You cannot transfer more money than you have on the account!", exception.getMessage());
+        assertEquals(500.0, giver.getAccountBalance());
+        verify(transactionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testTransferInOrderAppliesTransfersOneAfterAnother() {
+        // Arrange
+        mockBatchLocking();
+        List<QueuedTransfer> transfers = List.of(
+                new QueuedTransfer("t1", "giver1", "receiver1", 300.0),
+                new QueuedTransfer("t2", "giver1", "receiver1", 300.0),
+                new QueuedTransfer("t3", "giver1", "unknown", 10.0),
+                new QueuedTransfer("t4", "giver1", "receiver1", 150.0));
+
+        // Act
+        List<BatchTransferResult> results = transferService.transferInOrder(transfers);
+
+        // Assert
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).success());
+        assertFalse(results.get(1).success());
+        assertEquals("You cannot transfer more money than you have on the account!", results.get(1).message());
+        assertFalse(results.get(2).success());
+        assertEquals("Receiver's account has not been found", results.get(2).message());
+        assertTrue(results.get(3).success());
+        assertEquals(50.0, giver.getAccountBalance());
+        assertEquals(450.0, receiver.getAccountBalance());
+        verify(transactionRepository, times(1)).saveAll(anyList());
+    }
+}